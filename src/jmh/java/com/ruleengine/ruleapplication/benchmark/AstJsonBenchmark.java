@@ -0,0 +1,58 @@
+package com.ruleengine.ruleapplication.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ruleengine.ruleapplication.model.ASTNode;
+import com.ruleengine.ruleapplication.parser.RuleGenerator;
+import com.ruleengine.ruleapplication.parser.Ruleparser;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Jackson round trips of ASTNode through the @JsonTypeInfo polymorphic
+ * mapping, as done for the ast_json column.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AstJsonBenchmark {
+
+  @Param({ "10", "100", "1000" })
+  public int conditions;
+
+  // Configured like the ObjectMapper Spring Boot injects into the services
+  private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+  private ASTNode ast;
+  private String json;
+
+  @Setup
+  public void setUp() throws Exception {
+    ast = new Ruleparser().parse(RuleGenerator.randomRule(new Random(conditions), conditions));
+    json = objectMapper.writeValueAsString(ast);
+  }
+
+  @Benchmark
+  public String serialize() throws Exception {
+    return objectMapper.writeValueAsString(ast);
+  }
+
+  @Benchmark
+  public ASTNode deserialize() throws Exception {
+    return objectMapper.readValue(json, ASTNode.class);
+  }
+}
@@ -0,0 +1,77 @@
+package com.ruleengine.ruleapplication.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ruleengine.ruleapplication.codec.AstCodec;
+import com.ruleengine.ruleapplication.model.ASTNode;
+import com.ruleengine.ruleapplication.parser.RuleGenerator;
+import com.ruleengine.ruleapplication.parser.Ruleparser;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Loading a stored AST from the legacy ast_json text against the AstCodec
+ * binary form. The storedBytes counter reports the stored size of each form
+ * per operation in the JSON results.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AstStorageBenchmark {
+
+  @Param({ "10", "100", "1000" })
+  public int conditions;
+
+  private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+  private String json;
+  private byte[] binary;
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  public static class StoredSize {
+
+    public long storedBytes;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      storedBytes = 0;
+    }
+  }
+
+  @Setup
+  public void setUp() throws Exception {
+    ASTNode ast = new Ruleparser().parse(RuleGenerator.randomRule(new Random(conditions), conditions));
+    json = objectMapper.writeValueAsString(ast);
+    binary = AstCodec.encode(ast);
+  }
+
+  @Benchmark
+  public ASTNode loadJson(StoredSize size) throws Exception {
+    size.storedBytes += json.getBytes(StandardCharsets.UTF_8).length;
+    return objectMapper.readValue(json, ASTNode.class);
+  }
+
+  @Benchmark
+  public ASTNode loadBinary(StoredSize size) {
+    size.storedBytes += binary.length;
+    return AstCodec.decode(binary);
+  }
+}
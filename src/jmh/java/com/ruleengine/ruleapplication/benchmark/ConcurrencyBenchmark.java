@@ -0,0 +1,149 @@
+package com.ruleengine.ruleapplication.benchmark;
+
+import com.ruleengine.ruleapplication.RuleapplicationApplication;
+import com.ruleengine.ruleapplication.service.RuleService;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Load test of the HTTP evaluation API under bursty mixed traffic, on the
+ * same hardware with platform and virtual request threads. 128 client
+ * threads hit a small set of hot, cached rules while 128 more evaluate
+ * random cold rules, and every cold load holds a connection for
+ * dbLatencyMillis to stand in for a remote database.
+ *
+ * With a fixed Tomcat pool the cold requests occupy every request thread
+ * and the hot requests queue behind them. Virtual threads, or the async
+ * endpoint, keep the hot path flowing. Compare the throughput and latency
+ * percentiles of the hot method across the parameters. Virtual threads need
+ * Java 21; on an older runtime Spring ignores the setting.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class ConcurrencyBenchmark {
+
+  private static final int HOT_RULES = 10;
+  private static final int COLD_RULES = 2000;
+  private static final String RECORD = "{\"age\": 35, \"department\": \"Sales\", \"salary\": 60000}";
+
+  @Param({ "false", "true" })
+  public boolean virtualThreads;
+
+  @Param({ "evaluate_rule", "evaluate_rule_async" })
+  public String endpoint;
+
+  @Param({ "5" })
+  public int dbLatencyMillis;
+
+  private static volatile int latencyMillis;
+
+  private ConfigurableApplicationContext context;
+  private HttpClient client;
+  private String baseUrl;
+
+  @Setup
+  public void setUp() {
+    latencyMillis = 0;
+    context = new SpringApplicationBuilder(RuleapplicationApplication.class, SlowConnections.class)
+      .run(
+        "--server.port=0",
+        "--server.tomcat.threads.max=32",
+        "--spring.threads.virtual.enabled=" + virtualThreads,
+        "--rule.cache.max-size=" + (HOT_RULES * 4),
+        "--logging.level.root=WARN"
+      );
+    RuleService ruleService = context.getBean(RuleService.class);
+    for (int i = 0; i < HOT_RULES + COLD_RULES; i++) {
+      ruleService.createRule("rule" + i, "(age > " + (i % 50) + " AND department = 'Sales') OR salary > " + i);
+    }
+    latencyMillis = dbLatencyMillis;
+
+    baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/rules/";
+    client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  @Group("mixed")
+  @GroupThreads(128)
+  public int hot() throws Exception {
+    return evaluate("rule" + ThreadLocalRandom.current().nextInt(HOT_RULES));
+  }
+
+  @Benchmark
+  @Group("mixed")
+  @GroupThreads(128)
+  public int cold() throws Exception {
+    return evaluate("rule" + (HOT_RULES + ThreadLocalRandom.current().nextInt(COLD_RULES)));
+  }
+
+  private int evaluate(String ruleName) throws Exception {
+    HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + ruleName + "/" + endpoint))
+      .header("Content-Type", "application/json")
+      .POST(HttpRequest.BodyPublishers.ofString(RECORD))
+      .build();
+    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+    if (response.statusCode() != 200) {
+      throw new IllegalStateException("HTTP " + response.statusCode() + " for " + ruleName);
+    }
+    return response.statusCode();
+  }
+
+  /** Holds every connection for latencyMillis after it is handed out. */
+  static class SlowConnections implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+      if (!(bean instanceof DataSource dataSource)) {
+        return bean;
+      }
+      return new DelegatingDataSource(dataSource) {
+        @Override
+        public Connection getConnection() throws SQLException {
+          Connection connection = super.getConnection();
+          if (latencyMillis > 0) {
+            try {
+              Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+          }
+          return connection;
+        }
+      };
+    }
+  }
+}
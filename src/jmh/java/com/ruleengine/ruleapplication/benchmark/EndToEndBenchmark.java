@@ -0,0 +1,70 @@
+package com.ruleengine.ruleapplication.benchmark;
+
+import com.ruleengine.ruleapplication.RuleapplicationApplication;
+import com.ruleengine.ruleapplication.service.EvaluationService;
+import com.ruleengine.ruleapplication.service.RuleService;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * EvaluationService.evaluateRuleByName against the embedded H2 database of
+ * the test configuration, with the rule cache disabled (every call loads and
+ * deserializes the rule) and enabled.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EndToEndBenchmark {
+
+  @Param({ "0", "1000" })
+  public int cacheSize;
+
+  private ConfigurableApplicationContext context;
+  private EvaluationService evaluationService;
+  private final Map<String, Object> record = Map.of(
+    "age", 35,
+    "department", "Sales",
+    "salary", 60000,
+    "experience", 3
+  );
+
+  @Setup
+  public void setUp() {
+    context = new SpringApplicationBuilder(RuleapplicationApplication.class)
+      .web(WebApplicationType.NONE)
+      .run("--rule.cache.max-size=" + cacheSize, "--logging.level.root=WARN");
+    context.getBean(RuleService.class).createRule(
+      "rule1",
+      "((age > 30 AND department = 'Sales') OR (age < 25 AND department = 'Marketing')) AND (salary > 50000 OR experience > 5)"
+    );
+    evaluationService = context.getBean(EvaluationService.class);
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public boolean evaluateRuleByName() {
+    return evaluationService.evaluateRuleByName("rule1", record);
+  }
+}
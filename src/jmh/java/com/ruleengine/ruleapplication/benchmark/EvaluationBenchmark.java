@@ -0,0 +1,73 @@
+package com.ruleengine.ruleapplication.benchmark;
+
+import com.ruleengine.ruleapplication.model.ASTNode;
+import com.ruleengine.ruleapplication.slot.CompiledRule;
+import com.ruleengine.ruleapplication.slot.SlotRecord;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ASTNode.evaluate on balanced trees and on the left-deep chains built by
+ * combineRules, with numeric and string operands, against the same rule
+ * compiled to a slot layout: per record including the conversion, and on an
+ * already converted record.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvaluationBenchmark {
+
+  @Param({ "balanced", "leftDeep" })
+  public String shape;
+
+  @Param({ "numeric", "string" })
+  public String operands;
+
+  @Param({ "16", "256" })
+  public int conditions;
+
+  private ASTNode tree;
+  private Map<String, Object> record;
+  private CompiledRule compiled;
+  private SlotRecord slotRecord;
+
+  @Setup
+  public void setUp() {
+    boolean numeric = operands.equals("numeric");
+    List<ASTNode> leaves = Trees.conditions(conditions, numeric);
+    tree = shape.equals("balanced") ? Trees.balanced(leaves) : Trees.leftDeep(leaves);
+    record = Trees.record(conditions, numeric);
+    compiled = CompiledRule.compile(tree);
+    slotRecord = SlotRecord.of(compiled.getLayout(), record);
+  }
+
+  @Benchmark
+  public boolean evaluate() {
+    return tree.evaluate(record);
+  }
+
+  @Benchmark
+  public boolean evaluateCompiled() {
+    return compiled.evaluate(record);
+  }
+
+  @Benchmark
+  public boolean evaluateSlots() {
+    return compiled.evaluate(slotRecord);
+  }
+}
@@ -0,0 +1,228 @@
+package com.ruleengine.ruleapplication.benchmark;
+
+import com.ruleengine.ruleapplication.RuleapplicationApplication;
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time from launching the application to its first successful evaluate_rule
+ * response, in a new JVM per iteration. The rules are written once into an
+ * H2 file database, which every launch opens.
+ *
+ * default starts the application as configured. fast-start adds the
+ * fast-start profile, a class data sharing archive recorded in a training
+ * run that stops after the context is refreshed (as -Pfast-start does), and
+ * Spring AOT when its generated classes are on the classpath, i.e. when run
+ * with -Pfast-start,benchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 10)
+@Fork(1)
+public class StartupBenchmark {
+
+  private static final String RECORD = "{\"age\": 35, \"department\": \"Sales\", \"salary\": 60000}";
+  private static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+  @Param({ "default", "fast-start" })
+  public String mode;
+
+  @Param({ "1000" })
+  public int rules;
+
+  private Path directory;
+  private String classpath;
+  private Path archive;
+  private boolean aot;
+  private HttpClient client;
+  private Process process;
+
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    directory = Files.createTempDirectory("startup-benchmark");
+    client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).connectTimeout(Duration.ofSeconds(1)).build();
+    classpath = jarClasspath();
+
+    int port = freePort();
+    Process seeding = launch(port, List.of(), "default");
+    try {
+      awaitSuccess(seeding, HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/rules/ruleset_stats")).build());
+      for (int i = 0; i < rules; i++) {
+        HttpResponse<String> response = client.send(
+          HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/rules/create_rule"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(
+              "{\"ruleName\": \"rule" + i + "\", \"ruleString\": \"(age > " + (i % 50) + " AND department = 'Sales') OR salary > " + i + "\"}"
+            ))
+            .build(),
+          HttpResponse.BodyHandlers.ofString()
+        );
+        if (response.statusCode() != 200) {
+          throw new IllegalStateException("HTTP " + response.statusCode() + " seeding rule" + i + ": " + response.body());
+        }
+      }
+    } finally {
+      stop(seeding);
+    }
+
+    if (mode.equals("fast-start")) {
+      aot = StartupBenchmark.class.getClassLoader().getResource(
+        "com/ruleengine/ruleapplication/RuleapplicationApplication__ApplicationContextInitializer.class"
+      ) != null;
+      if (!aot) {
+        System.out.println("No Spring AOT classes on the classpath, measuring fast-start without AOT (run with -Pfast-start,benchmark)");
+      }
+      archive = directory.resolve("fast-start.jsa");
+      Process training = launch(
+        freePort(),
+        List.of("-XX:ArchiveClassesAtExit=" + archive, "-Xlog:cds=error", "-Dspring.context.exit=onRefresh"),
+        mode
+      );
+      if (!training.waitFor(TIMEOUT.toSeconds(), TimeUnit.SECONDS) || training.exitValue() != 0) {
+        stop(training);
+        throw new IllegalStateException("CDS training run failed, see " + directory.resolve("fast-start.log"));
+      }
+    }
+  }
+
+  @Benchmark
+  public int timeToFirstEvaluation() throws Exception {
+    int port = freePort();
+    List<String> jvmArgs = archive == null ? List.of() : List.of("-XX:SharedArchiveFile=" + archive, "-Xlog:cds=error");
+    process = launch(port, jvmArgs, mode);
+    return awaitSuccess(process, HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/rules/rule0/evaluate_rule"))
+      .header("Content-Type", "application/json")
+      .POST(HttpRequest.BodyPublishers.ofString(RECORD))
+      .build());
+  }
+
+  @TearDown(Level.Iteration)
+  public void stopApplication() throws InterruptedException {
+    if (process != null) {
+      stop(process);
+      process = null;
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    try (var files = Files.walk(directory)) {
+      files.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+    }
+  }
+
+  private Process launch(int port, List<String> jvmArgs, String launchMode) throws IOException {
+    List<String> command = new ArrayList<>();
+    command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+    command.addAll(jvmArgs);
+    if (launchMode.equals("fast-start")) {
+      command.add("-Dspring.profiles.active=fast-start");
+      if (aot) {
+        command.add("-Dspring.aot.enabled=true");
+      }
+    }
+    command.add("-cp");
+    command.add(classpath);
+    command.add(RuleapplicationApplication.class.getName());
+    command.add("--server.port=" + port);
+    // The application closes the database itself, after the snapshot is written at shutdown
+    command.add("--spring.datasource.url=jdbc:h2:file:" + directory.resolve("rules") + ";DB_CLOSE_ON_EXIT=FALSE");
+    // As in application.properties, which the test configuration on this classpath overrides
+    command.add("--rule.snapshot.enabled=true");
+    command.add("--rule.snapshot.path=" + directory.resolve(launchMode + ".snapshot"));
+    if (launchMode.equals("default")) {
+      command.add("--spring.jpa.hibernate.ddl-auto=update");
+    }
+    return new ProcessBuilder(command)
+      .redirectErrorStream(true)
+      .redirectOutput(ProcessBuilder.Redirect.appendTo(directory.resolve(launchMode + ".log").toFile()))
+      .start();
+  }
+
+  // Sends the request until it is answered with 200; connection refused and errors mean not ready yet
+  private int awaitSuccess(Process launched, HttpRequest request) throws Exception {
+    long deadline = System.nanoTime() + TIMEOUT.toNanos();
+    while (System.nanoTime() < deadline) {
+      if (!launched.isAlive()) {
+        throw new IllegalStateException("Application exited with " + launched.exitValue() + ", see " + directory);
+      }
+      try {
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() == 200) {
+          return response.statusCode();
+        }
+      } catch (IOException e) {
+        // Not listening yet
+      }
+      Thread.sleep(5);
+    }
+    throw new IllegalStateException("No successful " + request.uri() + " within " + TIMEOUT);
+  }
+
+  // Class data sharing only archives classes from jar files, so the class directories are packed into jars
+  private String jarClasspath() throws IOException {
+    List<String> entries = new ArrayList<>();
+    for (String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+      Path path = Path.of(entry);
+      if (!Files.isDirectory(path)) {
+        entries.add(entry);
+        continue;
+      }
+      Path jar = directory.resolve("classpath-" + entries.size() + ".jar");
+      try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar)); var files = Files.walk(path)) {
+        for (Path file : (Iterable<Path>) files.skip(1)::iterator) {
+          String name = path.relativize(file).toString().replace(File.separatorChar, '/');
+          // Directory entries too, component scanning lists packages through them
+          out.putNextEntry(new JarEntry(Files.isDirectory(file) ? name + "/" : name));
+          if (!Files.isDirectory(file)) {
+            Files.copy(file, out);
+          }
+          out.closeEntry();
+        }
+      }
+      entries.add(jar.toString());
+    }
+    return String.join(File.pathSeparator, entries);
+  }
+
+  private static void stop(Process process) throws InterruptedException {
+    process.destroy(); // Graceful, the database files and the snapshot are closed properly
+    if (!process.waitFor(30, TimeUnit.SECONDS)) {
+      process.destroyForcibly().waitFor();
+    }
+  }
+
+  private static int freePort() throws IOException {
+    try (ServerSocket socket = new ServerSocket(0)) {
+      return socket.getLocalPort();
+    }
+  }
+}
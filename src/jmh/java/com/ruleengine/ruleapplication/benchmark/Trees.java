@@ -0,0 +1,61 @@
+package com.ruleengine.ruleapplication.benchmark;
+
+import com.ruleengine.ruleapplication.model.ASTNode;
+import com.ruleengine.ruleapplication.model.OperandNode;
+import com.ruleengine.ruleapplication.model.OperatorNode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rule trees and matching records for the evaluation benchmarks. Every
+ * condition holds for the record, so AND trees are walked completely.
+ */
+final class Trees {
+
+  private Trees() {
+  }
+
+  static List<ASTNode> conditions(int count, boolean numeric) {
+    List<ASTNode> conditions = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      conditions.add(numeric
+        ? new OperandNode("attr" + i, ">", (double) i)
+        : new OperandNode("attr" + i, "=", "value" + i));
+    }
+    return conditions;
+  }
+
+  static Map<String, Object> record(int count, boolean numeric) {
+    Map<String, Object> record = new HashMap<>();
+    for (int i = 0; i < count; i++) {
+      record.put("attr" + i, numeric ? (Object) (i + 1) : "value" + i);
+    }
+    return record;
+  }
+
+  // Same shape as RuleService.combineAstNodes
+  static ASTNode leftDeep(List<ASTNode> conditions) {
+    ASTNode combined = conditions.get(0);
+    for (int i = 1; i < conditions.size(); i++) {
+      combined = new OperatorNode("AND", combined, conditions.get(i));
+    }
+    return combined;
+  }
+
+  static ASTNode balanced(List<ASTNode> conditions) {
+    List<ASTNode> level = conditions;
+    while (level.size() > 1) {
+      List<ASTNode> next = new ArrayList<>((level.size() + 1) / 2);
+      for (int i = 0; i + 1 < level.size(); i += 2) {
+        next.add(new OperatorNode("AND", level.get(i), level.get(i + 1)));
+      }
+      if (level.size() % 2 == 1) {
+        next.add(level.get(level.size() - 1));
+      }
+      level = next;
+    }
+    return level.get(0);
+  }
+}
@@ -0,0 +1,86 @@
+package com.ruleengine.ruleapplication.benchmark;
+
+import com.ruleengine.ruleapplication.model.ASTNode;
+import com.ruleengine.ruleapplication.parser.Ruleparser;
+import com.ruleengine.ruleapplication.vector.ColumnarBatch;
+import com.ruleengine.ruleapplication.vector.VectorizedEvaluator;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Per-row ASTNode.evaluate over boxed records against VectorizedEvaluator
+ * over the same rows stored as columns.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class VectorizedBenchmark {
+
+  private static final int ROWS = 100_000;
+  private static final String[] DEPARTMENTS = { "Sales", "Marketing", "HR", "Engineering" };
+
+  private ASTNode ast;
+  private List<Map<String, Object>> rows;
+  private ColumnarBatch batch;
+
+  @Setup
+  public void setUp() {
+    ast = new Ruleparser().parse(
+      "(age > 30 AND department = 'Sales') OR (age < 25 AND department = 'Marketing') OR salary > 90000"
+    );
+
+    Random random = new Random(7);
+    double[] age = new double[ROWS];
+    double[] salary = new double[ROWS];
+    String[] department = new String[ROWS];
+    rows = new ArrayList<>(ROWS);
+    for (int i = 0; i < ROWS; i++) {
+      age[i] = 18 + random.nextInt(50);
+      salary[i] = 20_000 + random.nextInt(80_000);
+      department[i] = DEPARTMENTS[random.nextInt(DEPARTMENTS.length)];
+      Map<String, Object> row = new HashMap<>();
+      row.put("age", age[i]);
+      row.put("salary", salary[i]);
+      row.put("department", department[i]);
+      rows.add(row);
+    }
+    batch = new ColumnarBatch(ROWS)
+      .addNumeric("age", age)
+      .addNumeric("salary", salary)
+      .addStrings("department", department);
+  }
+
+  @Benchmark
+  public BitSet perRow() {
+    BitSet matches = new BitSet(ROWS);
+    for (int i = 0; i < ROWS; i++) {
+      if (ast.evaluate(rows.get(i))) {
+        matches.set(i);
+      }
+    }
+    return matches;
+  }
+
+  @Benchmark
+  public BitSet vectorized() {
+    return VectorizedEvaluator.evaluate(ast, batch);
+  }
+}
@@ -0,0 +1,48 @@
+package com.ruleengine.ruleapplication.parser;
+
+import com.ruleengine.ruleapplication.model.ASTNode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Ruleparser against the legacy regex parser across rule sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseBenchmark {
+
+  @Param({ "10", "100", "1000" })
+  public int conditions;
+
+  private String rule;
+
+  @Setup
+  public void setUp() {
+    rule = RuleGenerator.randomRule(new Random(conditions), conditions);
+  }
+
+  @Benchmark
+  public ASTNode legacy() {
+    return new LegacyRuleparser().parse(rule);
+  }
+
+  @Benchmark
+  public ASTNode current() {
+    return new Ruleparser().parse(rule);
+  }
+}
@@ -0,0 +1,129 @@
+package com.ruleengine.ruleapplication.loadtest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.boot.convert.DurationStyle;
+
+/**
+ * Settings of a load test run, given as key=value arguments. Arguments
+ * starting with -- are passed on to the embedded application, e.g.
+ * --rule.cache.max-size=100, so configurations can be compared.
+ */
+record LoadConfig(
+  String url, // Application to test, an embedded one with the test configuration when absent
+  int rules, // Rules to seed through create_rule
+  int conditions, // Conditions per seeded rule, at most
+  int combined, // Rules to seed through combine_rules, each over fanIn seeded rules
+  int fanIn,
+  String prefix, // Rule names are prefix + number; existing ones are reused
+  String endpoint, // evaluate_rule, evaluate_rule_async or evaluate_batch
+  int batchSize, // Records per evaluate_batch request
+  String mode, // rate: requests at a fixed rate; closed: concurrency clients back to back
+  int rate, // Requests per second in rate mode
+  int concurrency, // Clients in closed mode
+  int maxInFlight, // Outstanding requests in rate mode; waiting for a slot counts as latency
+  Duration warmup,
+  Duration duration,
+  long seed, // Same seed, same rules and same request sequence
+  String report, // JSON report; the .hgrm percentile distribution is written next to it
+  List<String> appArgs
+) {
+
+  private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+  static {
+    DEFAULTS.put("url", "");
+    DEFAULTS.put("rules", "1000");
+    DEFAULTS.put("conditions", "6");
+    DEFAULTS.put("combined", "100");
+    DEFAULTS.put("fanIn", "3");
+    DEFAULTS.put("prefix", "loadtest-");
+    DEFAULTS.put("endpoint", "evaluate_rule");
+    DEFAULTS.put("batchSize", "100");
+    DEFAULTS.put("mode", "closed");
+    DEFAULTS.put("rate", "1000");
+    DEFAULTS.put("concurrency", "32");
+    DEFAULTS.put("maxInFlight", "1000");
+    DEFAULTS.put("warmup", "10s");
+    DEFAULTS.put("duration", "30s");
+    DEFAULTS.put("seed", "42");
+    DEFAULTS.put("report", "target/loadtest-report.json");
+  }
+
+  static LoadConfig parse(String[] args) {
+    Map<String, String> values = new LinkedHashMap<>(DEFAULTS);
+    List<String> appArgs = new ArrayList<>();
+    for (String arg : args) {
+      // Maven passes all settings as one argument
+      for (String token : arg.trim().split("\\s+")) {
+        if (token.isEmpty()) {
+          continue;
+        }
+        if (token.startsWith("--")) {
+          appArgs.add(token);
+          continue;
+        }
+        int eq = token.indexOf('=');
+        if (eq < 0 || !DEFAULTS.containsKey(token.substring(0, eq))) {
+          throw new IllegalArgumentException("Unknown argument: " + token + ", expected one of " + DEFAULTS.keySet());
+        }
+        values.put(token.substring(0, eq), token.substring(eq + 1));
+      }
+    }
+
+    LoadConfig config = new LoadConfig(
+      values.get("url").isEmpty() ? null : values.get("url"),
+      Integer.parseInt(values.get("rules")),
+      Integer.parseInt(values.get("conditions")),
+      Integer.parseInt(values.get("combined")),
+      Integer.parseInt(values.get("fanIn")),
+      values.get("prefix"),
+      values.get("endpoint"),
+      Integer.parseInt(values.get("batchSize")),
+      values.get("mode"),
+      Integer.parseInt(values.get("rate")),
+      Integer.parseInt(values.get("concurrency")),
+      Integer.parseInt(values.get("maxInFlight")),
+      DurationStyle.detectAndParse(values.get("warmup")),
+      DurationStyle.detectAndParse(values.get("duration")),
+      Long.parseLong(values.get("seed")),
+      values.get("report"),
+      List.copyOf(appArgs)
+    );
+    if (!List.of("evaluate_rule", "evaluate_rule_async", "evaluate_batch").contains(config.endpoint)) {
+      throw new IllegalArgumentException("Unsupported endpoint: " + config.endpoint);
+    }
+    if (!config.mode.equals("rate") && !config.mode.equals("closed")) {
+      throw new IllegalArgumentException("mode must be rate or closed: " + config.mode);
+    }
+    if (config.rules < 1 || config.conditions < 1 || config.rate < 1 || config.concurrency < 1) {
+      throw new IllegalArgumentException("rules, conditions, rate and concurrency must be positive");
+    }
+    return config;
+  }
+
+  /** The settings as given, for the report; a run is replayed by passing them again. */
+  Map<String, Object> toMap() {
+    Map<String, Object> map = new LinkedHashMap<>();
+    map.put("url", url == null ? "embedded" : url);
+    map.put("rules", rules);
+    map.put("conditions", conditions);
+    map.put("combined", combined);
+    map.put("fanIn", fanIn);
+    map.put("prefix", prefix);
+    map.put("endpoint", endpoint);
+    map.put("batchSize", batchSize);
+    map.put("mode", mode);
+    map.put("rate", rate);
+    map.put("concurrency", concurrency);
+    map.put("maxInFlight", maxInFlight);
+    map.put("warmup", warmup.toString());
+    map.put("duration", duration.toString());
+    map.put("seed", seed);
+    map.put("appArgs", appArgs);
+    return map;
+  }
+}
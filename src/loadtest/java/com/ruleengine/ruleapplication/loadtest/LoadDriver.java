@@ -0,0 +1,181 @@
+package com.ruleengine.ruleapplication.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Sends evaluation requests for one phase (warmup or measurement) and
+ * records their latencies in microseconds.
+ *
+ * In rate mode requests are sent on a fixed schedule whatever the response
+ * times are, and latency is measured from when a request was due to be sent,
+ * not from when it was sent. A stalled server thereby shows up in the
+ * percentiles instead of just slowing down the load generator (coordinated
+ * omission). In closed mode each client sends its next request when the
+ * previous one returns, which can only measure service time; the latency
+ * histogram is then corrected with HdrHistogram, taking the mean response
+ * time as the expected interval between requests.
+ */
+final class LoadDriver {
+
+  static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(5);
+  private static final int RECORDS = 4096;
+
+  /** Latency from the intended send time, service time from the actual one. */
+  record Result(Histogram latency, Histogram serviceTime, long requests, Map<String, Long> errors, long nanos) {}
+
+  private final LoadConfig config;
+  private final String baseUrl;
+  private final HttpClient client;
+  private final List<String> ruleNames;
+  private final String[] records;
+
+  LoadDriver(LoadConfig config, String baseUrl, HttpClient client, List<String> ruleNames) {
+    this.config = config;
+    this.baseUrl = baseUrl;
+    this.client = client;
+    this.ruleNames = ruleNames;
+    this.records = records(new SplittableRandom(config.seed()));
+  }
+
+  Result run(long durationNanos, long seed) throws InterruptedException {
+    Phase phase = new Phase();
+    long start = System.nanoTime();
+    if (config.mode().equals("rate")) {
+      runAtRate(phase, start, start + durationNanos, new SplittableRandom(seed));
+    } else {
+      runClosed(phase, start + durationNanos, seed);
+    }
+    long nanos = System.nanoTime() - start;
+
+    Histogram serviceTime = phase.serviceTime.copy();
+    Histogram latency = config.mode().equals("rate")
+      ? phase.latency.copy()
+      : serviceTime.copyCorrectedForCoordinatedOmission((long) serviceTime.getMean());
+    Map<String, Long> errors = new TreeMap<>();
+    phase.errors.forEach((key, count) -> errors.put(key, count.sum()));
+    return new Result(latency, serviceTime, phase.requests.sum(), errors, nanos);
+  }
+
+  private void runAtRate(Phase phase, long start, long end, SplittableRandom random) throws InterruptedException {
+    long period = TimeUnit.SECONDS.toNanos(1) / config.rate();
+    Semaphore inFlight = new Semaphore(config.maxInFlight());
+    for (long i = 0; ; i++) {
+      long intended = start + i * period;
+      if (intended >= end) {
+        break;
+      }
+      long wait;
+      while ((wait = intended - System.nanoTime()) > 0) {
+        LockSupport.parkNanos(wait);
+      }
+      // Time spent waiting for a slot counts, the request was due at intended
+      inFlight.acquire();
+      long sent = System.nanoTime();
+      client.sendAsync(request(random), HttpResponse.BodyHandlers.discarding())
+        .whenComplete((response, failure) -> {
+          phase.complete(response, failure, intended, sent);
+          inFlight.release();
+        });
+    }
+    inFlight.acquire(config.maxInFlight()); // Wait for the stragglers
+  }
+
+  private void runClosed(Phase phase, long end, long seed) throws InterruptedException {
+    List<Thread> clients = new ArrayList<>();
+    for (int c = 0; c < config.concurrency(); c++) {
+      SplittableRandom random = new SplittableRandom(seed + c);
+      Thread thread = new Thread(() -> {
+        while (System.nanoTime() < end) {
+          long sent = System.nanoTime();
+          try {
+            phase.complete(client.send(request(random), HttpResponse.BodyHandlers.discarding()), null, sent, sent);
+          } catch (Exception e) {
+            phase.complete(null, e, sent, sent);
+          }
+        }
+      }, "load-client-" + c);
+      thread.start();
+      clients.add(thread);
+    }
+    for (Thread thread : clients) {
+      thread.join();
+    }
+  }
+
+  private HttpRequest request(SplittableRandom random) {
+    String ruleName = ruleNames.get(random.nextInt(ruleNames.size()));
+    String body;
+    if (config.endpoint().equals("evaluate_batch")) {
+      StringBuilder batch = new StringBuilder("[");
+      for (int i = 0; i < config.batchSize(); i++) {
+        batch.append(i == 0 ? "" : ",").append(records[random.nextInt(RECORDS)]);
+      }
+      body = batch.append(']').toString();
+    } else {
+      body = records[random.nextInt(RECORDS)];
+    }
+    return HttpRequest.newBuilder(URI.create(baseUrl + ruleName + "/" + config.endpoint()))
+      .header("Content-Type", "application/json")
+      .POST(HttpRequest.BodyPublishers.ofString(body))
+      .build();
+  }
+
+  // Synthetic records matching the attributes of RuleSeeder; an attribute is left out now and then
+  private static String[] records(SplittableRandom random) {
+    String[] records = new String[RECORDS];
+    for (int i = 0; i < RECORDS; i++) {
+      StringBuilder record = new StringBuilder("{");
+      for (int a = 0; a < RuleSeeder.NUMBERS.length; a++) {
+        if (random.nextInt(10) != 0) {
+          record.append(record.length() > 1 ? "," : "")
+            .append('"').append(RuleSeeder.NUMBERS[a]).append("\":")
+            .append(random.nextInt(RuleSeeder.NUMBER_RANGES[a]));
+        }
+      }
+      for (String attribute : RuleSeeder.STRINGS) {
+        if (random.nextInt(10) != 0) {
+          record.append(record.length() > 1 ? "," : "")
+            .append('"').append(attribute).append("\":\"")
+            .append(attribute).append(random.nextInt(RuleSeeder.STRING_VALUES)).append('"');
+        }
+      }
+      records[i] = record.append('}').toString();
+    }
+    return records;
+  }
+
+  private static final class Phase {
+
+    final Histogram latency = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+    final Histogram serviceTime = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+    final LongAdder requests = new LongAdder();
+    final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    void complete(HttpResponse<?> response, Throwable failure, long intended, long sent) {
+      long now = System.nanoTime();
+      requests.increment();
+      if (failure != null) {
+        errors.computeIfAbsent(failure.getClass().getSimpleName(), key -> new LongAdder()).increment();
+      } else if (response.statusCode() != 200) {
+        errors.computeIfAbsent("HTTP " + response.statusCode(), key -> new LongAdder()).increment();
+      }
+      latency.recordValue(Math.min(HIGHEST_MICROS, (now - intended) / 1_000));
+      serviceTime.recordValue(Math.min(HIGHEST_MICROS, (now - sent) / 1_000));
+    }
+  }
+}
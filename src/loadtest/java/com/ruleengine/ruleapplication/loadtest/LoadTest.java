@@ -0,0 +1,127 @@
+package com.ruleengine.ruleapplication.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ruleengine.ruleapplication.RuleapplicationApplication;
+import java.io.PrintStream;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Load test of the REST API: seeds rules through create_rule and
+ * combine_rules, then drives an evaluation endpoint with synthetic records
+ * for a warmup and a measured phase, and reports throughput and latency
+ * percentiles. See LoadConfig for the settings and LoadDriver for how
+ * latency is measured.
+ *
+ * Without url the application is started in this JVM on a random port with
+ * the test configuration (embedded H2), so runs need nothing but Maven:
+ * <pre>
+ *   mvn -Ploadtest verify -DskipTests -Dloadtest.args="mode=rate rate=2000 duration=60s"
+ * </pre>
+ */
+public final class LoadTest {
+
+  private LoadTest() {
+  }
+
+  public static void main(String[] args) throws Exception {
+    LoadConfig config = LoadConfig.parse(args);
+    ConfigurableApplicationContext context = null;
+    String url = config.url();
+    if (url == null) {
+      List<String> appArgs = new ArrayList<>(List.of("--server.port=0", "--logging.level.root=WARN"));
+      appArgs.addAll(config.appArgs());
+      context = new SpringApplicationBuilder(RuleapplicationApplication.class).run(appArgs.toArray(new String[0]));
+      url = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+    }
+    try {
+      run(config, url.replaceAll("/+$", "") + "/rules/");
+    } finally {
+      if (context != null) {
+        context.close();
+      }
+    }
+  }
+
+  private static void run(LoadConfig config, String baseUrl) throws Exception {
+    ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    List<String> ruleNames = new RuleSeeder(config, baseUrl, client, objectMapper).seed();
+    LoadDriver driver = new LoadDriver(config, baseUrl, client, ruleNames);
+    if (!config.warmup().isZero()) {
+      System.out.println("Warming up for " + config.warmup());
+      driver.run(config.warmup().toNanos(), config.seed() ^ 0x5DEECE66DL);
+    }
+    System.out.println("Measuring for " + config.duration());
+    LoadDriver.Result result = driver.run(config.duration().toNanos(), config.seed());
+
+    Map<String, Object> report = report(config, result);
+    print(report);
+    Path path = Path.of(config.report());
+    if (path.toAbsolutePath().getParent() != null) {
+      Files.createDirectories(path.toAbsolutePath().getParent());
+    }
+    objectMapper.writeValue(path.toFile(), report);
+    Path distribution = path.resolveSibling(path.getFileName().toString().replaceAll("\\.json$", "") + ".hgrm");
+    try (PrintStream out = new PrintStream(Files.newOutputStream(distribution))) {
+      result.latency().outputPercentileDistribution(out, 1000.0); // In milliseconds, for the HdrHistogram plotter
+    }
+    System.out.println("Report written to " + path + " and " + distribution);
+  }
+
+  private static Map<String, Object> report(LoadConfig config, LoadDriver.Result result) {
+    double seconds = result.nanos() / 1e9;
+    long errors = result.errors().values().stream().mapToLong(Long::longValue).sum();
+    Map<String, Object> report = new LinkedHashMap<>();
+    report.put("config", config.toMap());
+    report.put("requests", result.requests());
+    report.put("errors", errors);
+    report.put("errorsByType", result.errors());
+    report.put("seconds", seconds);
+    report.put("requestsPerSecond", result.requests() / seconds);
+    if (config.endpoint().equals("evaluate_batch")) {
+      report.put("recordsPerSecond", result.requests() * config.batchSize() / seconds);
+    }
+    report.put("latencyMicros", percentiles(result.latency()));
+    report.put("serviceTimeMicros", percentiles(result.serviceTime()));
+    return report;
+  }
+
+  private static Map<String, Object> percentiles(Histogram histogram) {
+    Map<String, Object> percentiles = new LinkedHashMap<>();
+    percentiles.put("mean", histogram.getMean());
+    percentiles.put("p50", histogram.getValueAtPercentile(50));
+    percentiles.put("p90", histogram.getValueAtPercentile(90));
+    percentiles.put("p99", histogram.getValueAtPercentile(99));
+    percentiles.put("p999", histogram.getValueAtPercentile(99.9));
+    percentiles.put("max", histogram.getMaxValue());
+    return percentiles;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static void print(Map<String, Object> report) {
+    System.out.printf(
+      "%n%d requests, %d errors, %.0f requests/s%s%n",
+      (Long) report.get("requests"), (Long) report.get("errors"), (Double) report.get("requestsPerSecond"),
+      report.containsKey("recordsPerSecond") ? String.format(", %.0f records/s", (Double) report.get("recordsPerSecond")) : ""
+    );
+    System.out.printf("%-14s %10s %10s %10s %10s %10s %10s%n", "(microseconds)", "mean", "p50", "p90", "p99", "p99.9", "max");
+    for (String key : List.of("latencyMicros", "serviceTimeMicros")) {
+      Map<String, Object> p = (Map<String, Object>) report.get(key);
+      System.out.printf(
+        "%-14s %10.0f %10d %10d %10d %10d %10d%n",
+        key.replace("Micros", ""), (Double) p.get("mean"), p.get("p50"), p.get("p90"), p.get("p99"), p.get("p999"), p.get("max")
+      );
+    }
+  }
+}
@@ -0,0 +1,154 @@
+package com.ruleengine.ruleapplication.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Creates the rules of a run through the REST API: config.rules rules of up
+ * to config.conditions conditions through create_rule, then config.combined
+ * rules through combine_rules, each over config.fanIn of them. Rule strings
+ * follow from the seed, so a rule that already exists under its name (from
+ * an earlier run with the same settings) is reused instead of created.
+ */
+final class RuleSeeder {
+
+  // Numeric attributes with the range of their values, and string attributes with theirs
+  static final String[] NUMBERS = { "age", "salary", "experience" };
+  static final int[] NUMBER_RANGES = { 80, 200_000, 40 };
+  static final String[] STRINGS = { "department", "city" };
+  static final int STRING_VALUES = 10;
+
+  private static final String[] NUMERIC_COMPARATORS = { ">", "<", ">=", "<=", "=", "!=" };
+  private static final int SEED_THREADS = 16;
+
+  private final LoadConfig config;
+  private final String baseUrl;
+  private final HttpClient client;
+  private final ObjectMapper objectMapper;
+
+  RuleSeeder(LoadConfig config, String baseUrl, HttpClient client, ObjectMapper objectMapper) {
+    this.config = config;
+    this.baseUrl = baseUrl;
+    this.client = client;
+    this.objectMapper = objectMapper;
+  }
+
+  /** Returns the names of all rules to evaluate. */
+  List<String> seed() throws Exception {
+    Set<String> existing = existingNames();
+    Random random = new Random(config.seed());
+    List<String> names = new ArrayList<>();
+    List<Map<String, Object>> creates = new ArrayList<>();
+    for (int i = 0; i < config.rules(); i++) {
+      String name = config.prefix() + i;
+      String ruleString = randomRule(random, 1 + random.nextInt(config.conditions()));
+      names.add(name);
+      if (!existing.contains(name)) {
+        creates.add(Map.of("ruleName", name, "ruleString", ruleString));
+      }
+    }
+    List<Map<String, Object>> combines = new ArrayList<>();
+    int base = names.size();
+    for (int i = 0; i < config.combined(); i++) {
+      String name = config.prefix() + "combined-" + i;
+      List<String> ruleNames = new ArrayList<>();
+      for (int j = 0; j < config.fanIn(); j++) {
+        ruleNames.add(names.get(random.nextInt(base)));
+      }
+      String operator = random.nextBoolean() ? "AND" : "OR";
+      names.add(name);
+      if (!existing.contains(name)) {
+        combines.add(Map.of("ruleNames", ruleNames, "combinedRuleName", name, "operator", operator));
+      }
+    }
+
+    long start = System.nanoTime();
+    post("create_rule", creates);
+    post("combine_rules", combines);
+    System.out.printf(
+      "Seeded %d rules (%d created, %d combined, %d reused) in %d ms%n",
+      names.size(), creates.size(), combines.size(), names.size() - creates.size() - combines.size(),
+      (System.nanoTime() - start) / 1_000_000
+    );
+    return names;
+  }
+
+  private Set<String> existingNames() throws Exception {
+    Set<String> names = new HashSet<>();
+    String after = null;
+    do {
+      String query = "catalog?limit=1000&prefix=" + encode(config.prefix()) + (after == null ? "" : "&after=" + encode(after));
+      HttpResponse<String> response = client.send(
+        HttpRequest.newBuilder(URI.create(baseUrl + query)).GET().build(),
+        HttpResponse.BodyHandlers.ofString()
+      );
+      if (response.statusCode() != 200) {
+        throw new IllegalStateException("HTTP " + response.statusCode() + " listing existing rules");
+      }
+      JsonNode page = objectMapper.readTree(response.body());
+      page.get("rules").forEach(rule -> names.add(rule.get("name").asText()));
+      after = page.get("nextAfter").isNull() ? null : page.get("nextAfter").asText();
+    } while (after != null);
+    return names;
+  }
+
+  private void post(String endpoint, List<Map<String, Object>> bodies) throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(SEED_THREADS);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (Map<String, Object> body : bodies) {
+        futures.add(executor.submit(() -> {
+          HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + endpoint))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+            .build();
+          HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+          if (response.statusCode() != 200) {
+            throw new IllegalStateException("HTTP " + response.statusCode() + " from " + endpoint + ": " + response.body());
+          }
+          return null;
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  // Conditions compare numbers with numbers and strings with strings, so evaluations do not fail
+  static String randomRule(Random random, int conditions) {
+    if (conditions == 1) {
+      if (random.nextInt(3) == 0) {
+        int attribute = random.nextInt(STRINGS.length);
+        return STRINGS[attribute] + (random.nextInt(4) == 0 ? " != '" : " = '") + STRINGS[attribute] + random.nextInt(STRING_VALUES) + "'";
+      }
+      int attribute = random.nextInt(NUMBERS.length);
+      return NUMBERS[attribute] + " " + NUMERIC_COMPARATORS[random.nextInt(NUMERIC_COMPARATORS.length)] + " "
+        + random.nextInt(NUMBER_RANGES[attribute]);
+    }
+    int left = 1 + random.nextInt(conditions - 1);
+    String operator = random.nextBoolean() ? " AND " : " OR ";
+    return "(" + randomRule(random, left) + operator + randomRule(random, conditions - left) + ")";
+  }
+
+  private static String encode(String value) {
+    return URLEncoder.encode(value, StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,471 @@
+package com.ruleengine.ruleapplication.codec;
+
+import com.ruleengine.ruleapplication.model.ASTNode;
+import com.ruleengine.ruleapplication.model.OperandNode;
+import com.ruleengine.ruleapplication.model.OperatorNode;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary encoding of ASTNode trees, stored in the ast_binary column.
+ *
+ * Layout (version 3):
+ * <pre>
+ *   'R' 'A' version
+ *   varint stringCount, then per string: varint byteLength, UTF-8 bytes
+ *   nodes in pre-order:
+ *     AND | OR varint(childCount)                operator, followed by its children
+ *     OPERATOR_NAMED varint(string) varint(childCount)
+ *                                                any other operator name
+ *     OPERAND varint(attribute) comparator value
+ *       comparator: one byte code, or COMPARATOR_NAMED varint(string)
+ *       value:      a type tag followed by the typed constant, or
+ *                   LIST varint(count) and that many tagged constants
+ *     REF varint(node)                           a node written earlier
+ * </pre>
+ * Attribute names and string values are interned in the string table, so each
+ * distinct string is stored and allocated once per tree. Nodes are numbered in
+ * the order they are written; a subtree the tree shares (see AstNormalizer),
+ * or a repeated condition, is written once and referenced afterwards, and
+ * decodes to a single shared instance. Numeric constants keep their Java type;
+ * integral doubles are written as zig-zag varints. Both directions use
+ * explicit stacks and handle trees of any depth.
+ *
+ * Older versions are still read. Version 2 lacks list values and the IN,
+ * NOT IN and BETWEEN comparator codes. Version 1 also has exactly two children
+ * per operator and no references.
+ */
+public final class AstCodec {
+
+  static final byte MAGIC_0 = 'R';
+  static final byte MAGIC_1 = 'A';
+  public static final byte VERSION = 3;
+
+  // Node tags
+  private static final int AND = 0;
+  private static final int OR = 1;
+  private static final int OPERATOR_NAMED = 2;
+  private static final int OPERAND = 3;
+  private static final int REF = 4;
+
+  // Comparator codes, COMPARATOR_NAMED is followed by a string index
+  // Codes are only ever appended, with a version bump
+  private static final String[] COMPARATORS = { ">", "<", ">=", "<=", "=", "==", "!=", "IN", "NOT IN", "BETWEEN" };
+  // Comparator codes known to versions 1 and 2
+  private static final int VERSION_2_COMPARATORS = 7;
+  private static final int COMPARATOR_NAMED = 0x7F;
+
+  // Value tags
+  private static final int VALUE_NULL = 0;
+  private static final int VALUE_DOUBLE = 1;
+  private static final int VALUE_INTEGRAL_DOUBLE = 2;
+  private static final int VALUE_INT = 3;
+  private static final int VALUE_LONG = 4;
+  private static final int VALUE_STRING = 5;
+  private static final int VALUE_TRUE = 6;
+  private static final int VALUE_FALSE = 7;
+  private static final int VALUE_LIST = 8;
+
+  private AstCodec() {
+  }
+
+  public static byte[] encode(ASTNode root) {
+    Writer body = new Writer(256);
+    Map<String, Integer> strings = new HashMap<>();
+    List<String> table = new ArrayList<>();
+    // Ids of the nodes written so far: operators by identity, conditions by value
+    Map<ASTNode, Integer> operatorIds = new IdentityHashMap<>();
+    Map<OperandNode, Integer> operandIds = new HashMap<>();
+    int nextId = 0;
+
+    Deque<ASTNode> pending = new ArrayDeque<>();
+    pending.push(root);
+    while (!pending.isEmpty()) {
+      ASTNode node = pending.pop();
+      Integer written = node instanceof OperandNode operand
+        ? operandIds.get(operand)
+        : operatorIds.get(node);
+      if (written != null) {
+        body.writeByte(REF);
+        body.writeVarInt(written);
+      } else if (node instanceof OperatorNode operatorNode) {
+        operatorIds.put(operatorNode, nextId++);
+        String operator = operatorNode.getOperator();
+        if ("AND".equals(operator)) {
+          body.writeByte(AND);
+        } else if ("OR".equals(operator)) {
+          body.writeByte(OR);
+        } else {
+          body.writeByte(OPERATOR_NAMED);
+          body.writeVarInt(intern(operator, strings, table));
+        }
+        List<ASTNode> children = operatorNode.getChildren();
+        body.writeVarInt(children.size());
+        for (int i = children.size() - 1; i >= 0; i--) {
+          pending.push(children.get(i));
+        }
+      } else if (node instanceof OperandNode operand) {
+        operandIds.put(operand, nextId++);
+        body.writeByte(OPERAND);
+        body.writeVarInt(intern(operand.getAttribute(), strings, table));
+        writeComparator(body, operand.getOperator(), strings, table);
+        writeValue(body, operand.getValue(), strings, table);
+      } else {
+        throw new IllegalArgumentException("Unsupported node: " + node);
+      }
+    }
+
+    Writer out = new Writer(body.size + 64);
+    out.writeByte(MAGIC_0);
+    out.writeByte(MAGIC_1);
+    out.writeByte(VERSION);
+    out.writeVarInt(table.size());
+    for (String string : table) {
+      byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+      out.writeVarInt(bytes.length);
+      out.writeBytes(bytes, 0, bytes.length);
+    }
+    out.writeBytes(body.buffer, 0, body.size);
+    return out.toByteArray();
+  }
+
+  public static ASTNode decode(byte[] bytes) {
+    return decode(ByteBuffer.wrap(bytes));
+  }
+
+  /**
+   * Decodes one tree starting at the buffer's position, leaving the position
+   * just after it.
+   */
+  public static ASTNode decode(ByteBuffer buffer) {
+    if (buffer.get() != MAGIC_0 || buffer.get() != MAGIC_1) {
+      throw new IllegalArgumentException("Not an encoded AST");
+    }
+    byte version = buffer.get();
+    if (version < 1 || version > VERSION) {
+      throw new IllegalArgumentException("Unsupported AST encoding version: " + version);
+    }
+    boolean binaryOperators = version == 1;
+    int comparatorCount = version < 3 ? VERSION_2_COMPARATORS : COMPARATORS.length;
+    boolean lists = version >= 3;
+
+    String[] table = new String[readVarInt(buffer)];
+    for (int i = 0; i < table.length; i++) {
+      int length = readVarInt(buffer);
+      table[i] = readString(buffer, length);
+    }
+
+    // Decoded nodes by id; an operator's slot stays null until it is complete
+    List<ASTNode> nodes = new ArrayList<>();
+    // Operators waiting for their children
+    Deque<OpenOperator> open = new ArrayDeque<>();
+
+    while (true) {
+      int tag = buffer.get();
+      ASTNode node;
+      switch (tag) {
+        case AND:
+          node = openOperator("AND", binaryOperators, buffer, nodes, open);
+          break;
+        case OR:
+          node = openOperator("OR", binaryOperators, buffer, nodes, open);
+          break;
+        case OPERATOR_NAMED:
+          node = openOperator(table[readVarInt(buffer)], binaryOperators, buffer, nodes, open);
+          break;
+        case OPERAND:
+          String attribute = table[readVarInt(buffer)];
+          String comparator = readComparator(buffer, table, comparatorCount);
+          node = new OperandNode(attribute, comparator, readValue(buffer, table, lists));
+          nodes.add(node);
+          break;
+        case REF:
+          int id = readVarInt(buffer);
+          node = id >= 0 && id < nodes.size() ? nodes.get(id) : null;
+          if (binaryOperators || node == null) {
+            throw new IllegalArgumentException("Corrupt AST encoding, bad reference " + id);
+          }
+          break;
+        default:
+          throw new IllegalArgumentException("Corrupt AST encoding, unknown tag " + tag);
+      }
+      if (node == null) {
+        continue; // An operator waiting for its children
+      }
+
+      // Attach the finished node to its parent, completing every operator
+      // whose last child it was
+      while (true) {
+        OpenOperator parent = open.peek();
+        if (parent == null) {
+          return node;
+        }
+        parent.children.add(node);
+        if (parent.children.size() < parent.childCount) {
+          break;
+        }
+        open.pop();
+        node = new OperatorNode(parent.operator, parent.children);
+        nodes.set(parent.id, node);
+      }
+    }
+  }
+
+  // Returns the operator when it has no children, otherwise null after opening it
+  private static ASTNode openOperator(
+    String operator,
+    boolean binary,
+    ByteBuffer buffer,
+    List<ASTNode> nodes,
+    Deque<OpenOperator> open
+  ) {
+    int childCount = binary ? 2 : readVarInt(buffer);
+    if (childCount < 0 || childCount > buffer.remaining()) {
+      throw new IllegalArgumentException("Corrupt AST encoding, bad child count " + childCount);
+    }
+    if (childCount == 0) {
+      ASTNode node = new OperatorNode(operator, List.of());
+      nodes.add(node);
+      return node;
+    }
+    open.push(new OpenOperator(operator, childCount, nodes.size()));
+    nodes.add(null);
+    return null;
+  }
+
+  private static final class OpenOperator {
+
+    final String operator;
+    final int childCount;
+    final int id;
+    final List<ASTNode> children;
+
+    OpenOperator(String operator, int childCount, int id) {
+      this.operator = operator;
+      this.childCount = childCount;
+      this.id = id;
+      this.children = new ArrayList<>(childCount);
+    }
+  }
+
+  private static int intern(String string, Map<String, Integer> strings, List<String> table) {
+    Integer index = strings.get(string);
+    if (index == null) {
+      index = table.size();
+      strings.put(string, index);
+      table.add(string);
+    }
+    return index;
+  }
+
+  private static void writeComparator(
+    Writer out,
+    String comparator,
+    Map<String, Integer> strings,
+    List<String> table
+  ) {
+    for (int code = 0; code < COMPARATORS.length; code++) {
+      if (COMPARATORS[code].equals(comparator)) {
+        out.writeByte(code);
+        return;
+      }
+    }
+    out.writeByte(COMPARATOR_NAMED);
+    out.writeVarInt(intern(comparator, strings, table));
+  }
+
+  private static String readComparator(ByteBuffer buffer, String[] table, int comparatorCount) {
+    int code = buffer.get();
+    if (code == COMPARATOR_NAMED) {
+      return table[readVarInt(buffer)];
+    }
+    if (code < 0 || code >= comparatorCount) {
+      throw new IllegalArgumentException("Corrupt AST encoding, unknown comparator " + code);
+    }
+    return COMPARATORS[code];
+  }
+
+  private static void writeValue(
+    Writer out,
+    Object value,
+    Map<String, Integer> strings,
+    List<String> table
+  ) {
+    if (value == null) {
+      out.writeByte(VALUE_NULL);
+    } else if (value instanceof Double number) {
+      double d = number;
+      long integral = (long) d;
+      // -0.0 must keep its sign, so it is not treated as integral
+      if (integral == d && Double.doubleToRawLongBits(d) != Double.doubleToRawLongBits(-0.0)) {
+        out.writeByte(VALUE_INTEGRAL_DOUBLE);
+        out.writeVarLong(zigZag(integral));
+      } else {
+        out.writeByte(VALUE_DOUBLE);
+        out.writeLong(Double.doubleToRawLongBits(d));
+      }
+    } else if (value instanceof Integer number) {
+      out.writeByte(VALUE_INT);
+      out.writeVarLong(zigZag(number));
+    } else if (value instanceof Long number) {
+      out.writeByte(VALUE_LONG);
+      out.writeVarLong(zigZag(number));
+    } else if (value instanceof String string) {
+      out.writeByte(VALUE_STRING);
+      out.writeVarInt(intern(string, strings, table));
+    } else if (value instanceof Boolean bool) {
+      out.writeByte(bool ? VALUE_TRUE : VALUE_FALSE);
+    } else if (value instanceof Collection<?> values) {
+      out.writeByte(VALUE_LIST);
+      out.writeVarInt(values.size());
+      for (Object element : values) {
+        if (element instanceof Collection) {
+          throw new IllegalArgumentException("Nested lists are not supported in operand values");
+        }
+        writeValue(out, element, strings, table);
+      }
+    } else {
+      throw new IllegalArgumentException("Unsupported operand value type: " + value.getClass());
+    }
+  }
+
+  private static Object readValue(ByteBuffer buffer, String[] table, boolean lists) {
+    int tag = buffer.get();
+    if (tag == VALUE_LIST && lists) {
+      int count = readVarInt(buffer);
+      if (count < 0 || count > buffer.remaining()) {
+        throw new IllegalArgumentException("Corrupt AST encoding, bad list size " + count);
+      }
+      Object[] values = new Object[count];
+      for (int i = 0; i < count; i++) {
+        values[i] = readScalar(buffer.get(), buffer, table);
+      }
+      return Collections.unmodifiableList(Arrays.asList(values));
+    }
+    return readScalar(tag, buffer, table);
+  }
+
+  private static Object readScalar(int tag, ByteBuffer buffer, String[] table) {
+    switch (tag) {
+      case VALUE_NULL:
+        return null;
+      case VALUE_DOUBLE:
+        return Double.longBitsToDouble(buffer.getLong());
+      case VALUE_INTEGRAL_DOUBLE:
+        return (double) unZigZag(readVarLong(buffer));
+      case VALUE_INT:
+        return (int) unZigZag(readVarLong(buffer));
+      case VALUE_LONG:
+        return unZigZag(readVarLong(buffer));
+      case VALUE_STRING:
+        return table[readVarInt(buffer)];
+      case VALUE_TRUE:
+        return Boolean.TRUE;
+      case VALUE_FALSE:
+        return Boolean.FALSE;
+      default:
+        throw new IllegalArgumentException("Corrupt AST encoding, unknown value tag " + tag);
+    }
+  }
+
+  private static String readString(ByteBuffer buffer, int length) {
+    if (buffer.hasArray()) {
+      String string = new String(
+        buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8
+      );
+      buffer.position(buffer.position() + length);
+      return string;
+    }
+    byte[] bytes = new byte[length];
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static long zigZag(long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+
+  private static long unZigZag(long value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  static int readVarInt(ByteBuffer buffer) {
+    return (int) readVarLong(buffer);
+  }
+
+  static long readVarLong(ByteBuffer buffer) {
+    long result = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      byte b = buffer.get();
+      result |= (long) (b & 0x7F) << shift;
+      if (b >= 0) {
+        return result;
+      }
+    }
+    throw new IllegalArgumentException("Corrupt AST encoding, varint too long");
+  }
+
+  /**
+   * Minimal growable byte buffer with varint support.
+   */
+  static final class Writer {
+
+    byte[] buffer;
+    int size;
+
+    Writer(int capacity) {
+      buffer = new byte[capacity];
+    }
+
+    void writeByte(int b) {
+      ensure(1);
+      buffer[size++] = (byte) b;
+    }
+
+    void writeBytes(byte[] bytes, int offset, int length) {
+      ensure(length);
+      System.arraycopy(bytes, offset, buffer, size, length);
+      size += length;
+    }
+
+    void writeLong(long value) {
+      ensure(8);
+      for (int shift = 56; shift >= 0; shift -= 8) {
+        buffer[size++] = (byte) (value >>> shift);
+      }
+    }
+
+    void writeVarInt(int value) {
+      writeVarLong(value & 0xFFFFFFFFL);
+    }
+
+    void writeVarLong(long value) {
+      ensure(10);
+      while ((value & ~0x7FL) != 0) {
+        buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+        value >>>= 7;
+      }
+      buffer[size++] = (byte) value;
+    }
+
+    byte[] toByteArray() {
+      return Arrays.copyOf(buffer, size);
+    }
+
+    private void ensure(int extra) {
+      if (size + extra > buffer.length) {
+        buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+      }
+    }
+  }
+}
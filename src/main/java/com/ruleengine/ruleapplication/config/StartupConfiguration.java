@@ -0,0 +1,22 @@
+package com.ruleengine.ruleapplication.config;
+
+import com.ruleengine.ruleapplication.controller.RuleController;
+import com.ruleengine.ruleapplication.service.EvaluationService;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * With spring.main.lazy-initialization (the fast-start profile) beans are
+ * created when first used. The controller and the evaluation service stay
+ * eager, so the first evaluation after a start does not pay for creating
+ * them; import, catalog, actuator and the rest wait until they are called.
+ */
+@Configuration(proxyBeanMethods = false)
+public class StartupConfiguration {
+
+  @Bean
+  static LazyInitializationExcludeFilter evaluationPathExcludeFilter() {
+    return LazyInitializationExcludeFilter.forBeanTypes(RuleController.class, EvaluationService.class);
+  }
+}
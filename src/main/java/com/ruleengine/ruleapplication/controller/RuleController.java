@@ -1,13 +1,38 @@
 
 package com.ruleengine.ruleapplication.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ruleengine.ruleapplication.entity.Rule;
 import com.ruleengine.ruleapplication.exception.DuplicateRuleNameException;
+import com.ruleengine.ruleapplication.exception.RuleBudgetExceededException;
+import com.ruleengine.ruleapplication.network.MatchResult;
 import com.ruleengine.ruleapplication.service.EvaluationService;
+import com.ruleengine.ruleapplication.service.ImportReport;
+import com.ruleengine.ruleapplication.service.RuleCache;
+import com.ruleengine.ruleapplication.service.RuleCatalogService;
+import com.ruleengine.ruleapplication.service.RuleImportService;
+import com.ruleengine.ruleapplication.service.ResultCache;
+import com.ruleengine.ruleapplication.service.RuleMatchService;
+import com.ruleengine.ruleapplication.service.RuleSnapshotService;
+import com.ruleengine.ruleapplication.service.RulesetService;
 import com.ruleengine.ruleapplication.service.RuleService;
+import com.ruleengine.ruleapplication.slot.CompiledRule;
+import com.ruleengine.ruleapplication.stream.RuleFileReader;
+import com.ruleengine.ruleapplication.vector.ColumnarBatch;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -16,6 +41,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 
@@ -24,12 +50,38 @@ import org.springframework.web.bind.annotation.RestController;
 @CrossOrigin(origins = "http://127.0.0.1:5500") 
 public class RuleController {
 
+  static final String RULESET_VERSION_HEADER = "X-Ruleset-Version";
+
   @Autowired
   private RuleService ruleService;
 
   @Autowired
   private EvaluationService evaluationService;
 
+  @Autowired
+  private RuleCache ruleCache;
+
+  @Autowired
+  private ResultCache resultCache;
+
+  @Autowired
+  private RuleMatchService ruleMatchService;
+
+  @Autowired
+  private RuleImportService ruleImportService;
+
+  @Autowired
+  private RuleSnapshotService ruleSnapshotService;
+
+  @Autowired
+  private RulesetService rulesetService;
+
+  @Autowired
+  private RuleCatalogService ruleCatalogService;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
   @PostMapping("/create_rule")
   public ResponseEntity<?> createRule(
       @RequestBody Map<String, String> request
@@ -39,7 +91,7 @@ public class RuleController {
           String ruleString = request.get("ruleString");  
           Rule rule = ruleService.createRule(ruleName, ruleString);  
           return ResponseEntity.ok(rule);
-      } catch (DuplicateRuleNameException e) {
+      } catch (DuplicateRuleNameException | RuleBudgetExceededException e) {
           return ResponseEntity.badRequest().body(Map.of("error", e.getMessage())); // Return 400 with message
       } catch (IllegalArgumentException e) {
           return ResponseEntity.notFound().build(); // Handle not found case
@@ -47,9 +99,19 @@ public class RuleController {
   }
 
 
+  @PostMapping("/import")
+  public ResponseEntity<ImportReport> importRules(HttpServletRequest request) throws IOException {
+      // text/csv is read as CSV, anything else as NDJSON; the body is streamed, not buffered
+      String contentType = request.getContentType();
+      RuleFileReader.Format format = contentType != null && contentType.startsWith("text/csv")
+          ? RuleFileReader.Format.CSV
+          : RuleFileReader.Format.NDJSON;
+      return ResponseEntity.ok(ruleImportService.importRules(request.getInputStream(), format));
+  }
+
  
   @PostMapping("/combine_rules")
-  public ResponseEntity<Rule> combineRules(
+  public ResponseEntity<?> combineRules(
       @RequestBody Map<String, Object> request
   ) {
       @SuppressWarnings("unchecked")
@@ -62,26 +124,217 @@ public class RuleController {
           return ResponseEntity.badRequest().body(null); // Return 400 if the operator is invalid
       }
   
-      Rule combinedRule = ruleService.combineRules(ruleNames, combinedRuleName, operator); // Pass operator to the service
-      return ResponseEntity.ok(combinedRule);
+      try {
+          Rule combinedRule = ruleService.combineRules(ruleNames, combinedRuleName, operator); // Pass operator to the service
+          return ResponseEntity.ok(combinedRule);
+      } catch (RuleBudgetExceededException e) {
+          return ResponseEntity.badRequest().body(Map.of("error", e.getMessage())); // The combined rule is too large
+      }
   }
   
 
   
 
 @PostMapping("/{name}/evaluate_rule")
-public ResponseEntity<Map<String, Boolean>> evaluateRule(
+public ResponseEntity<Map<String, Object>> evaluateRule(
     @PathVariable String name, // Change UUID id to String name
+    @RequestBody Map<String, Object> data,
+    @RequestParam(defaultValue = "false") boolean explain
+) {
+    try {
+        if (explain) {
+            return ResponseEntity.ok(evaluationService.explainRule(name, data));
+        }
+        EvaluationService.Evaluation evaluation = evaluationService.evaluateRule(name, data); // Call the new service method
+        return ResponseEntity.ok(evaluationBody(evaluation));
+    } catch (IllegalArgumentException e) {
+        return ResponseEntity.notFound().build(); // Handle not found case
+    } catch (RuleBudgetExceededException e) {
+        return budgetExceeded(e);
+    }
+}
+
+@PostMapping("/{name}/evaluate_rule_async")
+public CompletableFuture<ResponseEntity<Map<String, Object>>> evaluateRuleAsync(
+    @PathVariable String name,
     @RequestBody Map<String, Object> data
 ) {
-    boolean result = evaluationService.evaluateRuleByName(name, data); // Call the new service method
-    return ResponseEntity.ok(Map.of("result", result));
+    // Releases the request thread while the rule is fetched from the database
+    return evaluationService.evaluateRuleAsync(name, data)
+        .thenApply(evaluation -> ResponseEntity.ok(evaluationBody(evaluation)))
+        .exceptionally(e -> {
+            Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+            if (cause instanceof RuleBudgetExceededException exceeded) {
+                return budgetExceeded(exceeded);
+            }
+            throw e instanceof CompletionException completion ? completion : new CompletionException(e);
+        });
+}
+
+// A rule over the size limits, or an evaluation over the time limit, is answered with 422
+private static ResponseEntity<Map<String, Object>> budgetExceeded(RuleBudgetExceededException e) {
+    return ResponseEntity.unprocessableEntity().body(Map.of("error", e.getMessage()));
 }
 
+// The result, and the ruleset version it was evaluated against unless rule.ruleset.enabled=false
+private static Map<String, Object> evaluationBody(EvaluationService.Evaluation evaluation) {
+    if (evaluation.rulesetVersion() < 0) {
+        return Map.of("result", evaluation.result());
+    }
+    return Map.of("result", evaluation.result(), "rulesetVersion", evaluation.rulesetVersion());
+}
+
+// Endpoints answering with a list, a stream or a bitset report the ruleset version in a header
+private static void setRulesetVersion(HttpServletResponse response, EvaluationService.ResolvedRule rule) {
+    if (rule.rulesetVersion() >= 0) {
+        response.setHeader(RULESET_VERSION_HEADER, Long.toString(rule.rulesetVersion()));
+    }
+}
+
+@PostMapping("/{name}/evaluate_batch")
+public ResponseEntity<List<Map<String, Object>>> evaluateBatch(
+    @PathVariable String name,
+    @RequestBody List<Map<String, Object>> records,
+    HttpServletResponse response
+) {
+    try {
+        EvaluationService.ResolvedRule rule = evaluationService.resolve(name);
+        setRulesetVersion(response, rule);
+        return ResponseEntity.ok(evaluationService.evaluateBatch(rule, records));
+    } catch (IllegalArgumentException e) {
+        return ResponseEntity.notFound().build(); // Handle not found case
+    }
+}
+
+@PostMapping("/{name}/evaluate_stream")
+public void evaluateStream(
+    @PathVariable String name,
+    HttpServletRequest request,
+    HttpServletResponse response
+) throws IOException {
+    CompiledRule rule;
+    try {
+        EvaluationService.ResolvedRule resolved = evaluationService.resolve(name);
+        setRulesetVersion(response, resolved);
+        rule = evaluationService.compileRule(resolved);
+    } catch (IllegalArgumentException e) {
+        response.setStatus(HttpServletResponse.SC_NOT_FOUND); // Handle not found case
+        return;
+    }
+    // Read and write the raw streams, the body never has to fit in memory
+    response.setContentType("application/x-ndjson");
+    evaluationService.evaluateStream(rule, request.getInputStream(), response.getOutputStream());
+}
+
+@PostMapping("/{name}/evaluate_columns")
+public ResponseEntity<Map<String, Object>> evaluateColumns(
+    @PathVariable String name,
+    @RequestBody ColumnarBatch batch,
+    HttpServletResponse response
+) {
+    try {
+        EvaluationService.ResolvedRule rule = evaluationService.resolve(name);
+        setRulesetVersion(response, rule);
+        BitSet matches = evaluationService.evaluateColumns(rule, batch);
+        return ResponseEntity.ok(Map.of(
+            "rowCount", batch.getRowCount(),
+            "matchCount", matches.cardinality(),
+            "bitset", Base64.getEncoder().encodeToString(matches.toByteArray()) // Little-endian, bit i = row i
+        ));
+    } catch (IllegalArgumentException e) {
+        return ResponseEntity.notFound().build(); // Handle not found case
+    }
+}
+
+  @GetMapping("/{name}/evaluation_stats")
+    public ResponseEntity<Map<String, Object>> getEvaluationStats(@PathVariable String name) {
+        try {
+            return ResponseEntity.ok(evaluationService.getEvaluationStats(name));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build(); // Handle not found case
+        }
+    }
+
+@PostMapping("/match")
+public ResponseEntity<MatchResult> matchRules(
+    @RequestBody Map<String, Object> request,
+    HttpServletResponse response
+) {
+    @SuppressWarnings("unchecked")
+    Map<String, Object> data = (Map<String, Object>) request.get("data"); // Record to match
+    @SuppressWarnings("unchecked")
+    List<String> ruleNames = (List<String>) request.get("ruleNames"); // Optional subset, all rules when absent
+    if (data == null) {
+        return ResponseEntity.badRequest().build();
+    }
+    try {
+        RuleMatchService.Match match = ruleMatchService.match(data, ruleNames);
+        if (match.rulesetVersion() >= 0) {
+            response.setHeader(RULESET_VERSION_HEADER, Long.toString(match.rulesetVersion()));
+        }
+        return ResponseEntity.ok(match.result());
+    } catch (IllegalArgumentException e) {
+        return ResponseEntity.notFound().build(); // Handle not found case
+    }
+}
+
+  @GetMapping("/network_stats")
+    public ResponseEntity<Map<String, Object>> getNetworkStats() {
+        return ResponseEntity.ok(ruleMatchService.getStats());
+    }
+
+  @GetMapping("/cache_stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        return ResponseEntity.ok(ruleCache.getStats());
+    }
+
+  @GetMapping("/result_cache_stats")
+    public ResponseEntity<Map<String, Object>> getResultCacheStats() {
+        return ResponseEntity.ok(resultCache.getStats());
+    }
+
+  @GetMapping("/ruleset_stats")
+    public ResponseEntity<Map<String, Object>> getRulesetStats() {
+        return ResponseEntity.ok(rulesetService.getStats());
+    }
+
+  @GetMapping("/snapshot_stats")
+    public ResponseEntity<Map<String, Object>> getSnapshotStats() {
+        return ResponseEntity.ok(ruleSnapshotService.getStats());
+    }
+
+  @GetMapping("/catalog")
+    public ResponseEntity<RuleCatalogService.Page> getCatalog(
+        @RequestParam(required = false) String after, // nextAfter of the previous page
+        @RequestParam(required = false) String prefix,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedSince,
+        @RequestParam(defaultValue = "100") int limit
+    ) {
+        return ResponseEntity.ok(ruleCatalogService.page(after, prefix, updatedSince, limit));
+    }
+
   @GetMapping("/all")
-    public ResponseEntity<List<Map<String, String>>> getAllRules() {
-        List<Map<String, String>> rules = ruleService.getAllRules(); // Call the service method to fetch all rules
-        return ResponseEntity.ok(rules);
+    public void getAllRules(
+        @RequestParam(required = false) String prefix,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedSince,
+        HttpServletResponse response
+    ) throws IOException {
+        // Rows are written as they come off the cursor, the list is never built in memory
+        response.setContentType("application/json");
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            json.writeStartArray();
+            ruleCatalogService.forEach(prefix, updatedSince, rule -> {
+                try {
+                    json.writeStartObject();
+                    json.writeStringField("name", rule.name());
+                    json.writeStringField("ruleString", rule.ruleString());
+                    json.writeEndObject();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            json.writeEndArray();
+        }
     }
 
     @PostMapping("/update_rule/{name}")
@@ -93,7 +346,7 @@ public ResponseEntity<Map<String, Boolean>> evaluateRule(
             String newRuleString = request.get("ruleString");
             Rule updatedRule = ruleService.updateRule(name, newRuleString);
             return ResponseEntity.ok(updatedRule);
-        } catch (DuplicateRuleNameException e) {
+        } catch (DuplicateRuleNameException | RuleBudgetExceededException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage())); // Return 400 with message
         } catch (IllegalArgumentException e) {
             return ResponseEntity.notFound().build(); // Handle not found case
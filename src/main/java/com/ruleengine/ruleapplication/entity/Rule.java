@@ -1,16 +1,27 @@
 package com.ruleengine.ruleapplication.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.ruleengine.ruleapplication.model.ASTNode;
+import com.ruleengine.ruleapplication.optimizer.OptimizationReport;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import java.util.UUID;
 import lombok.Data;
 
 @Data
 @Entity
-@Table(name = "rules")
+@Table(
+  name = "rules",
+  indexes = {
+    @Index(name = "idx_rules_name", columnList = "name", unique = true),
+    @Index(name = "idx_rules_updated_at", columnList = "updated_at")
+  }
+)
 public class Rule {
 
   @Id
@@ -22,9 +33,23 @@ public class Rule {
   @Column(name = "rule_string", columnDefinition = "TEXT")
   private String ruleString;
 
+  // Legacy JSON form, only read for rows not yet migrated to ast_binary
   @Column(name = "ast_json", columnDefinition = "TEXT")
   private String astJson;
 
+  // AstCodec encoding of the AST
+  @JsonIgnore
+  @Column(name = "ast_binary", columnDefinition = "BYTEA")
+  private byte[] astBinary;
+
+  // Parsed tree returned to API clients, not persisted
+  @Transient
+  private ASTNode ast;
+
+  // What the optimizer simplified when the rule was created, combined or updated
+  @Transient
+  private OptimizationReport optimization;
+
   @Column(name = "created_at")
   private java.time.LocalDateTime createdAt;
 
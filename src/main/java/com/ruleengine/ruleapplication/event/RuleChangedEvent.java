@@ -0,0 +1,22 @@
+package com.ruleengine.ruleapplication.event;
+
+import com.ruleengine.ruleapplication.model.ASTNode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Published by RulesetService after a rule was created, combined, updated,
+ * imported or deleted, on this node or, found by polling, on another one. A
+ * null ast means the rule no longer exists.
+ */
+@Data
+@AllArgsConstructor
+public class RuleChangedEvent {
+
+  private String ruleName;
+  private ASTNode ast;
+
+  public boolean isDeleted() {
+    return ast == null;
+  }
+}
@@ -0,0 +1,9 @@
+package com.ruleengine.ruleapplication.exception;
+
+
+public class IncompatibleTypesException extends RuntimeException {
+
+  public IncompatibleTypesException(String message) {
+    super(message);
+  }
+}
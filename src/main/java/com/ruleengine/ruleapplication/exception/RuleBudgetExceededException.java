@@ -0,0 +1,8 @@
+package com.ruleengine.ruleapplication.exception;
+
+
+public class RuleBudgetExceededException extends RuntimeException {
+    public RuleBudgetExceededException(String message) {
+        super(message);
+    }
+}
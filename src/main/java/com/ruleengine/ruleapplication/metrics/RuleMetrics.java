@@ -0,0 +1,228 @@
+package com.ruleengine.ruleapplication.metrics;
+
+import com.ruleengine.ruleapplication.event.RuleChangedEvent;
+import com.ruleengine.ruleapplication.exception.IncompatibleTypesException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Micrometer instrumentation of rule evaluation and parsing. Per rule it
+ * counts evaluations by result (true, false, error) and errors by cause, and
+ * keeps latency histograms of the load (cache or database) and evaluate
+ * phases. Meters of a rule are created on first use, looked up lock-free
+ * afterwards and removed when the rule is deleted.
+ *
+ * Counters are always updated. With rule.metrics.timing-sample-every=N only
+ * about one evaluation in N is timed, which keeps System.nanoTime and the
+ * histogram update off most calls under full load. The timers keep count,
+ * mean and max; percentile histograms, dozens of buckets per rule, are only
+ * published with rule.metrics.percentile-histograms=true.
+ */
+@Component
+public class RuleMetrics {
+
+  public static final String CAUSE_INCOMPATIBLE_TYPES = "incompatible_types";
+  public static final String CAUSE_UNKNOWN_OPERATOR = "unknown_operator";
+  public static final String CAUSE_OTHER = "other";
+
+  private final MeterRegistry registry;
+  private final int sampleEvery;
+  private final boolean percentileHistograms;
+  private final Map<String, RuleMeters> meters = new ConcurrentHashMap<>();
+  private final Counter notFound;
+
+  public RuleMetrics(
+    MeterRegistry registry,
+    @Value("${rule.metrics.timing-sample-every:8}") int sampleEvery,
+    @Value("${rule.metrics.percentile-histograms:false}") boolean percentileHistograms
+  ) {
+    this.registry = registry;
+    this.sampleEvery = Math.max(1, sampleEvery);
+    this.percentileHistograms = percentileHistograms;
+    // Not tagged by rule, unknown names must not create meters
+    this.notFound = Counter.builder("rule.evaluation.not_found")
+      .description("Evaluations of rules that do not exist")
+      .register(registry);
+  }
+
+  /** Whether this evaluation should be timed. */
+  public boolean sample() {
+    return sampleEvery == 1 || ThreadLocalRandom.current().nextInt(sampleEvery) == 0;
+  }
+
+  public void recordLoad(String ruleName, long nanos) {
+    meters(ruleName).load.record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  public void recordEvaluate(String ruleName, long nanos) {
+    meters(ruleName).evaluate.record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  public void recordResult(String ruleName, boolean result) {
+    RuleMeters ruleMeters = meters(ruleName);
+    (result ? ruleMeters.matched : ruleMeters.unmatched).increment();
+  }
+
+  public void recordError(String ruleName, Throwable error) {
+    RuleMeters ruleMeters = meters(ruleName);
+    ruleMeters.failed.increment();
+    ruleMeters.error(causeOf(error)).increment();
+  }
+
+  public void recordNotFound() {
+    notFound.increment();
+  }
+
+  public void recordParse(String operation, long nanos, boolean success) {
+    Timer.builder("rule.parse")
+      .description("Time to parse a rule string into an AST")
+      .tag("operation", operation)
+      .tag("outcome", success ? "success" : "failure")
+      .register(registry)
+      .record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  public static String causeOf(Throwable error) {
+    if (error instanceof IncompatibleTypesException) {
+      return CAUSE_INCOMPATIBLE_TYPES;
+    }
+    if (error instanceof UnsupportedOperationException) {
+      return CAUSE_UNKNOWN_OPERATOR;
+    }
+    return CAUSE_OTHER;
+  }
+
+  /** Summary of every rule evaluated so far, by rule name. */
+  public Map<String, Object> summaries() {
+    Map<String, Object> summaries = new TreeMap<>();
+    meters.forEach((ruleName, ruleMeters) -> summaries.put(ruleName, ruleMeters.summary()));
+    return summaries;
+  }
+
+  /** Summary of one rule, or null if it has not been evaluated. */
+  public Map<String, Object> summary(String ruleName) {
+    RuleMeters ruleMeters = meters.get(ruleName);
+    return ruleMeters == null ? null : ruleMeters.summary();
+  }
+
+  @EventListener
+  public void onRuleChanged(RuleChangedEvent event) {
+    if (event.isDeleted()) {
+      RuleMeters removed = meters.remove(event.getRuleName());
+      if (removed != null) {
+        removed.remove();
+      }
+    }
+  }
+
+  private RuleMeters meters(String ruleName) {
+    RuleMeters ruleMeters = meters.get(ruleName);
+    return ruleMeters != null ? ruleMeters : meters.computeIfAbsent(ruleName, name -> new RuleMeters(registry, name, percentileHistograms));
+  }
+
+  private static final class RuleMeters {
+
+    final String ruleName;
+    final MeterRegistry registry;
+    final Counter matched;
+    final Counter unmatched;
+    final Counter failed;
+    final Timer load;
+    final Timer evaluate;
+    final Map<String, Counter> errors = new ConcurrentHashMap<>();
+
+    RuleMeters(MeterRegistry registry, String ruleName, boolean percentileHistograms) {
+      this.registry = registry;
+      this.ruleName = ruleName;
+      this.matched = evaluations("true");
+      this.unmatched = evaluations("false");
+      this.failed = evaluations("error");
+      this.load = timer(
+        "rule.evaluation.load", "Time to resolve the rule tree, from the cache or the database", percentileHistograms
+      );
+      this.evaluate = timer(
+        "rule.evaluation.evaluate", "Time to evaluate the rule tree against a record", percentileHistograms
+      );
+    }
+
+    Counter error(String cause) {
+      Counter counter = errors.get(cause);
+      if (counter == null) {
+        counter = errors.computeIfAbsent(cause, key ->
+          Counter.builder("rule.evaluation.errors")
+            .description("Failed evaluations by cause")
+            .tag("rule", ruleName)
+            .tag("cause", key)
+            .register(registry)
+        );
+      }
+      return counter;
+    }
+
+    private Counter evaluations(String result) {
+      return Counter.builder("rule.evaluations")
+        .description("Evaluations by result")
+        .tag("rule", ruleName)
+        .tag("result", result)
+        .register(registry);
+    }
+
+    private Timer timer(String name, String description, boolean percentileHistogram) {
+      return Timer.builder(name)
+        .description(description)
+        .tag("rule", ruleName)
+        .publishPercentileHistogram(percentileHistogram)
+        .minimumExpectedValue(Duration.ofNanos(100))
+        .maximumExpectedValue(Duration.ofSeconds(1))
+        .register(registry);
+    }
+
+    Map<String, Object> summary() {
+      long trueCount = (long) matched.count();
+      long falseCount = (long) unmatched.count();
+      Map<String, Long> errorCounts = new TreeMap<>();
+      errors.forEach((cause, counter) -> errorCounts.put(cause, (long) counter.count()));
+
+      Map<String, Object> summary = new LinkedHashMap<>();
+      summary.put("evaluations", trueCount + falseCount + (long) failed.count());
+      summary.put("true", trueCount);
+      summary.put("false", falseCount);
+      summary.put("trueRatio", trueCount + falseCount == 0 ? 0.0 : (double) trueCount / (trueCount + falseCount));
+      summary.put("errors", errorCounts);
+      summary.put("load", timing(load));
+      summary.put("evaluate", timing(evaluate));
+      return summary;
+    }
+
+    private static Map<String, Object> timing(Timer timer) {
+      return Map.of(
+        "sampled", timer.count(),
+        "meanMicros", timer.mean(TimeUnit.MICROSECONDS),
+        "maxMicros", timer.max(TimeUnit.MICROSECONDS)
+      );
+    }
+
+    void remove() {
+      for (Meter meter : registry.find("rule.evaluations").tag("rule", ruleName).meters()) {
+        registry.remove(meter);
+      }
+      for (Meter meter : registry.find("rule.evaluation.errors").tag("rule", ruleName).meters()) {
+        registry.remove(meter);
+      }
+      registry.remove(load);
+      registry.remove(evaluate);
+    }
+  }
+}
@@ -0,0 +1,33 @@
+package com.ruleengine.ruleapplication.metrics;
+
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+/**
+ * /actuator/rules: per-rule evaluation counts, result ratio, errors by cause
+ * and sampled load/evaluate latencies. The timers themselves, with
+ * percentile histograms when rule.metrics.percentile-histograms is on, are
+ * the rule.evaluation.load and rule.evaluation.evaluate meters under
+ * /actuator/metrics.
+ */
+@Component
+@Endpoint(id = "rules")
+public class RulesEndpoint {
+
+  @Autowired
+  private RuleMetrics ruleMetrics;
+
+  @ReadOperation
+  public Map<String, Object> rules() {
+    return ruleMetrics.summaries();
+  }
+
+  @ReadOperation
+  public Map<String, Object> rule(@Selector String name) {
+    return ruleMetrics.summary(name); // Null is a 404
+  }
+}
@@ -19,4 +19,22 @@ import java.util.Map;
 )
 public interface ASTNode {
   boolean evaluate(Map<String, Object> data);
-}
\ No newline at end of file
+
+  /**
+   * As evaluate, but gives up with RuleBudgetExceededException once the
+   * evaluation has taken longer than maxNanos; 0 for no limit.
+   */
+  default boolean evaluate(Map<String, Object> data, long maxNanos) {
+    return evaluate(data);
+  }
+
+  /** Levels of the tree, 1 for a single condition. */
+  default int depth() {
+    return 1;
+  }
+
+  /** Nodes of the tree, a shared subtree counted at each use, as evaluation visits it. */
+  default int size() {
+    return 1;
+  }
+}
@@ -0,0 +1,206 @@
+package com.ruleengine.ruleapplication.model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Selectivity and cost statistics of the children of an OperatorNode, used
+ * to evaluate the cheapest, most decisive child first. Counters are
+ * lock-free; the evaluation order is an array that is replaced, never
+ * modified, so a concurrent reorder never exposes a half-sorted node.
+ *
+ * <p>A child that has thrown is never moved, and no child is moved past it:
+ * otherwise a record the rule as written answers with false could reach the
+ * failing child first and fail instead.
+ */
+public class AdaptiveStats {
+
+  // Roughly one visit in REORDER_INTERVAL reconsiders the order
+  static final int REORDER_INTERVAL = 1024;
+  // Roughly one child evaluation in TIMING_INTERVAL is timed
+  static final int TIMING_INTERVAL = 8;
+
+  final ChildStats[] children;
+  final LongAdder reorders = new LongAdder();
+  volatile int[] order;
+
+  AdaptiveStats(int childCount) {
+    children = new ChildStats[childCount];
+    order = new int[childCount];
+    for (int i = 0; i < childCount; i++) {
+      children[i] = new ChildStats();
+      order[i] = i;
+    }
+  }
+
+  /**
+   * Attaches fresh statistics to every operator of the tree, switching it to
+   * adaptive evaluation.
+   */
+  public static void attach(ASTNode root) {
+    // Shared subtrees get one set of statistics
+    Set<ASTNode> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+    Deque<ASTNode> pending = new ArrayDeque<>();
+    pending.push(root);
+    while (!pending.isEmpty()) {
+      if (pending.pop() instanceof OperatorNode operatorNode && visited.add(operatorNode)) {
+        List<ASTNode> children = operatorNode.getChildren();
+        operatorNode.setAdaptiveStats(new AdaptiveStats(children.size()));
+        children.forEach(pending::push);
+      }
+    }
+  }
+
+  boolean evaluate(int index, ASTNode child, Map<String, Object> data) {
+    ChildStats stats = children[index];
+    boolean result;
+    try {
+      if (sampleTiming()) {
+        long start = System.nanoTime();
+        result = child.evaluate(data);
+        stats.timedNanos.add(System.nanoTime() - start);
+        stats.timedSamples.increment();
+      } else {
+        result = child.evaluate(data);
+      }
+    } catch (RuntimeException e) {
+      stats.errors.increment();
+      throw e;
+    }
+    record(index, result);
+    return result;
+  }
+
+  /** Whether the next evaluation of a child should be timed, see record. */
+  static boolean sampleTiming() {
+    return ThreadLocalRandom.current().nextInt(TIMING_INTERVAL) == 0;
+  }
+
+  // Counts a result of a child evaluated by the caller, who timed it when nanos >= 0
+  void record(int index, boolean result, long nanos) {
+    if (nanos >= 0) {
+      children[index].timedNanos.add(nanos);
+      children[index].timedSamples.increment();
+    }
+    record(index, result);
+  }
+
+  // Counts a child evaluated by the caller that threw
+  void recordError(int index) {
+    children[index].errors.increment();
+  }
+
+  private void record(int index, boolean result) {
+    ChildStats stats = children[index];
+    stats.evaluations.increment();
+    if (result) {
+      stats.trueCount.increment();
+    }
+  }
+
+  void maybeReorder(LogicalOperator operator) {
+    if (ThreadLocalRandom.current().nextInt(REORDER_INTERVAL) != 0) {
+      return;
+    }
+    // The expected cost of a short-circuit evaluation is minimal when the
+    // children are sorted by cost / P(child decides)
+    double[] rank = new double[children.length];
+    Integer[] sorted = new Integer[children.length];
+    for (int i = 0; i < children.length; i++) {
+      double decides = 1.0 - children[i].undecidedRatio(operator);
+      rank[i] = decides == 0.0 ? Double.POSITIVE_INFINITY : children[i].cost() / decides;
+      sorted[i] = i;
+    }
+    // Children that have thrown split the order into segments sorted on
+    // their own, each starting with its failing child
+    int[] current = order;
+    int[] position = new int[current.length];
+    int[] segment = new int[current.length];
+    int failed = 0;
+    for (int i = 0; i < current.length; i++) {
+      int index = current[i];
+      position[index] = i;
+      if (children[index].errors.sum() > 0) {
+        failed++;
+        rank[index] = Double.NEGATIVE_INFINITY;
+      }
+      segment[index] = failed;
+    }
+    // Stable sort, ties keep the current order
+    Arrays.sort(
+      sorted,
+      Comparator.<Integer>comparingInt(i -> segment[i])
+        .thenComparingDouble(i -> rank[i])
+        .thenComparingInt(i -> position[i])
+    );
+    int[] preferred = new int[sorted.length];
+    for (int i = 0; i < sorted.length; i++) {
+      preferred[i] = sorted[i];
+    }
+    if (!Arrays.equals(preferred, current)) {
+      order = preferred;
+      reorders.increment();
+    }
+  }
+
+  public Map<String, Object> toMap() {
+    Map<String, Object> map = new LinkedHashMap<>();
+    List<Integer> evaluationOrder = new ArrayList<>();
+    for (int index : order) {
+      evaluationOrder.add(index);
+    }
+    List<Map<String, Object>> childMaps = new ArrayList<>();
+    for (ChildStats child : children) {
+      childMaps.add(child.toMap());
+    }
+    map.put("order", evaluationOrder);
+    map.put("reorders", reorders.sum());
+    map.put("children", childMaps);
+    return map;
+  }
+
+  static class ChildStats {
+
+    final LongAdder evaluations = new LongAdder();
+    final LongAdder trueCount = new LongAdder();
+    final LongAdder timedSamples = new LongAdder();
+    final LongAdder timedNanos = new LongAdder();
+    final LongAdder errors = new LongAdder();
+
+    double cost() {
+      long samples = timedSamples.sum();
+      return samples == 0 ? 0.0 : (double) timedNanos.sum() / samples;
+    }
+
+    double trueRatio() {
+      long total = evaluations.sum();
+      // Unknown children are assumed undecided half of the time
+      return total == 0 ? 0.5 : (double) trueCount.sum() / total;
+    }
+
+    double undecidedRatio(LogicalOperator operator) {
+      // AND continues after a true child, OR after a false one
+      return operator == LogicalOperator.AND ? trueRatio() : 1.0 - trueRatio();
+    }
+
+    Map<String, Object> toMap() {
+      Map<String, Object> map = new LinkedHashMap<>();
+      map.put("evaluations", evaluations.sum());
+      map.put("trueRatio", trueRatio());
+      map.put("avgNanos", cost());
+      map.put("errors", errors.sum());
+      return map;
+    }
+  }
+}
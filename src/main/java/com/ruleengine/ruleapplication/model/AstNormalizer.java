@@ -0,0 +1,187 @@
+package com.ruleengine.ruleapplication.model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Rewrites a tree into its normal form without changing what it evaluates to:
+ * <ul>
+ *   <li>nested AND/OR of the same operator become one n-ary node, so
+ *       (a AND b) AND c is AND(a, b, c) and combining rules does not make the
+ *       tree deeper,</li>
+ *   <li>a child repeated under the same node is kept once, and a node left
+ *       with a single child is replaced by that child,</li>
+ *   <li>structurally identical subtrees are hash-consed into one shared
+ *       instance, so each distinct condition exists once per tree.</li>
+ * </ul>
+ * Children keep their first-seen order, which keeps the left-to-right
+ * short-circuit order of the original. The walk is iterative and handles
+ * trees of any depth; input trees are not modified.
+ */
+public final class AstNormalizer {
+
+  // Canonical instances: conditions by value, operators by operator and children
+  private final Map<OperandNode, OperandNode> operands = new HashMap<>();
+  private final Map<OperatorKey, OperatorNode> operators = new HashMap<>();
+  // Input node to normalized node, so shared input subtrees are visited once
+  private final Map<ASTNode, ASTNode> normalized = new IdentityHashMap<>();
+
+  public static ASTNode normalize(ASTNode root) {
+    return new AstNormalizer().apply(root);
+  }
+
+  private ASTNode apply(ASTNode root) {
+    Deque<Frame> frames = new ArrayDeque<>();
+    ASTNode result = enter(root, frames);
+    while (!frames.isEmpty()) {
+      Frame frame = frames.peek();
+      ASTNode child = frame.pending.pollFirst();
+      if (child != null) {
+        if (
+          frame.op != null &&
+          child instanceof OperatorNode operatorNode &&
+          LogicalOperator.from(operatorNode.getOperator()) == frame.op
+        ) {
+          // Splice a nested node of the same operator into this one, so a
+          // long chain is flattened in one pass instead of level by level
+          List<ASTNode> nested = operatorNode.getChildren();
+          for (int i = nested.size() - 1; i >= 0; i--) {
+            frame.pending.addFirst(nested.get(i));
+          }
+          continue;
+        }
+        ASTNode done = enter(child, frames);
+        if (done != null) {
+          frame.add(done);
+        }
+        continue;
+      }
+      frames.pop();
+      ASTNode node = finish(frame);
+      normalized.put(frame.source, node);
+      if (frames.isEmpty()) {
+        result = node;
+      } else {
+        frames.peek().add(node);
+      }
+    }
+    return result;
+  }
+
+  // Returns the normalized node, or null after pushing a frame for an operator
+  private ASTNode enter(ASTNode node, Deque<Frame> frames) {
+    ASTNode done = normalized.get(node);
+    if (done != null) {
+      return done;
+    }
+    if (node instanceof OperandNode operand) {
+      done = operands.computeIfAbsent(operand, key -> key);
+      normalized.put(node, done);
+      return done;
+    }
+    if (node instanceof OperatorNode operatorNode) {
+      frames.push(new Frame(operatorNode));
+      return null;
+    }
+    throw new IllegalArgumentException("Unsupported node: " + node);
+  }
+
+  private ASTNode finish(Frame frame) {
+    List<ASTNode> children = frame.children;
+    if (frame.op != null && children.size() == 1) {
+      return children.get(0);
+    }
+    OperatorKey key = new OperatorKey(frame.source.getOperator(), children);
+    OperatorNode canonical = operators.get(key);
+    if (canonical == null) {
+      canonical = new OperatorNode(frame.source.getOperator(), children);
+      operators.put(key, canonical);
+    }
+    return canonical;
+  }
+
+  private static final class Frame {
+
+    final OperatorNode source;
+    final LogicalOperator op;
+    // Input children still to visit
+    final Deque<ASTNode> pending;
+    final List<ASTNode> children = new ArrayList<>();
+    // Children already added, by identity; children are canonical instances
+    final Set<ASTNode> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    Frame(OperatorNode source) {
+      this.source = source;
+      this.op = LogicalOperator.from(source.getOperator());
+      this.pending = new ArrayDeque<>(source.getChildren());
+    }
+
+    void add(ASTNode child) {
+      if (op == null) {
+        children.add(child); // Unknown operators are kept as they are
+      } else if (
+        child instanceof OperatorNode operatorNode &&
+        LogicalOperator.from(operatorNode.getOperator()) == op
+      ) {
+        // A normalized node, so its children are already flat and canonical
+        for (ASTNode grandchild : operatorNode.getChildren()) {
+          if (seen.add(grandchild)) {
+            children.add(grandchild);
+          }
+        }
+      } else if (seen.add(child)) {
+        children.add(child);
+      }
+    }
+  }
+
+  // Operator name plus the identities of its canonical children
+  private static final class OperatorKey {
+
+    private final String operator;
+    private final ASTNode[] children;
+    private final int hash;
+
+    OperatorKey(String operator, List<ASTNode> children) {
+      this.operator = operator;
+      this.children = children.toArray(new ASTNode[0]);
+      int h = String.valueOf(operator).hashCode();
+      for (ASTNode child : this.children) {
+        h = 31 * h + System.identityHashCode(child);
+      }
+      this.hash = h;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof OperatorKey other)) {
+        return false;
+      }
+      if (
+        hash != other.hash ||
+        children.length != other.children.length ||
+        !String.valueOf(operator).equals(String.valueOf(other.operator))
+      ) {
+        return false;
+      }
+      for (int i = 0; i < children.length; i++) {
+        if (children[i] != other.children[i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+}
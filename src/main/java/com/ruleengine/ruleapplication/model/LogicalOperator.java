@@ -0,0 +1,22 @@
+package com.ruleengine.ruleapplication.model;
+
+
+
+public enum LogicalOperator {
+  AND,
+  OR;
+
+  // Resolved once per node instead of upper-casing on every visit
+  public static LogicalOperator from(String operator) {
+    if (operator == null) {
+      return null;
+    }
+    if (operator.equalsIgnoreCase("AND")) {
+      return AND;
+    }
+    if (operator.equalsIgnoreCase("OR")) {
+      return OR;
+    }
+    return null;
+  }
+}
@@ -1,20 +1,68 @@
 
 package com.ruleengine.ruleapplication.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonTypeName;
+import com.ruleengine.ruleapplication.exception.IncompatibleTypesException;
 import java.util.Map;
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 
+/**
+ * A single condition. For IN and NOT IN the value is a list of values, for
+ * BETWEEN the list of the inclusive lower and upper bound.
+ */
 @Data
-@AllArgsConstructor
 @JsonTypeName("operand")
 public class OperandNode implements ASTNode {
 
+  public static final String IN = "IN";
+  public static final String NOT_IN = "NOT IN";
+  public static final String BETWEEN = "BETWEEN";
+
   private String attribute;
   private String operator;
   private Object value;
 
+  // Built on first use for the list operators
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  @JsonIgnore
+  private volatile ValueSet valueSet;
+
+  public OperandNode(String attribute, String operator, Object value) {
+    this.attribute = attribute;
+    this.operator = operator;
+    this.value = value;
+  }
+
+  public void setOperator(String operator) {
+    this.operator = operator;
+    this.valueSet = null;
+  }
+
+  public void setValue(Object value) {
+    this.value = value;
+    this.valueSet = null;
+  }
+
+  /** The prepared list of an IN, NOT IN or BETWEEN condition, null for other operators. */
+  @JsonIgnore
+  public ValueSet getValueSet() {
+    ValueSet set = valueSet;
+    if (set == null && ValueSet.handles(operator)) {
+      set = ValueSet.of(operator, value);
+      valueSet = set;
+    }
+    return set;
+  }
+
   @Override
   public boolean evaluate(Map<String, Object> data) {
     Object attributeValue = data.get(attribute);
@@ -23,13 +71,18 @@ public class OperandNode implements ASTNode {
       return false;
     }
 
+    ValueSet set = getValueSet();
+    if (set != null) {
+      return set.test(attributeValue);
+    }
+
     try {
       if (attributeValue instanceof Number && value instanceof Number) {
         return evaluateNumbers((Number) attributeValue, (Number) value);
       } else if (attributeValue instanceof String && value instanceof String) {
         return evaluateStrings((String) attributeValue, (String) value);
       } else {
-        throw new RuntimeException(
+        throw new IncompatibleTypesException(
           "Incompatible types for comparison: " +
           attributeValue.getClass() +
           " and " +
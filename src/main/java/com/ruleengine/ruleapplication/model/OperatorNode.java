@@ -1,35 +1,486 @@
 package com.ruleengine.ruleapplication.model;
 
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonTypeName;
+import com.ruleengine.ruleapplication.exception.RuleBudgetExceededException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
-import lombok.AllArgsConstructor;
-import lombok.Data;
+import java.util.Objects;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
 
-@Data
-@AllArgsConstructor
+/**
+ * AND/OR over any number of children. Binary nodes, which is everything the
+ * parser produces, serialize as left/right exactly as before; wider nodes from
+ * AstNormalizer serialize their children as "operands".
+ *
+ * Trees deeper than MAX_RECURSION_DEPTH, such as those left by repeatedly
+ * combining rules with alternating operators, are evaluated with an explicit
+ * stack, so no depth overflows the thread stack. equals, hashCode and
+ * toString walk the tree the same way.
+ */
+@Getter
+@Setter
 @JsonTypeName("operator")
+@JsonInclude(JsonInclude.Include.NON_NULL)
 
 public class OperatorNode implements ASTNode {
 
+  // Trees up to this deep are evaluated recursively, deeper ones by walk;
+  // compiled forms of a rule use the same bound
+  public static final int MAX_RECURSION_DEPTH = 64;
+  // Nodes evaluated between two looks at the clock when the time is limited
+  static final int CLOCK_CHECK_INTERVAL = 256;
+
   private String operator;
-  private ASTNode left;
-  private ASTNode right;
+
+  @Setter(AccessLevel.NONE)
+  @JsonIgnore
+  private List<ASTNode> children;
+
+  // Same children as an array for the evaluation loop
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  @JsonIgnore
+  private ASTNode[] childArray;
+
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  @JsonIgnore
+  private LogicalOperator logicalOperator;
+
+  // Only set in adaptive mode, see AdaptiveStats
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  @JsonIgnore
+  private volatile AdaptiveStats adaptiveStats;
+
+  // Derived from the children when they are set, see depth() and size()
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  @JsonIgnore
+  private int depth;
+
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  @JsonIgnore
+  private int size;
+
+  public OperatorNode(String operator, ASTNode left, ASTNode right) {
+    this(operator, Arrays.asList(left, right));
+  }
+
+  public OperatorNode(String operator, List<ASTNode> children) {
+    assignChildren(children);
+    assignOperator(operator);
+  }
+
+  @JsonCreator
+  static OperatorNode fromJson(
+    @JsonProperty("operator") String operator,
+    @JsonProperty("left") ASTNode left,
+    @JsonProperty("right") ASTNode right,
+    @JsonProperty("operands") List<ASTNode> operands
+  ) {
+    return operands != null
+      ? new OperatorNode(operator, operands)
+      : new OperatorNode(operator, left, right);
+  }
+
+  public void setOperator(String operator) {
+    assignOperator(operator);
+  }
+
+  public void setChildren(List<ASTNode> children) {
+    assignChildren(children);
+  }
+
+  // Shared by the constructor and the setters, which a subclass may override
+  private void assignOperator(String operator) {
+    this.operator = operator;
+    this.logicalOperator = LogicalOperator.from(operator);
+  }
+
+  private void assignChildren(List<ASTNode> children) {
+    this.childArray = children.toArray(new ASTNode[0]);
+    this.children = Collections.unmodifiableList(new ArrayList<>(children));
+    int childDepth = 0;
+    long nodes = 1;
+    for (ASTNode child : childArray) {
+      childDepth = Math.max(childDepth, child.depth());
+      nodes += child.size();
+    }
+    this.depth = childDepth + 1;
+    this.size = (int) Math.min(nodes, Integer.MAX_VALUE);
+  }
+
+  @Override
+  public int depth() {
+    return depth;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  /** First child of a binary node, null when the node has another arity. */
+  @JsonProperty("left")
+  public ASTNode getLeft() {
+    return childArray.length == 2 ? childArray[0] : null;
+  }
+
+  /** Second child of a binary node, null when the node has another arity. */
+  @JsonProperty("right")
+  public ASTNode getRight() {
+    return childArray.length == 2 ? childArray[1] : null;
+  }
+
+  @JsonProperty("operands")
+  private List<ASTNode> getOperands() {
+    return childArray.length == 2 ? null : children;
+  }
+
+  /**
+   * The children of this AND/OR with every nested node of the same operator
+   * replaced by its own children, in evaluation order, so a left-deep chain
+   * from combineRules becomes one list of operands.
+   */
+  public List<ASTNode> flatten() {
+    if (logicalOperator == null) {
+      return children;
+    }
+    List<ASTNode> operands = new ArrayList<>();
+    Deque<ASTNode> pending = new ArrayDeque<>();
+    pending.push(this);
+    while (!pending.isEmpty()) {
+      ASTNode current = pending.pop();
+      if (current instanceof OperatorNode node && node.logicalOperator == logicalOperator) {
+        for (int i = node.childArray.length - 1; i >= 0; i--) {
+          pending.push(node.childArray[i]);
+        }
+      } else {
+        operands.add(current);
+      }
+    }
+    return operands;
+  }
+
+  @JsonIgnore
+  public AdaptiveStats getAdaptiveStats() {
+    return adaptiveStats;
+  }
+
+  public void setAdaptiveStats(AdaptiveStats adaptiveStats) {
+    this.adaptiveStats = adaptiveStats;
+  }
 
   @Override
   public boolean evaluate(Map<String, Object> data) {
-    boolean leftResult = left.evaluate(data);
-    boolean rightResult = right.evaluate(data);
-
-    switch (operator.toUpperCase()) {
-      case "AND":
-        return leftResult && rightResult;
-      case "OR":
-        return leftResult || rightResult;
-      default:
+    if (depth > MAX_RECURSION_DEPTH) {
+      return walk(data, 0);
+    }
+    LogicalOperator op = logicalOperator;
+    if (op == null) {
+      throw new UnsupportedOperationException(
+        "Unknown operator: " + operator
+      );
+    }
+
+    AdaptiveStats stats = adaptiveStats;
+    if (stats != null) {
+      return evaluateAdaptive(op, stats, data);
+    }
+
+    // AND is decided by a false child, OR by a true one
+    boolean decisive = op != LogicalOperator.AND;
+    for (ASTNode child : childArray) {
+      if (child.evaluate(data) == decisive) {
+        return decisive;
+      }
+    }
+    return !decisive;
+  }
+
+  private boolean evaluateAdaptive(
+    LogicalOperator op,
+    AdaptiveStats stats,
+    Map<String, Object> data
+  ) {
+    boolean decisive = op != LogicalOperator.AND;
+    boolean result = !decisive;
+    for (int index : stats.order) {
+      if (stats.evaluate(index, childArray[index], data) == decisive) {
+        result = decisive;
+        break;
+      }
+    }
+    stats.maybeReorder(op);
+    return result;
+  }
+
+  @Override
+  public boolean evaluate(Map<String, Object> data, long maxNanos) {
+    if (maxNanos <= 0) {
+      return evaluate(data);
+    }
+    if (size > CLOCK_CHECK_INTERVAL || depth > MAX_RECURSION_DEPTH) {
+      return walk(data, maxNanos);
+    }
+    // Too small to look at the clock in between, so only once it is done
+    long start = System.nanoTime();
+    boolean result = evaluate(data);
+    checkClock(start, maxNanos);
+    return result;
+  }
+
+  private static void checkClock(long start, long maxNanos) {
+    if (System.nanoTime() - start > maxNanos) {
+      throw new RuleBudgetExceededException(
+        "Evaluation exceeded the time limit of " + Duration.ofNanos(maxNanos).toMillis() + " ms"
+      );
+    }
+  }
+
+  /**
+   * Evaluates the tree with an explicit stack of frames instead of recursion,
+   * with the same short-circuit order and results. Children that are shallow,
+   * and also small when the time is limited, are evaluated recursively.
+   */
+  private boolean walk(Map<String, Object> data, long maxNanos) {
+    long start = maxNanos > 0 ? System.nanoTime() : 0;
+    Deque<Frame> frames = new ArrayDeque<>();
+    frames.push(new Frame(this));
+    try {
+      return walk(frames, data, start, maxNanos);
+    } catch (RuleBudgetExceededException e) {
+      throw e;
+    } catch (RuntimeException e) {
+      // Every child being evaluated by its own frame threw with it
+      for (Frame frame : frames) {
+        frame.fail();
+      }
+      throw e;
+    }
+  }
+
+  private static boolean walk(Deque<Frame> frames, Map<String, Object> data, long start, long maxNanos) {
+    int untilClockCheck = CLOCK_CHECK_INTERVAL;
+    while (true) {
+      Frame frame = frames.peek();
+      boolean value;
+      if (frame.hasNext()) {
+        ASTNode child = frame.next();
+        boolean descend = child instanceof OperatorNode operatorNode && (
+          operatorNode.depth > MAX_RECURSION_DEPTH ||
+          (maxNanos > 0 && operatorNode.size > CLOCK_CHECK_INTERVAL)
+        );
+        if (maxNanos > 0) {
+          untilClockCheck -= descend ? 1 : child.size();
+          if (untilClockCheck <= 0) {
+            untilClockCheck = CLOCK_CHECK_INTERVAL;
+            checkClock(start, maxNanos);
+          }
+        }
+        if (descend) {
+          frame.descend();
+          frames.push(new Frame((OperatorNode) child));
+          continue;
+        }
+        value = frame.evaluate(child, data);
+        if (value != frame.decisive) {
+          continue;
+        }
+      } else {
+        value = !frame.decisive;
+      }
+
+      // The node of the frame evaluates to value, and so do the parents it decides
+      frames.pop();
+      frame.finish();
+      while (true) {
+        Frame parent = frames.peek();
+        if (parent == null) {
+          if (maxNanos > 0) {
+            checkClock(start, maxNanos);
+          }
+          return value;
+        }
+        parent.ascend(value);
+        if (value != parent.decisive) {
+          break;
+        }
+        frames.pop();
+        parent.finish();
+      }
+    }
+  }
+
+  // Children compared pairwise with an explicit stack, like walk
+  @Override
+  public boolean equals(Object o) {
+    if (o == this) {
+      return true;
+    }
+    if (!(o instanceof OperatorNode)) {
+      return false;
+    }
+    Deque<ASTNode[]> pending = new ArrayDeque<>();
+    pending.push(new ASTNode[] { this, (OperatorNode) o });
+    while (!pending.isEmpty()) {
+      ASTNode[] pair = pending.pop();
+      if (pair[0] == pair[1]) {
+        continue; // Shared subtree
+      }
+      if (pair[0] instanceof OperatorNode a && pair[1] instanceof OperatorNode b) {
+        if (!Objects.equals(a.operator, b.operator) || a.childArray.length != b.childArray.length) {
+          return false;
+        }
+        for (int i = 0; i < a.childArray.length; i++) {
+          pending.push(new ASTNode[] { a.childArray[i], b.childArray[i] });
+        }
+      } else if (pair[0] instanceof OperatorNode || pair[1] instanceof OperatorNode || !Objects.equals(pair[0], pair[1])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // Same value as the hashCode Lombok generated over operator and children,
+  // computed bottom-up once per distinct node
+  @Override
+  public int hashCode() {
+    Map<OperatorNode, Integer> hashes = new IdentityHashMap<>();
+    Deque<OperatorNode> pending = new ArrayDeque<>();
+    pending.push(this);
+    while (!pending.isEmpty()) {
+      OperatorNode node = pending.peek();
+      boolean ready = true;
+      for (ASTNode child : node.childArray) {
+        if (child instanceof OperatorNode operatorNode && !hashes.containsKey(operatorNode)) {
+          pending.push(operatorNode);
+          ready = false;
+        }
+      }
+      if (!ready) {
+        continue;
+      }
+      pending.pop();
+      int childrenHash = 1;
+      for (ASTNode child : node.childArray) {
+        childrenHash = 31 * childrenHash + (child instanceof OperatorNode operatorNode ? hashes.get(operatorNode) : Objects.hashCode(child));
+      }
+      int result = 59 + (node.operator == null ? 43 : node.operator.hashCode());
+      hashes.put(node, result * 59 + childrenHash);
+    }
+    return hashes.get(this);
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder out = new StringBuilder();
+    Deque<Object> pending = new ArrayDeque<>();
+    pending.push(this);
+    while (!pending.isEmpty()) {
+      Object next = pending.pop();
+      if (next instanceof OperatorNode node) {
+        out.append("OperatorNode(operator=").append(node.operator).append(", children=[");
+        pending.push("])");
+        for (int i = node.childArray.length - 1; i >= 0; i--) {
+          pending.push(node.childArray[i]);
+          if (i > 0) {
+            pending.push(", ");
+          }
+        }
+      } else {
+        out.append(next); // A condition, or punctuation
+      }
+    }
+    return out.toString();
+  }
+
+  // An operator being evaluated by walk, and where it is in its evaluation order
+  private static final class Frame {
+
+    final OperatorNode node;
+    final LogicalOperator op;
+    // AND is decided by a false child, OR by a true one
+    final boolean decisive;
+    final AdaptiveStats stats;
+    final int[] order;
+    int position;
+    int current;
+    boolean descended;
+    boolean timingChild;
+    long childStart;
+
+    Frame(OperatorNode node) {
+      if (node.logicalOperator == null) {
         throw new UnsupportedOperationException(
-          "Unknown operator: " + operator
+          "Unknown operator: " + node.operator
         );
+      }
+      this.node = node;
+      this.op = node.logicalOperator;
+      this.decisive = op != LogicalOperator.AND;
+      this.stats = node.adaptiveStats;
+      this.order = stats == null ? null : stats.order;
+    }
+
+    boolean hasNext() {
+      return position < node.childArray.length;
+    }
+
+    ASTNode next() {
+      current = order == null ? position : order[position];
+      position++;
+      return node.childArray[current];
+    }
+
+    boolean evaluate(ASTNode child, Map<String, Object> data) {
+      return stats == null ? child.evaluate(data) : stats.evaluate(current, child, data);
+    }
+
+    // The current child is evaluated by its own frame
+    void descend() {
+      descended = true;
+      timingChild = stats != null && AdaptiveStats.sampleTiming();
+      if (timingChild) {
+        childStart = System.nanoTime();
+      }
+    }
+
+    // ... which evaluated to value
+    void ascend(boolean value) {
+      descended = false;
+      if (stats != null) {
+        stats.record(current, value, timingChild ? System.nanoTime() - childStart : -1);
+      }
+    }
+
+    void finish() {
+      if (stats != null) {
+        stats.maybeReorder(op);
+      }
+    }
+
+    // The child evaluated on its own frame threw; a child evaluated in place counts its own
+    void fail() {
+      if (stats != null && descended) {
+        stats.recordError(current);
+      }
     }
   }
-}
\ No newline at end of file
+}
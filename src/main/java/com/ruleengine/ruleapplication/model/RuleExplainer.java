@@ -0,0 +1,161 @@
+package com.ruleengine.ruleapplication.model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Evaluates a rule the way ASTNode.evaluate does and records what happened
+ * at every node: for a condition the value looked up in the record and the
+ * result, for an operator which children were visited before it was decided,
+ * and for both the nanoseconds spent in the node. Children are visited in
+ * their declared order, not the adaptive order of AdaptiveStats.
+ *
+ * This is a separate, iterative walk used only for explain requests, so the
+ * normal evaluation path carries no tracing code or allocations. Timings
+ * include the cost of recording the trace.
+ */
+public final class RuleExplainer {
+
+  /** The outcome and the annotated tree; error is set instead of result when evaluation failed. */
+  public record Explanation(Boolean result, String error, long nanos, Map<String, Object> tree) {}
+
+  private static final Object PENDING = new Object();
+
+  private RuleExplainer() {
+  }
+
+  public static Explanation explain(ASTNode root, Map<String, Object> data) {
+    Deque<Frame> frames = new ArrayDeque<>();
+    Map<String, Object> tree = new LinkedHashMap<>();
+    long start = System.nanoTime();
+
+    // A finished node yields a Boolean or the RuntimeException it failed with
+    Object outcome = enter(root, data, tree, frames);
+    while (true) {
+      if (outcome != PENDING) {
+        Frame frame = frames.peek();
+        if (frame == null) {
+          break;
+        }
+        boolean failed = outcome instanceof RuntimeException;
+        if (failed || (Boolean) outcome == frame.decisive || frame.next == frame.children.size()) {
+          Object result = failed ? outcome : (Boolean) outcome == frame.decisive ? frame.decisive : !frame.decisive;
+          frames.pop();
+          frame.finish(result);
+          outcome = result;
+          continue;
+        }
+      }
+      Frame frame = frames.peek();
+      Map<String, Object> child = new LinkedHashMap<>();
+      frame.operands.add(child);
+      outcome = enter(frame.children.get(frame.next++), data, child, frames);
+    }
+
+    long nanos = System.nanoTime() - start;
+    return outcome instanceof RuntimeException e
+      ? new Explanation(null, String.valueOf(e.getMessage()), nanos, tree)
+      : new Explanation((Boolean) outcome, null, nanos, tree);
+  }
+
+  // Evaluates a condition, or pushes an operator whose children are then visited by the loop
+  private static Object enter(ASTNode node, Map<String, Object> data, Map<String, Object> out, Deque<Frame> frames) {
+    long start = System.nanoTime();
+    if (node instanceof OperatorNode operatorNode) {
+      out.put("operator", operatorNode.getOperator());
+      LogicalOperator op = LogicalOperator.from(operatorNode.getOperator());
+      if (op == null) {
+        RuntimeException e = new UnsupportedOperationException("Unknown operator: " + operatorNode.getOperator());
+        finish(out, e, start);
+        return e;
+      }
+      Frame frame = new Frame(operatorNode.getChildren(), op != LogicalOperator.AND, out, start);
+      if (frame.children.isEmpty()) {
+        frame.finish(!frame.decisive);
+        return !frame.decisive;
+      }
+      frames.push(frame);
+      return PENDING;
+    }
+
+    Object result;
+    if (node instanceof OperandNode operand) {
+      out.put("condition", operand.getAttribute() + " " + operand.getOperator() + " " + operand.getValue());
+      out.put("attribute", operand.getAttribute());
+      out.put("value", data.get(operand.getAttribute()));
+    }
+    try {
+      result = node.evaluate(data);
+    } catch (RuntimeException e) {
+      result = e;
+    }
+    finish(out, result, start);
+    return result;
+  }
+
+  private static void finish(Map<String, Object> out, Object result, long start) {
+    out.put("visited", true);
+    if (result instanceof RuntimeException e) {
+      out.put("error", String.valueOf(e.getMessage()));
+    } else {
+      out.put("result", result);
+    }
+    out.put("nanos", System.nanoTime() - start);
+  }
+
+  // Children that were never reached, described without results
+  private static Map<String, Object> skipped(ASTNode node) {
+    Map<String, Object> root = new LinkedHashMap<>();
+    Deque<Object[]> pending = new ArrayDeque<>();
+    pending.push(new Object[] { node, root });
+    while (!pending.isEmpty()) {
+      Object[] next = pending.pop();
+      @SuppressWarnings("unchecked")
+      Map<String, Object> out = (Map<String, Object>) next[1];
+      if (next[0] instanceof OperandNode operand) {
+        out.put("condition", operand.getAttribute() + " " + operand.getOperator() + " " + operand.getValue());
+      } else if (next[0] instanceof OperatorNode operatorNode) {
+        out.put("operator", operatorNode.getOperator());
+        List<Map<String, Object>> operands = new ArrayList<>();
+        for (ASTNode child : operatorNode.getChildren()) {
+          Map<String, Object> childOut = new LinkedHashMap<>();
+          operands.add(childOut);
+          pending.push(new Object[] { child, childOut });
+        }
+        out.put("operands", operands);
+      }
+      out.put("visited", false);
+    }
+    return root;
+  }
+
+  private static final class Frame {
+
+    final List<ASTNode> children;
+    // AND is decided by a false child, OR by a true one
+    final boolean decisive;
+    final Map<String, Object> out;
+    final long start;
+    final List<Map<String, Object>> operands = new ArrayList<>();
+    int next;
+
+    Frame(List<ASTNode> children, boolean decisive, Map<String, Object> out, long start) {
+      this.children = children;
+      this.decisive = decisive;
+      this.out = out;
+      this.start = start;
+    }
+
+    void finish(Object result) {
+      for (int i = next; i < children.size(); i++) {
+        operands.add(skipped(children.get(i)));
+      }
+      RuleExplainer.finish(out, result, start);
+      out.put("operands", operands);
+    }
+  }
+}
@@ -0,0 +1,143 @@
+package com.ruleengine.ruleapplication.model;
+
+import com.ruleengine.ruleapplication.exception.IncompatibleTypesException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The list value of an IN, NOT IN or BETWEEN condition, prepared once so a
+ * record is answered without walking the list: numbers are binary searched
+ * in a sorted array, strings looked up in a hash set, and BETWEEN is one
+ * pair of comparisons. Numbers compare as doubles, as in OperandNode.
+ */
+public final class ValueSet {
+
+  private final boolean negated;
+  private final boolean range;
+
+  // IN / NOT IN: sorted, -0.0 folded into 0.0, NaN left out as it equals nothing
+  private final double[] numbers;
+  private final Set<String> strings;
+  private final boolean hasNumbers;
+  private final boolean hasStrings;
+
+  // BETWEEN: inclusive numeric bounds
+  private final boolean numericRange;
+  private final double low;
+  private final double high;
+
+  // Why the value cannot be used, reported when a record is tested
+  private final String invalid;
+
+  private ValueSet(String operator, Collection<?> values) {
+    this.negated = OperandNode.NOT_IN.equals(operator);
+    this.range = OperandNode.BETWEEN.equals(operator);
+
+    double[] sorted = new double[values.size()];
+    int count = 0;
+    Set<String> distinct = new HashSet<>();
+    boolean numeric = false;
+    String problem = null;
+    for (Object value : values) {
+      if (value instanceof Number number) {
+        numeric = true;
+        double d = number.doubleValue();
+        if (!Double.isNaN(d)) {
+          sorted[count++] = d + 0.0;
+        }
+      } else if (value instanceof String string) {
+        distinct.add(string);
+      } else if (value != null) {
+        problem = "Unsupported value in " + operator + " list: " + value.getClass();
+      }
+    }
+    this.numbers = Arrays.copyOf(sorted, count);
+    Arrays.sort(numbers);
+    this.strings = distinct;
+    this.hasNumbers = numeric;
+    this.hasStrings = !distinct.isEmpty();
+
+    if (range) {
+      List<?> bounds = new ArrayList<>(values);
+      if (bounds.size() != 2) {
+        problem = "BETWEEN needs a lower and an upper bound, got " + values;
+      }
+      this.numericRange = problem == null && bounds.get(0) instanceof Number && bounds.get(1) instanceof Number;
+      if (problem == null && !numericRange) {
+        problem = "BETWEEN bounds must be numbers, got " + values;
+      }
+      this.low = numericRange ? ((Number) bounds.get(0)).doubleValue() : Double.NaN;
+      this.high = numericRange ? ((Number) bounds.get(1)).doubleValue() : Double.NaN;
+    } else {
+      this.numericRange = false;
+      this.low = Double.NaN;
+      this.high = Double.NaN;
+    }
+    this.invalid = problem;
+  }
+
+  /** Whether the operator is answered by a ValueSet. */
+  public static boolean handles(String operator) {
+    return (
+      OperandNode.IN.equals(operator) ||
+      OperandNode.NOT_IN.equals(operator) ||
+      OperandNode.BETWEEN.equals(operator)
+    );
+  }
+
+  /** A single value stands for a one-element list, null for an empty one. */
+  public static ValueSet of(String operator, Object value) {
+    if (!handles(operator)) {
+      throw new IllegalArgumentException("Not a list operator: " + operator);
+    }
+    Collection<?> values = value instanceof Collection<?> collection
+      ? collection
+      : value == null ? List.of() : List.of(value);
+    return new ValueSet(operator, values);
+  }
+
+  /** Same answers and errors as OperandNode.evaluate for a non-null attribute value. */
+  public boolean test(Object attributeValue) {
+    if (invalid != null) {
+      throw new IllegalArgumentException(invalid);
+    }
+    if (attributeValue instanceof Number number && acceptsNumbers()) {
+      return matches(number.doubleValue());
+    }
+    if (attributeValue instanceof String string && acceptsStrings()) {
+      return matches(string);
+    }
+    throw new IncompatibleTypesException(
+      "Incompatible types for comparison: " +
+      attributeValue.getClass() +
+      " and list of " +
+      (acceptsStrings() ? String.class : Number.class)
+    );
+  }
+
+  /** False when a number attribute is compared with a list that only holds strings. */
+  public boolean acceptsNumbers() {
+    return invalid == null && (range ? numericRange : hasNumbers || !hasStrings);
+  }
+
+  /** False when a string attribute is compared with a list that only holds numbers. */
+  public boolean acceptsStrings() {
+    return invalid == null && !range && (hasStrings || !hasNumbers);
+  }
+
+  public boolean matches(double attributeValue) {
+    if (range) {
+      return low <= attributeValue && attributeValue <= high;
+    }
+    return negated != (Arrays.binarySearch(numbers, attributeValue + 0.0) >= 0);
+  }
+
+  // A range holds no strings, see acceptsStrings
+  public boolean matches(String attributeValue) {
+    return !range && negated != strings.contains(attributeValue);
+  }
+}
@@ -0,0 +1,27 @@
+package com.ruleengine.ruleapplication.network;
+
+import com.ruleengine.ruleapplication.model.OperandNode;
+import com.ruleengine.ruleapplication.slot.SlotCondition;
+import com.ruleengine.ruleapplication.slot.SlotLayout;
+
+/**
+ * A distinct condition of the network, shared by every rule that contains it.
+ */
+final class AlphaNode {
+
+  final int id;
+  final ConditionKey key;
+  final SlotCondition condition;
+
+  // Number of rule references, guarded by the owning network
+  int references;
+
+  AlphaNode(int id, ConditionKey key, SlotLayout layout) {
+    this.id = id;
+    this.key = key;
+    this.condition = new SlotCondition(
+      new OperandNode(key.attribute(), key.operator(), key.value()),
+      layout
+    );
+  }
+}
@@ -0,0 +1,98 @@
+package com.ruleengine.ruleapplication.network;
+
+import com.ruleengine.ruleapplication.model.OperatorNode;
+
+/**
+ * Compiled rule structure above the alpha layer. Leaves point at shared alpha
+ * nodes, inner nodes are flattened AND/OR junctions.
+ */
+@FunctionalInterface
+interface BetaNode {
+  boolean evaluate(MatchContext context);
+
+  /** Levels of junctions at and below this node, 0 for a condition. */
+  default int depth() {
+    return 0;
+  }
+
+  static BetaNode condition(AlphaNode alpha) {
+    return context -> context.test(alpha);
+  }
+
+  static BetaNode junction(boolean conjunction, BetaNode[] children) {
+    return new Junction(conjunction, children);
+  }
+
+  /**
+   * Junctions up to OperatorNode.MAX_RECURSION_DEPTH deep evaluate their
+   * children recursively, deeper ones walk them with an explicit stack.
+   */
+  final class Junction implements BetaNode {
+
+    private final boolean conjunction;
+    private final BetaNode[] children;
+    private final int depth;
+
+    private Junction(boolean conjunction, BetaNode[] children) {
+      this.conjunction = conjunction;
+      this.children = children;
+      int childDepth = 0;
+      for (BetaNode child : children) {
+        childDepth = Math.max(childDepth, child.depth());
+      }
+      this.depth = childDepth + 1;
+    }
+
+    @Override
+    public int depth() {
+      return depth;
+    }
+
+    @Override
+    public boolean evaluate(MatchContext context) {
+      if (depth > OperatorNode.MAX_RECURSION_DEPTH) {
+        return walk(context);
+      }
+      // AND is decided by a false child, OR by a true one
+      for (BetaNode child : children) {
+        if (child.evaluate(context) != conjunction) {
+          return !conjunction;
+        }
+      }
+      return conjunction;
+    }
+
+    private boolean walk(MatchContext context) {
+      // Every junction on the stack is deeper than the one above it
+      Junction[] stack = new Junction[depth];
+      int[] next = new int[depth];
+      int top = 0;
+      stack[0] = this;
+      while (true) {
+        Junction junction = stack[top];
+        boolean value;
+        if (next[top] < junction.children.length) {
+          BetaNode child = junction.children[next[top]++];
+          if (child instanceof Junction inner && inner.depth > OperatorNode.MAX_RECURSION_DEPTH) {
+            stack[++top] = inner;
+            next[top] = 0;
+            continue;
+          }
+          value = child.evaluate(context);
+          if (value == junction.conjunction) {
+            continue;
+          }
+        } else {
+          value = junction.conjunction;
+        }
+        // The junction evaluates to value, and so does every parent it decides
+        do {
+          if (top == 0) {
+            return value;
+          }
+          top--;
+        } while (value != stack[top].conjunction);
+      }
+    }
+  }
+}
@@ -0,0 +1,19 @@
+package com.ruleengine.ruleapplication.network;
+
+import com.ruleengine.ruleapplication.model.OperandNode;
+
+/**
+ * Structural identity of a condition. Two operands with the same key always
+ * give the same answer for a record, so the network evaluates them once.
+ */
+record ConditionKey(String attribute, String operator, Object value) {
+
+  static ConditionKey of(OperandNode operand) {
+    String operator = operand.getOperator();
+    // "=" and "==" are interchangeable in OperandNode
+    if ("==".equals(operator)) {
+      operator = "=";
+    }
+    return new ConditionKey(operand.getAttribute(), operator, operand.getValue());
+  }
+}
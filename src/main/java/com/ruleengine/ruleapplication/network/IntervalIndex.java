@@ -0,0 +1,257 @@
+package com.ruleengine.ruleapplication.network;
+
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Rules filed under the NumericRange their attribute must fall in, answering
+ * which ranges contain a value. Ranges open on one side, the thresholds such
+ * as salary > X and age < Y, are kept in two trees sorted by their bound, so
+ * the satisfied ones are a prefix found in O(log n + k). Bounded ranges are
+ * kept sorted by their low bound with the largest high bound of each
+ * subtree, and a stab visits only subtrees that can hold a match.
+ *
+ * The trees are persistent treaps: an insert or remove copies the O(log n)
+ * nodes on its path and swaps the root, so readers never lock and always
+ * see a complete tree. Writers are serialized by the owning network.
+ */
+final class IntervalIndex {
+
+  private final SplittableRandom priorities = new SplittableRandom(0x5EED);
+
+  // Lower thresholds by low bound, upper thresholds mirrored (-high, -low) the same way
+  private volatile Node above;
+  private volatile Node below;
+  private volatile Node bounded;
+  private int size;
+
+  /** Files the rule under the range; filing it under the same range again changes nothing. */
+  void add(NumericRange range, String ruleName) {
+    Node item = node(range, ruleName, priorities.nextInt());
+    if (!range.hasHigh()) {
+      if (!contains(above, item)) {
+        above = insert(above, item);
+        size++;
+      }
+    } else if (!range.hasLow()) {
+      if (!contains(below, item)) {
+        below = insert(below, item);
+        size++;
+      }
+    } else if (!contains(bounded, item)) {
+      bounded = insert(bounded, item);
+      size++;
+    }
+  }
+
+  void remove(NumericRange range, String ruleName) {
+    Node key = node(range, ruleName, 0);
+    if (!range.hasHigh()) {
+      if (contains(above, key)) {
+        above = remove(above, key);
+        size--;
+      }
+    } else if (!range.hasLow()) {
+      if (contains(below, key)) {
+        below = remove(below, key);
+        size--;
+      }
+    } else if (contains(bounded, key)) {
+      bounded = remove(bounded, key);
+      size--;
+    }
+  }
+
+  // Upper thresholds are stored mirrored, as a lower threshold on the negated value
+  private static Node node(NumericRange range, String ruleName, int priority) {
+    if (range.hasHigh() && !range.hasLow()) {
+      return new Node(-range.high(), range.highInclusive(), Double.POSITIVE_INFINITY, false, ruleName, priority, null, null);
+    }
+    return new Node(range.low(), range.lowInclusive(), range.high(), range.highInclusive(), ruleName, priority, null, null);
+  }
+
+  /** Adds the rules whose range contains the value. */
+  void collect(double value, Set<String> out) {
+    if (Double.isNaN(value)) {
+      return;
+    }
+    value += 0.0;
+    stab(above, value, out);
+    stab(below, -value, out);
+    stab(bounded, value, out);
+  }
+
+  void collectAll(Set<String> out) {
+    all(above, out);
+    all(below, out);
+    all(bounded, out);
+  }
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  int size() {
+    return size;
+  }
+
+  private static final class Node {
+
+    final double low;
+    final boolean lowInclusive;
+    final double high;
+    final boolean highInclusive;
+    final String ruleName;
+    final int priority;
+    final Node left;
+    final Node right;
+    // Largest high bound in this subtree
+    final double maxHigh;
+
+    Node(
+      double low,
+      boolean lowInclusive,
+      double high,
+      boolean highInclusive,
+      String ruleName,
+      int priority,
+      Node left,
+      Node right
+    ) {
+      this.low = low;
+      this.lowInclusive = lowInclusive;
+      this.high = high;
+      this.highInclusive = highInclusive;
+      this.ruleName = ruleName;
+      this.priority = priority;
+      this.left = left;
+      this.right = right;
+      double max = high;
+      if (left != null && left.maxHigh > max) {
+        max = left.maxHigh;
+      }
+      if (right != null && right.maxHigh > max) {
+        max = right.maxHigh;
+      }
+      this.maxHigh = max;
+    }
+
+    Node with(Node newLeft, Node newRight) {
+      return new Node(low, lowInclusive, high, highInclusive, ruleName, priority, newLeft, newRight);
+    }
+
+    // By low bound first, which the stabbing query relies on; the rest only makes keys unique
+    int compareTo(Node other) {
+      int c = Double.compare(low, other.low);
+      if (c == 0) {
+        c = Boolean.compare(other.lowInclusive, lowInclusive);
+      }
+      if (c == 0) {
+        c = ruleName.compareTo(other.ruleName);
+      }
+      if (c == 0) {
+        c = Double.compare(high, other.high);
+      }
+      if (c == 0) {
+        c = Boolean.compare(highInclusive, other.highInclusive);
+      }
+      return c;
+    }
+
+    boolean contains(double value) {
+      return (
+        (value > low || (value == low && lowInclusive)) &&
+        (value < high || (value == high && highInclusive))
+      );
+    }
+  }
+
+  // Treap depth is O(log n) with high probability, so the recursion is shallow
+  private static Node insert(Node node, Node item) {
+    if (node == null) {
+      return item;
+    }
+    if (item.priority > node.priority) {
+      Node[] parts = split(node, item);
+      return item.with(parts[0], parts[1]);
+    }
+    if (node.compareTo(item) > 0) {
+      return node.with(insert(node.left, item), node.right);
+    }
+    return node.with(node.left, insert(node.right, item));
+  }
+
+  // Nodes ordered before the key, and the rest
+  private static Node[] split(Node node, Node key) {
+    if (node == null) {
+      return new Node[2];
+    }
+    if (node.compareTo(key) < 0) {
+      Node[] parts = split(node.right, key);
+      return new Node[] { node.with(node.left, parts[0]), parts[1] };
+    }
+    Node[] parts = split(node.left, key);
+    return new Node[] { parts[0], node.with(parts[1], node.right) };
+  }
+
+  private static Node remove(Node node, Node key) {
+    if (node == null) {
+      return null;
+    }
+    int c = node.compareTo(key);
+    if (c == 0) {
+      return merge(node.left, node.right);
+    }
+    if (c > 0) {
+      return node.with(remove(node.left, key), node.right);
+    }
+    return node.with(node.left, remove(node.right, key));
+  }
+
+  private static boolean contains(Node node, Node key) {
+    while (node != null) {
+      int c = node.compareTo(key);
+      if (c == 0) {
+        return true;
+      }
+      node = c > 0 ? node.left : node.right;
+    }
+    return false;
+  }
+
+  // Every node of a orders before every node of b
+  private static Node merge(Node a, Node b) {
+    if (a == null) {
+      return b;
+    }
+    if (b == null) {
+      return a;
+    }
+    if (a.priority > b.priority) {
+      return a.with(a.left, merge(a.right, b));
+    }
+    return b.with(merge(a, b.left), b.right);
+  }
+
+  private static void stab(Node node, double value, Set<String> out) {
+    while (node != null && node.maxHigh >= value) {
+      if (node.low > value) {
+        node = node.left; // Everything to the right starts even higher
+        continue;
+      }
+      if (node.contains(value)) {
+        out.add(node.ruleName);
+      }
+      stab(node.left, value, out);
+      node = node.right;
+    }
+  }
+
+  private static void all(Node node, Set<String> out) {
+    while (node != null) {
+      out.add(node.ruleName);
+      all(node.left, out);
+      node = node.right;
+    }
+  }
+}
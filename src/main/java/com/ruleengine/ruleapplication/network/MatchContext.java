@@ -0,0 +1,46 @@
+package com.ruleengine.ruleapplication.network;
+
+import com.ruleengine.ruleapplication.slot.SlotRecord;
+import java.util.Arrays;
+
+/**
+ * Per-record memory of alpha results, so a condition shared by many rules is
+ * evaluated at most once per record.
+ */
+final class MatchContext {
+
+  private final SlotRecord record;
+  private AlphaNode[] owners;
+  private boolean[] results;
+  private int evaluations;
+
+  MatchContext(SlotRecord record, int capacity) {
+    this.record = record;
+    this.owners = new AlphaNode[capacity];
+    this.results = new boolean[capacity];
+  }
+
+  boolean test(AlphaNode alpha) {
+    int id = alpha.id;
+    // Ids are recycled, so the slot only counts if it belongs to this very node
+    if (id < owners.length && owners[id] == alpha) {
+      return results[id];
+    }
+
+    boolean result = alpha.condition.test(record);
+    evaluations++;
+
+    if (id >= owners.length) {
+      int capacity = Math.max(id + 1, owners.length * 2);
+      owners = Arrays.copyOf(owners, capacity);
+      results = Arrays.copyOf(results, capacity);
+    }
+    owners[id] = alpha;
+    results[id] = result;
+    return result;
+  }
+
+  int getEvaluations() {
+    return evaluations;
+  }
+}
@@ -0,0 +1,17 @@
+package com.ruleengine.ruleapplication.network;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of matching one record against a rule set: the names of the rules it
+ * satisfies, rules that failed with an error, how many distinct conditions had
+ * to be evaluated, and how many rules were evaluated or skipped by the index.
+ */
+public record MatchResult(
+  List<String> matchedRules,
+  Map<String, String> errors,
+  int conditionsEvaluated,
+  int rulesEvaluated,
+  int rulesSkipped
+) {}
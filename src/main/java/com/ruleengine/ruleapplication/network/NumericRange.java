@@ -0,0 +1,98 @@
+package com.ruleengine.ruleapplication.network;
+
+import com.ruleengine.ruleapplication.model.OperandNode;
+import java.util.List;
+
+/**
+ * An interval of numbers, bounds included or not; infinite bounds are open.
+ * A numeric condition such as age > 30 or age BETWEEN 18 AND 65 only holds
+ * for values inside its range, and NaN is inside no range.
+ */
+record NumericRange(double low, boolean lowInclusive, double high, boolean highInclusive) {
+
+  /** The range a condition requires of its attribute, or null when it has none. */
+  static NumericRange of(OperandNode operand) {
+    String operator = operand.getOperator();
+    Object value = operand.getValue();
+    double inf = Double.POSITIVE_INFINITY;
+    if (
+      OperandNode.BETWEEN.equals(operator) &&
+      value instanceof List<?> bounds &&
+      bounds.size() == 2 &&
+      bounds.get(0) instanceof Number low &&
+      bounds.get(1) instanceof Number high
+    ) {
+      return of(low.doubleValue(), true, high.doubleValue(), true);
+    }
+    if (operator == null || !(value instanceof Number number)) {
+      return null;
+    }
+    double v = number.doubleValue();
+    switch (operator) {
+      case ">":
+        return of(v, false, inf, false);
+      case ">=":
+        return of(v, true, inf, false);
+      case "<":
+        return of(-inf, false, v, false);
+      case "<=":
+        return of(-inf, false, v, true);
+      case "=":
+      case "==":
+        return of(v, true, v, true);
+      default:
+        return null;
+    }
+  }
+
+  private static NumericRange of(double low, boolean lowInclusive, double high, boolean highInclusive) {
+    if (Double.isNaN(low) || Double.isNaN(high)) {
+      return null; // Never true, left to the tree
+    }
+    return new NumericRange(
+      low + 0.0,
+      lowInclusive && low != Double.NEGATIVE_INFINITY,
+      high + 0.0,
+      highInclusive && high != Double.POSITIVE_INFINITY
+    );
+  }
+
+  boolean contains(double value) {
+    return (
+      (value > low || (value == low && lowInclusive)) &&
+      (value < high || (value == high && highInclusive))
+    );
+  }
+
+  boolean hasLow() {
+    return low != Double.NEGATIVE_INFINITY;
+  }
+
+  boolean hasHigh() {
+    return high != Double.POSITIVE_INFINITY;
+  }
+
+  /** Values in both ranges, as required by an AND. */
+  NumericRange intersect(NumericRange other) {
+    boolean takeLow = other.low > low || (other.low == low && !other.lowInclusive);
+    boolean takeHigh = other.high < high || (other.high == high && !other.highInclusive);
+    return new NumericRange(
+      takeLow ? other.low : low,
+      takeLow ? other.lowInclusive : lowInclusive,
+      takeHigh ? other.high : high,
+      takeHigh ? other.highInclusive : highInclusive
+    );
+  }
+
+  /** The smallest range holding both, as required by an OR. */
+  NumericRange span(NumericRange other) {
+    boolean takeLow = other.low < low || (other.low == low && other.lowInclusive);
+    boolean takeHigh = other.high > high || (other.high == high && other.highInclusive);
+    return new NumericRange(
+      takeLow ? other.low : low,
+      takeLow ? other.lowInclusive : lowInclusive,
+      takeHigh ? other.high : high,
+      takeHigh ? other.highInclusive : highInclusive
+    );
+  }
+}
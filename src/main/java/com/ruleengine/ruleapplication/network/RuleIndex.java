@@ -0,0 +1,165 @@
+package com.ruleengine.ruleapplication.network;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Inverted index from record contents to the rules worth evaluating. Each rule
+ * is filed under one anchor taken from its requirements: a required
+ * attribute = value pair when it has one, otherwise the numeric range a
+ * required attribute must fall in (see IntervalIndex), otherwise a required
+ * attribute, otherwise it is a candidate for every record.
+ *
+ * Written under the network lock, read concurrently by matching threads.
+ */
+final class RuleIndex {
+
+  private final Map<String, AttributeEntry> byAttribute = new ConcurrentHashMap<>();
+  private final Set<String> unanchored = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Attribute null files the rule as unanchored, value and range null as
+   * presence only.
+   */
+  record Anchor(String attribute, Object value, NumericRange range) {
+
+    static Anchor of(RuleRequirements requirements) {
+      for (Map.Entry<String, Object> entry : requirements.equalities().entrySet()) {
+        return new Anchor(entry.getKey(), entry.getValue(), null);
+      }
+      for (Map.Entry<String, NumericRange> entry : requirements.ranges().entrySet()) {
+        return new Anchor(entry.getKey(), null, entry.getValue());
+      }
+      for (String attribute : requirements.attributes()) {
+        return new Anchor(attribute, null, null);
+      }
+      return new Anchor(null, null, null);
+    }
+  }
+
+  void add(String ruleName, Anchor anchor) {
+    if (anchor.attribute() == null) {
+      unanchored.add(ruleName);
+      return;
+    }
+    AttributeEntry entry = byAttribute.computeIfAbsent(anchor.attribute(), key -> new AttributeEntry());
+    if (anchor.range() != null) {
+      entry.ranges.add(anchor.range(), ruleName);
+    } else if (anchor.value() == null) {
+      entry.present.add(ruleName);
+    } else {
+      entry.valuesOfType(anchor.value())
+        .computeIfAbsent(anchor.value(), key -> ConcurrentHashMap.newKeySet())
+        .add(ruleName);
+    }
+  }
+
+  void remove(String ruleName, Anchor anchor) {
+    if (anchor.attribute() == null) {
+      unanchored.remove(ruleName);
+      return;
+    }
+    AttributeEntry entry = byAttribute.get(anchor.attribute());
+    if (entry == null) {
+      return;
+    }
+    if (anchor.range() != null) {
+      entry.ranges.remove(anchor.range(), ruleName);
+    } else if (anchor.value() == null) {
+      entry.present.remove(ruleName);
+    } else {
+      Map<Object, Set<String>> values = entry.valuesOfType(anchor.value());
+      Set<String> rules = values.get(anchor.value());
+      if (rules != null && rules.remove(ruleName) && rules.isEmpty()) {
+        values.remove(anchor.value());
+      }
+    }
+    if (entry.isEmpty()) {
+      byAttribute.remove(anchor.attribute());
+    }
+  }
+
+  /**
+   * Names of the rules that may match the record, in name order. Rules whose
+   * anchor is absent from the record, whose anchor value differs from the
+   * record's value of the same type, or whose anchor range does not contain
+   * the record's number, are left out.
+   */
+  Set<String> candidates(Map<String, Object> data) {
+    Set<String> candidates = new TreeSet<>(unanchored);
+    for (Map.Entry<String, Object> field : data.entrySet()) {
+      if (field.getValue() == null) {
+        continue;
+      }
+      AttributeEntry entry = byAttribute.get(field.getKey());
+      if (entry == null) {
+        continue;
+      }
+      candidates.addAll(entry.present);
+
+      Object value = RuleRequirements.indexValue(field.getValue());
+      if (value instanceof Double number) {
+        addIfPresent(candidates, entry.numbers.get(value));
+        entry.ranges.collect(number, candidates);
+        // A string comparison against a number fails loudly in evaluation
+        addAll(candidates, entry.strings.values());
+      } else if (value instanceof String) {
+        addIfPresent(candidates, entry.strings.get(value));
+        addAll(candidates, entry.numbers.values());
+        entry.ranges.collectAll(candidates);
+      } else {
+        addAll(candidates, entry.numbers.values());
+        addAll(candidates, entry.strings.values());
+        entry.ranges.collectAll(candidates);
+      }
+    }
+    return candidates;
+  }
+
+  int attributeCount() {
+    return byAttribute.size();
+  }
+
+  int unanchoredCount() {
+    return unanchored.size();
+  }
+
+  int rangeAnchoredCount() {
+    int count = 0;
+    for (AttributeEntry entry : byAttribute.values()) {
+      count += entry.ranges.size();
+    }
+    return count;
+  }
+
+  private static void addIfPresent(Set<String> candidates, Set<String> rules) {
+    if (rules != null) {
+      candidates.addAll(rules);
+    }
+  }
+
+  private static void addAll(Set<String> candidates, Collection<Set<String>> groups) {
+    for (Set<String> rules : groups) {
+      candidates.addAll(rules);
+    }
+  }
+
+  private static final class AttributeEntry {
+
+    final Set<String> present = ConcurrentHashMap.newKeySet();
+    final Map<Object, Set<String>> numbers = new ConcurrentHashMap<>();
+    final Map<Object, Set<String>> strings = new ConcurrentHashMap<>();
+    final IntervalIndex ranges = new IntervalIndex();
+
+    Map<Object, Set<String>> valuesOfType(Object value) {
+      return value instanceof Double ? numbers : strings;
+    }
+
+    boolean isEmpty() {
+      return present.isEmpty() && numbers.isEmpty() && strings.isEmpty() && ranges.isEmpty();
+    }
+  }
+}
@@ -0,0 +1,224 @@
+package com.ruleengine.ruleapplication.network;
+
+import com.ruleengine.ruleapplication.model.ASTNode;
+import com.ruleengine.ruleapplication.model.LogicalOperator;
+import com.ruleengine.ruleapplication.model.OperandNode;
+import com.ruleengine.ruleapplication.model.OperatorNode;
+import com.ruleengine.ruleapplication.slot.SlotLayout;
+import com.ruleengine.ruleapplication.slot.SlotRecord;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Rete-style discrimination network over a set of rules. Every distinct
+ * attribute/operator/value condition becomes one shared alpha node, and each
+ * rule is compiled into a beta structure over those nodes. Matching a record
+ * evaluates each distinct condition at most once, however many rules use it.
+ *
+ * Rules that provably cannot match a record are skipped without walking
+ * their trees: a RuleIndex picks the candidates from the record's attributes
+ * and values, numeric thresholds such as salary > X through an interval
+ * index, and each candidate's RuleRequirements are checked before it is
+ * evaluated.
+ *
+ * Every attribute the network references has a slot in one shared
+ * SlotLayout; a record is converted to slots once per match and the alpha
+ * nodes and requirement checks read it by index.
+ *
+ * Writers are serialized on the network; matching runs concurrently against
+ * the compiled rules without locking.
+ */
+public class RuleNetwork {
+
+  private final Map<ConditionKey, AlphaNode> alphaNodes = new HashMap<>();
+  private final Deque<Integer> freeIds = new ArrayDeque<>();
+  private int nextId;
+
+  private final Map<String, NetworkRule> rules = new ConcurrentSkipListMap<>();
+  private final RuleIndex index = new RuleIndex();
+  private final SlotLayout layout = new SlotLayout();
+  private volatile int alphaCount;
+
+  public synchronized void put(String ruleName, ASTNode ast) {
+    List<AlphaNode> acquired = new ArrayList<>();
+    BetaNode root = compile(ast, acquired);
+    RuleRequirements requirements = RuleRequirements.of(ast, layout);
+    RuleIndex.Anchor anchor = RuleIndex.Anchor.of(requirements);
+
+    // File the new anchor before dropping the old one, so concurrent matches
+    // always find the rule under one of them
+    index.add(ruleName, anchor);
+    NetworkRule previous = rules.put(ruleName, new NetworkRule(root, acquired, requirements, anchor));
+    if (previous != null) {
+      if (!previous.anchor.equals(anchor)) {
+        index.remove(ruleName, previous.anchor);
+      }
+      release(previous);
+    }
+  }
+
+  public synchronized void remove(String ruleName) {
+    NetworkRule previous = rules.remove(ruleName);
+    if (previous != null) {
+      index.remove(ruleName, previous.anchor);
+      release(previous);
+    }
+  }
+
+  /**
+   * Matches a record against the given rules, or against every rule in the
+   * network when ruleNames is null.
+   */
+  public MatchResult match(Map<String, Object> data, Collection<String> ruleNames) {
+    int total;
+    Map<String, NetworkRule> selected = new LinkedHashMap<>();
+    if (ruleNames == null) {
+      total = rules.size();
+      for (String ruleName : index.candidates(data)) {
+        NetworkRule rule = rules.get(ruleName);
+        if (rule != null) { // Null when removed since the lookup
+          selected.put(ruleName, rule);
+        }
+      }
+    } else {
+      total = ruleNames.size();
+      for (String ruleName : ruleNames) {
+        NetworkRule rule = rules.get(ruleName);
+        if (rule == null) {
+          throw new IllegalArgumentException("Rule not found with name: " + ruleName);
+        }
+        selected.put(ruleName, rule);
+      }
+    }
+
+    SlotRecord record = SlotRecord.of(layout, data);
+    MatchContext context = new MatchContext(record, alphaCount);
+    List<String> matched = new ArrayList<>();
+    Map<String, String> errors = new LinkedHashMap<>();
+    int evaluated = 0;
+    for (Map.Entry<String, NetworkRule> entry : selected.entrySet()) {
+      NetworkRule rule = entry.getValue();
+      if (!rule.requirements.admits(record)) {
+        continue;
+      }
+      evaluated++;
+      try {
+        if (rule.root.evaluate(context)) {
+          matched.add(entry.getKey());
+        }
+      } catch (RuntimeException e) {
+        errors.put(entry.getKey(), String.valueOf(e.getMessage()));
+      }
+    }
+    return new MatchResult(matched, errors, context.getEvaluations(), evaluated, total - evaluated);
+  }
+
+  public synchronized Map<String, Object> getStats() {
+    int references = 0;
+    for (AlphaNode alpha : alphaNodes.values()) {
+      references += alpha.references;
+    }
+    return Map.of(
+      "rules", rules.size(),
+      "distinctConditions", alphaNodes.size(),
+      "conditionReferences", references,
+      "attributeSlots", layout.size(),
+      "indexedAttributes", index.attributeCount(),
+      "rangeIndexedRules", index.rangeAnchoredCount(),
+      "unindexedRules", index.unanchoredCount()
+    );
+  }
+
+  // Depth-first, so alpha nodes are acquired in the order of the conditions
+  private BetaNode compile(ASTNode ast, List<AlphaNode> acquired) {
+    Deque<PendingJunction> junctions = new ArrayDeque<>();
+    BetaNode result = enter(ast, acquired, junctions);
+    while (!junctions.isEmpty()) {
+      PendingJunction junction = junctions.peek();
+      if (junction.next < junction.operands.size()) {
+        BetaNode done = enter(junction.operands.get(junction.next++), acquired, junctions);
+        if (done != null) {
+          junction.compiled.add(done);
+        }
+        continue;
+      }
+      junctions.pop();
+      BetaNode node = BetaNode.junction(junction.conjunction, junction.compiled.toArray(new BetaNode[0]));
+      if (junctions.isEmpty()) {
+        result = node;
+      } else {
+        junctions.peek().compiled.add(node);
+      }
+    }
+    return result;
+  }
+
+  // Returns the compiled node, or null after pushing a junction for an AND/OR
+  private BetaNode enter(ASTNode node, List<AlphaNode> acquired, Deque<PendingJunction> junctions) {
+    if (node instanceof OperandNode operand) {
+      return BetaNode.condition(acquire(ConditionKey.of(operand), acquired));
+    }
+    if (!(node instanceof OperatorNode operatorNode)) {
+      throw new IllegalArgumentException("Unsupported node: " + node);
+    }
+
+    LogicalOperator op = LogicalOperator.from(operatorNode.getOperator());
+    if (op == null) {
+      return context -> {
+        throw new UnsupportedOperationException("Unknown operator: " + operatorNode.getOperator());
+      };
+    }
+    junctions.push(new PendingJunction(op == LogicalOperator.AND, operatorNode.flatten()));
+    return null;
+  }
+
+  private AlphaNode acquire(ConditionKey key, List<AlphaNode> acquired) {
+    AlphaNode alpha = alphaNodes.get(key);
+    if (alpha == null) {
+      int id = freeIds.isEmpty() ? nextId++ : freeIds.pop();
+      alpha = new AlphaNode(id, key, layout);
+      alphaNodes.put(key, alpha);
+      alphaCount = nextId;
+    }
+    alpha.references++;
+    acquired.add(alpha);
+    return alpha;
+  }
+
+  private void release(NetworkRule rule) {
+    for (AlphaNode alpha : rule.alphas) {
+      if (--alpha.references == 0) {
+        alphaNodes.remove(alpha.key);
+        freeIds.push(alpha.id);
+      }
+    }
+  }
+
+  // An AND/OR being compiled, and its children compiled so far
+  private static final class PendingJunction {
+
+    final boolean conjunction;
+    final List<ASTNode> operands;
+    final List<BetaNode> compiled = new ArrayList<>();
+    int next;
+
+    PendingJunction(boolean conjunction, List<ASTNode> operands) {
+      this.conjunction = conjunction;
+      this.operands = operands;
+    }
+  }
+
+  private record NetworkRule(
+    BetaNode root,
+    List<AlphaNode> alphas,
+    RuleRequirements requirements,
+    RuleIndex.Anchor anchor
+  ) {}
+}
@@ -0,0 +1,227 @@
+package com.ruleengine.ruleapplication.network;
+
+import com.ruleengine.ruleapplication.model.ASTNode;
+import com.ruleengine.ruleapplication.model.LogicalOperator;
+import com.ruleengine.ruleapplication.model.OperandNode;
+import com.ruleengine.ruleapplication.model.OperatorNode;
+import com.ruleengine.ruleapplication.slot.SlotLayout;
+import com.ruleengine.ruleapplication.slot.SlotRecord;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * What a record must contain for a rule to have any chance of matching: the
+ * attributes every satisfying record carries, the attribute = value
+ * conditions every satisfying record agrees with, and the numeric range each
+ * attribute of a satisfying record falls in. A condition on a missing
+ * attribute is false, so a record that fails any of these cannot match.
+ */
+final class RuleRequirements {
+
+  private static final RuleRequirements NONE = new RuleRequirements(Set.of(), Map.of(), Map.of(), null);
+
+  private final Set<String> attributes;
+  // Attribute -> required value, normalized by indexValue
+  private final Map<String, Object> equalities;
+  // Attribute -> range its numeric value must fall in
+  private final Map<String, NumericRange> ranges;
+
+  // The same requirements resolved against the network's SlotLayout
+  private final int[] attributeSlots;
+  private final int[] equalitySlots;
+  private final Object[] equalityValues;
+  private final int[] rangeSlots;
+  private final NumericRange[] rangeValues;
+
+  // A null layout leaves the requirements unresolved while they are collected
+  private RuleRequirements(
+    Set<String> attributes,
+    Map<String, Object> equalities,
+    Map<String, NumericRange> ranges,
+    SlotLayout layout
+  ) {
+    this.attributes = attributes;
+    this.equalities = equalities;
+    this.ranges = ranges;
+    if (layout == null) {
+      this.attributeSlots = new int[0];
+      this.equalitySlots = new int[0];
+      this.equalityValues = new Object[0];
+      this.rangeSlots = new int[0];
+      this.rangeValues = new NumericRange[0];
+    } else {
+      this.attributeSlots = attributes.stream().mapToInt(layout::assign).toArray();
+      this.equalitySlots = equalities.keySet().stream().mapToInt(layout::assign).toArray();
+      this.equalityValues = equalities.values().toArray();
+      this.rangeSlots = ranges.keySet().stream().mapToInt(layout::assign).toArray();
+      this.rangeValues = ranges.values().toArray(new NumericRange[0]);
+    }
+  }
+
+  static RuleRequirements of(ASTNode ast, SlotLayout layout) {
+    RuleRequirements requirements = collect(ast);
+    return new RuleRequirements(requirements.attributes, requirements.equalities, requirements.ranges, layout);
+  }
+
+  // Bottom-up, with a collector on the stack for each AND/OR being visited
+  private static RuleRequirements collect(ASTNode ast) {
+    Deque<Collector> collectors = new ArrayDeque<>();
+    RuleRequirements result = enter(ast, collectors);
+    while (!collectors.isEmpty()) {
+      Collector collector = collectors.peek();
+      if (collector.next < collector.operands.size()) {
+        RuleRequirements done = enter(collector.operands.get(collector.next++), collectors);
+        if (done != null) {
+          collector.add(done);
+        }
+        continue;
+      }
+      collectors.pop();
+      RuleRequirements node = collector.result();
+      if (collectors.isEmpty()) {
+        result = node;
+      } else {
+        collectors.peek().add(node);
+      }
+    }
+    return result;
+  }
+
+  // Returns the requirements of the node, or null after pushing a collector for an AND/OR
+  private static RuleRequirements enter(ASTNode node, Deque<Collector> collectors) {
+    if (node instanceof OperandNode operand) {
+      Map<String, Object> equalities = new LinkedHashMap<>();
+      Object value = indexValue(operand.getValue());
+      if (value != null && ("=".equals(operand.getOperator()) || "==".equals(operand.getOperator()))) {
+        equalities.put(operand.getAttribute(), value);
+      }
+      Map<String, NumericRange> ranges = new LinkedHashMap<>();
+      NumericRange range = NumericRange.of(operand);
+      if (range != null) {
+        ranges.put(operand.getAttribute(), range);
+      }
+      return new RuleRequirements(Set.of(operand.getAttribute()), equalities, ranges, null);
+    }
+    if (!(node instanceof OperatorNode operatorNode)) {
+      return NONE;
+    }
+    LogicalOperator op = LogicalOperator.from(operatorNode.getOperator());
+    if (op == null) {
+      return NONE; // Fails at evaluation, which must still be reported
+    }
+    collectors.push(new Collector(op == LogicalOperator.AND, operatorNode.flatten()));
+    return null;
+  }
+
+  // AND needs what any child needs, OR only what every child needs
+  private static final class Collector {
+
+    final boolean conjunction;
+    final List<ASTNode> operands;
+    int next;
+    Set<String> attributes;
+    Map<String, Object> equalities;
+    Map<String, NumericRange> ranges;
+
+    Collector(boolean conjunction, List<ASTNode> operands) {
+      this.conjunction = conjunction;
+      this.operands = operands;
+    }
+
+    void add(RuleRequirements required) {
+      if (attributes == null) {
+        attributes = new LinkedHashSet<>(required.attributes);
+        equalities = new LinkedHashMap<>(required.equalities);
+        ranges = new LinkedHashMap<>(required.ranges);
+      } else if (conjunction) {
+        attributes.addAll(required.attributes);
+        // With two different required values the rule never matches; keeping
+        // either one is still a valid filter
+        required.equalities.forEach(equalities::putIfAbsent);
+        // An empty intersection admits no record, which is right for a rule that never matches
+        for (Map.Entry<String, NumericRange> range : required.ranges.entrySet()) {
+          ranges.merge(range.getKey(), range.getValue(), NumericRange::intersect);
+        }
+      } else {
+        attributes.retainAll(required.attributes);
+        equalities.entrySet().removeIf(entry ->
+          !Objects.equals(required.equalities.get(entry.getKey()), entry.getValue())
+        );
+        ranges.keySet().retainAll(required.ranges.keySet());
+        for (Map.Entry<String, NumericRange> range : ranges.entrySet()) {
+          range.setValue(range.getValue().span(required.ranges.get(range.getKey())));
+        }
+      }
+    }
+
+    RuleRequirements result() {
+      if (attributes == null) {
+        return NONE; // AND() or OR(), constants need no attributes
+      }
+      return new RuleRequirements(attributes, equalities, ranges, null);
+    }
+  }
+
+  /**
+   * Normalized form of a value for equality lookups, or null for values that
+   * cannot be indexed. Numbers compare as doubles in OperandNode.
+   */
+  static Object indexValue(Object value) {
+    if (value instanceof Number number) {
+      return number.doubleValue() + 0.0; // Folds -0.0 into 0.0
+    }
+    if (value instanceof String) {
+      return value;
+    }
+    return null;
+  }
+
+  /**
+   * False when the record provably cannot satisfy the rule. A record value of
+   * another type than the required one is left to the tree, which reports it.
+   */
+  boolean admits(SlotRecord record) {
+    for (int slot : attributeSlots) {
+      if (record.kind(slot) == SlotRecord.MISSING) {
+        return false;
+      }
+    }
+    for (int i = 0; i < equalitySlots.length; i++) {
+      int slot = equalitySlots[i];
+      Object required = equalityValues[i];
+      byte kind = record.kind(slot);
+      if (
+        kind == SlotRecord.NUMBER && required instanceof Double number
+          ? Double.compare(record.number(slot) + 0.0, number) != 0
+          : kind == SlotRecord.STRING && required instanceof String && !required.equals(record.value(slot))
+      ) {
+        return false;
+      }
+    }
+    for (int i = 0; i < rangeSlots.length; i++) {
+      int slot = rangeSlots[i];
+      if (record.kind(slot) == SlotRecord.NUMBER && !rangeValues[i].contains(record.number(slot) + 0.0)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  Set<String> attributes() {
+    return attributes;
+  }
+
+  Map<String, Object> equalities() {
+    return equalities;
+  }
+
+  Map<String, NumericRange> ranges() {
+    return ranges;
+  }
+}
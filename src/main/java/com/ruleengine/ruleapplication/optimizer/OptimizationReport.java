@@ -0,0 +1,15 @@
+package com.ruleengine.ruleapplication.optimizer;
+
+import java.util.List;
+
+/**
+ * What RuleOptimizer did to a rule: how many distinct conditions the tree had
+ * before and after, whether the rule can never match, and one line per
+ * simplification, e.g. "age > 30.0 AND age > 40.0 -> age > 40.0".
+ */
+public record OptimizationReport(
+  int conditionsBefore,
+  int conditionsAfter,
+  boolean neverMatches,
+  List<String> simplifications
+) {}
@@ -0,0 +1,454 @@
+package com.ruleengine.ruleapplication.optimizer;
+
+import com.ruleengine.ruleapplication.model.ASTNode;
+import com.ruleengine.ruleapplication.model.AstNormalizer;
+import com.ruleengine.ruleapplication.model.LogicalOperator;
+import com.ruleengine.ruleapplication.model.OperandNode;
+import com.ruleengine.ruleapplication.model.OperatorNode;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * Simplifies a rule tree before it is stored:
+ * <ul>
+ *   <li>conditions on the same attribute under one AND/OR are compared as
+ *       value ranges; a condition implied by another one is dropped, so
+ *       age > 30 AND age > 40 keeps age > 40 and age > 30 OR age > 40 keeps
+ *       age > 30,</li>
+ *   <li>an AND whose conditions on one attribute cannot all hold, such as
+ *       age < 10 AND age > 20, is folded to false,</li>
+ *   <li>constants are folded: false drops out of an OR and makes an AND false,
+ *       true drops out of an AND and makes an OR true.</li>
+ * </ul>
+ * False is an OR without children and true an AND without children, so the
+ * result is an ordinary tree. A rule folded to false never matches and is
+ * flagged in the report. Duplicates and nesting are removed by AstNormalizer,
+ * which runs before and after.
+ *
+ * Conditions on one attribute either all throw for a record (its value is not
+ * comparable) or none do, and a reduced group is evaluated at the position of
+ * its first condition. Every record the original rule answers gets the same
+ * answer; a record it fails on may get an answer instead of the error.
+ */
+public final class RuleOptimizer {
+
+  private final List<String> simplifications = new ArrayList<>();
+  private final Map<ASTNode, ASTNode> optimized = new IdentityHashMap<>();
+
+  private RuleOptimizer() {
+  }
+
+  public record Result(ASTNode ast, OptimizationReport report) {}
+
+  public static Result optimize(ASTNode ast) {
+    int before = countConditions(ast);
+    RuleOptimizer optimizer = new RuleOptimizer();
+    ASTNode result = AstNormalizer.normalize(optimizer.apply(AstNormalizer.normalize(ast)));
+    return new Result(result, new OptimizationReport(
+      before,
+      countConditions(result),
+      isConstant(result, false),
+      List.copyOf(optimizer.simplifications)
+    ));
+  }
+
+  /** The constant true (an AND without children) or false (an OR without children). */
+  public static OperatorNode constant(boolean value) {
+    return new OperatorNode(value ? "AND" : "OR", List.of());
+  }
+
+  private static boolean isConstant(ASTNode node, boolean value) {
+    return (
+      node instanceof OperatorNode operatorNode &&
+      operatorNode.getChildren().isEmpty() &&
+      LogicalOperator.from(operatorNode.getOperator()) == (value ? LogicalOperator.AND : LogicalOperator.OR)
+    );
+  }
+
+  // Bottom-up over the tree without recursion; shared subtrees are optimized once
+  private ASTNode apply(ASTNode root) {
+    Deque<ASTNode> nodes = new ArrayDeque<>();
+    Deque<Integer> nextChild = new ArrayDeque<>();
+    Deque<List<ASTNode>> children = new ArrayDeque<>();
+    ASTNode result = root;
+    if (root instanceof OperatorNode) {
+      nodes.push(root);
+      nextChild.push(0);
+      children.push(new ArrayList<>());
+    }
+    while (!nodes.isEmpty()) {
+      OperatorNode node = (OperatorNode) nodes.peek();
+      int next = nextChild.pop();
+      if (next < node.getChildren().size()) {
+        nextChild.push(next + 1);
+        ASTNode child = node.getChildren().get(next);
+        ASTNode done = child instanceof OperatorNode ? optimized.get(child) : child;
+        if (done != null) {
+          children.peek().add(done);
+        } else {
+          nodes.push(child);
+          nextChild.push(0);
+          children.push(new ArrayList<>());
+        }
+        continue;
+      }
+      nodes.pop();
+      ASTNode done = simplify(node, children.pop());
+      optimized.put(node, done);
+      if (nodes.isEmpty()) {
+        result = done;
+      } else {
+        children.peek().add(done);
+      }
+    }
+    return result;
+  }
+
+  private ASTNode simplify(OperatorNode node, List<ASTNode> children) {
+    LogicalOperator op = LogicalOperator.from(node.getOperator());
+    if (op == null) {
+      return changed(node, children) ? new OperatorNode(node.getOperator(), children) : node;
+    }
+    boolean conjunction = op == LogicalOperator.AND;
+
+    // An AND with a false child is false, an OR with a true child is true;
+    // the other constant is the identity and drops out
+    List<ASTNode> kept = new ArrayList<>();
+    for (ASTNode child : children) {
+      if (isConstant(child, !conjunction)) {
+        simplifications.add(conjunction
+          ? "AND with a never-true operand is never true"
+          : "OR with an always-true operand is always true");
+        return constant(!conjunction);
+      }
+      if (isConstant(child, conjunction)) {
+        simplifications.add(conjunction
+          ? "dropped an always-true operand of AND"
+          : "dropped a never-true operand of OR");
+      } else {
+        kept.add(child);
+      }
+    }
+
+    // Conditions on the same attribute and value kind, by position in kept
+    Map<String, List<Integer>> groups = new LinkedHashMap<>();
+    for (int i = 0; i < kept.size(); i++) {
+      if (kept.get(i) instanceof OperandNode operand) {
+        Condition condition = Condition.of(operand);
+        if (condition != null) {
+          groups.computeIfAbsent(condition.groupKey(), key -> new ArrayList<>()).add(i);
+        }
+      }
+    }
+
+    Set<Integer> dropped = new HashSet<>();
+    Map<Integer, List<ASTNode>> replacements = new LinkedHashMap<>();
+    for (List<Integer> positions : groups.values()) {
+      if (positions.size() < 2) {
+        continue;
+      }
+      List<Condition> conditions = new ArrayList<>();
+      for (int position : positions) {
+        conditions.add(Condition.of((OperandNode) kept.get(position)));
+      }
+      if (conjunction && !Condition.satisfiable(conditions)) {
+        simplifications.add("never true: " + describe(conditions, List.of(), op));
+        return constant(false);
+      }
+
+      // Drop a condition implied by (AND) or implying (OR) another one of the
+      // group; of two equivalent conditions the first is kept
+      List<Condition> remaining = new ArrayList<>();
+      for (int i = 0; i < conditions.size(); i++) {
+        Condition a = conditions.get(i);
+        boolean redundant = false;
+        for (int j = 0; j < conditions.size() && !redundant; j++) {
+          if (j == i) {
+            continue;
+          }
+          Condition b = conditions.get(j);
+          boolean covers = conjunction ? b.subsetOf(a) : a.subsetOf(b);
+          boolean equivalent = a.subsetOf(b) && b.subsetOf(a);
+          redundant = covers && (!equivalent || j < i);
+        }
+        if (!redundant) {
+          remaining.add(a);
+        }
+      }
+      if (remaining.size() == conditions.size()) {
+        continue;
+      }
+      simplifications.add(describe(conditions, remaining, op));
+      // The group is evaluated where its first condition was
+      dropped.addAll(positions);
+      List<ASTNode> replacement = new ArrayList<>();
+      for (Condition condition : remaining) {
+        replacement.add(condition.node);
+      }
+      replacements.put(positions.get(0), replacement);
+    }
+
+    List<ASTNode> result = new ArrayList<>();
+    for (int i = 0; i < kept.size(); i++) {
+      List<ASTNode> replacement = replacements.get(i);
+      if (replacement != null) {
+        result.addAll(replacement);
+      } else if (!dropped.contains(i)) {
+        result.add(kept.get(i));
+      }
+    }
+    if (result.isEmpty()) {
+      return constant(conjunction);
+    }
+    if (result.size() == 1) {
+      return result.get(0);
+    }
+    return changed(node, result) ? new OperatorNode(node.getOperator(), result) : node;
+  }
+
+  private static boolean changed(OperatorNode node, List<ASTNode> children) {
+    List<ASTNode> original = node.getChildren();
+    if (original.size() != children.size()) {
+      return true;
+    }
+    for (int i = 0; i < children.size(); i++) {
+      if (original.get(i) != children.get(i)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static String describe(List<Condition> before, List<Condition> after, LogicalOperator op) {
+    String joined = join(before, op);
+    return after.isEmpty() ? joined : joined + " -> " + join(after, op);
+  }
+
+  private static String join(List<Condition> conditions, LogicalOperator op) {
+    StringJoiner joiner = new StringJoiner(" " + op + " ");
+    for (Condition condition : conditions) {
+      OperandNode node = condition.node;
+      joiner.add(node.getAttribute() + " " + node.getOperator() + " " + node.getValue());
+    }
+    return joiner.toString();
+  }
+
+  private static int countConditions(ASTNode root) {
+    Set<ASTNode> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+    Deque<ASTNode> pending = new ArrayDeque<>();
+    pending.push(root);
+    int count = 0;
+    while (!pending.isEmpty()) {
+      ASTNode node = pending.pop();
+      if (!seen.add(node)) {
+        continue;
+      }
+      if (node instanceof OperandNode) {
+        count++;
+      } else if (node instanceof OperatorNode operatorNode) {
+        operatorNode.getChildren().forEach(pending::push);
+      }
+    }
+    return count;
+  }
+
+  /**
+   * The set of attribute values a condition accepts, following OperandNode:
+   * a numeric condition, BETWEEN included, accepts an interval of doubles,
+   * or for != every number (NaN included) but one; a string condition accepts
+   * one string or every string but one. IN and NOT IN are left alone.
+   */
+  private static final class Condition {
+
+    final OperandNode node;
+    final boolean numeric;
+    final boolean notEqual;
+    // Numeric interval, unused for != and strings
+    final double low;
+    final boolean lowInclusive;
+    final double high;
+    final boolean highInclusive;
+    // The != number, or the string value
+    final double point;
+    final String string;
+
+    private Condition(
+      OperandNode node,
+      boolean numeric,
+      boolean notEqual,
+      double low,
+      boolean lowInclusive,
+      double high,
+      boolean highInclusive,
+      double point,
+      String string
+    ) {
+      this.node = node;
+      this.numeric = numeric;
+      this.notEqual = notEqual;
+      this.low = low;
+      this.lowInclusive = lowInclusive;
+      this.high = high;
+      this.highInclusive = highInclusive;
+      this.point = point;
+      this.string = string;
+    }
+
+    /** Null for conditions that are left alone, e.g. unknown operators or NaN. */
+    static Condition of(OperandNode node) {
+      String operator = node.getOperator();
+      if (operator == null) {
+        return null;
+      }
+      double inf = Double.POSITIVE_INFINITY;
+      if (
+        OperandNode.BETWEEN.equals(operator) &&
+        node.getValue() instanceof List<?> bounds &&
+        bounds.size() == 2 &&
+        bounds.get(0) instanceof Number low &&
+        bounds.get(1) instanceof Number high
+      ) {
+        double l = low.doubleValue();
+        double h = high.doubleValue();
+        if (Double.isNaN(l) || Double.isNaN(h)) {
+          return null;
+        }
+        return new Condition(node, true, false, l, true, h, true, 0, null);
+      }
+      if (node.getValue() instanceof Number number) {
+        double v = number.doubleValue();
+        if (Double.isNaN(v)) {
+          return null;
+        }
+        switch (operator) {
+          case ">":
+            return new Condition(node, true, false, v, false, inf, false, 0, null);
+          case ">=":
+            return new Condition(node, true, false, v, true, inf, false, 0, null);
+          case "<":
+            return new Condition(node, true, false, -inf, false, v, false, 0, null);
+          case "<=":
+            return new Condition(node, true, false, -inf, false, v, true, 0, null);
+          case "=":
+          case "==":
+            return new Condition(node, true, false, v, true, v, true, 0, null);
+          case "!=":
+            return new Condition(node, true, true, 0, false, 0, false, v, null);
+          default:
+            return null;
+        }
+      }
+      if (node.getValue() instanceof String value) {
+        switch (operator) {
+          case "=":
+          case "==":
+            return new Condition(node, false, false, 0, false, 0, false, 0, value);
+          case "!=":
+            return new Condition(node, false, true, 0, false, 0, false, 0, value);
+          default:
+            return null;
+        }
+      }
+      return null;
+    }
+
+    String groupKey() {
+      return (numeric ? "n:" : "s:") + node.getAttribute();
+    }
+
+    boolean subsetOf(Condition other) {
+      if (!numeric) {
+        if (notEqual) {
+          return other.notEqual && string.equals(other.string);
+        }
+        return other.notEqual != string.equals(other.string);
+      }
+      if (notEqual) {
+        return other.notEqual && point == other.point;
+      }
+      if (other.notEqual) {
+        return !contains(other.point);
+      }
+      boolean lowCovered = low > other.low || (low == other.low && (other.lowInclusive || !lowInclusive));
+      boolean highCovered = high < other.high || (high == other.high && (other.highInclusive || !highInclusive));
+      return isEmpty() || (lowCovered && highCovered);
+    }
+
+    private boolean contains(double value) {
+      return (
+        (value > low || (value == low && lowInclusive)) &&
+        (value < high || (value == high && highInclusive))
+      );
+    }
+
+    private boolean isEmpty() {
+      return low > high || (low == high && !(lowInclusive && highInclusive));
+    }
+
+    /** Whether some value satisfies every condition of one group. */
+    static boolean satisfiable(List<Condition> conditions) {
+      Condition first = conditions.get(0);
+      if (!first.numeric) {
+        String required = null;
+        for (Condition condition : conditions) {
+          if (!condition.notEqual) {
+            if (required != null && !required.equals(condition.string)) {
+              return false;
+            }
+            required = condition.string;
+          }
+        }
+        for (Condition condition : conditions) {
+          if (condition.notEqual && condition.string.equals(required)) {
+            return false;
+          }
+        }
+        return true;
+      }
+
+      double low = Double.NEGATIVE_INFINITY;
+      boolean lowInclusive = false;
+      double high = Double.POSITIVE_INFINITY;
+      boolean highInclusive = false;
+      boolean bounded = false;
+      for (Condition condition : conditions) {
+        if (condition.notEqual) {
+          continue;
+        }
+        bounded = true;
+        if (condition.low > low || (condition.low == low && !condition.lowInclusive)) {
+          low = condition.low;
+          lowInclusive = condition.lowInclusive;
+        }
+        if (condition.high < high || (condition.high == high && !condition.highInclusive)) {
+          high = condition.high;
+          highInclusive = condition.highInclusive;
+        }
+      }
+      if (!bounded) {
+        return true; // Only != conditions, which a NaN satisfies
+      }
+      if (low < high) {
+        return true; // Finitely many excluded points cannot empty an interval
+      }
+      if (low > high || !lowInclusive || !highInclusive) {
+        return false;
+      }
+      for (Condition condition : conditions) {
+        if (condition.notEqual && condition.point == low) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+}
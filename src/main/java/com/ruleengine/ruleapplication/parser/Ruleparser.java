@@ -6,157 +6,356 @@ import com.ruleengine.ruleapplication.exception.RuleParsingException;
 import com.ruleengine.ruleapplication.model.ASTNode;
 import com.ruleengine.ruleapplication.model.OperandNode;
 import com.ruleengine.ruleapplication.model.OperatorNode;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 
 
+/**
+ * Parses rule strings such as "(age > 30 AND department = 'Sales') OR x = 1"
+ * into OperandNode/OperatorNode trees. AND binds tighter than OR and both are
+ * left-associative. Besides the comparators a condition can be
+ * "attr IN (v1, v2, ...)", "attr NOT IN (...)" or "attr BETWEEN low AND high";
+ * IN, NOT and BETWEEN are only keywords right after an attribute.
+ *
+ * The lexer walks the input one character at a time and only allocates the
+ * text of attributes and values. The parser is an operator-precedence parser
+ * with explicit stacks, so neither long chains nor deep nesting recurse.
+ */
 public class Ruleparser {
 
-  private List<Token> tokens;
-  private int currentTokenIndex;
+  // Operator stack entries
+  private static final int OPEN_PAREN = 0;
+  private static final int OR = 1;
+  private static final int AND = 2;
+
+  private String input;
+  private int position;
+
+  // Current token
+  private Token.TokenType tokenType;
+  private String tokenText;
 
   public ASTNode parse(String ruleString) throws RuleParsingException {
-    this.tokens = tokenize(ruleString);
-    this.currentTokenIndex = 0;
-    return parseExpression();
-  }
+    this.input = ruleString;
+    this.position = 0;
 
-  private List<Token> tokenize(String ruleString) throws RuleParsingException {
-    List<Token> tokens = new ArrayList<>();
-    String regex = "\\s*(\\(|\\)|AND|OR|[><=!]=?|\\w+|'[^']*'|\"[^\"]*\")\\s*";
-    Pattern pattern = Pattern.compile(regex, Pattern.CASE_INSENSITIVE);
-    Matcher matcher = pattern.matcher(ruleString);
+    Deque<ASTNode> operands = new ArrayDeque<>();
+    int[] operators = new int[16];
+    int operatorCount = 0;
+    int openParens = 0;
+    boolean expectOperand = true;
 
-    while (matcher.find()) {
-      String tokenValue = matcher.group(1).trim();
-      Token token = createToken(tokenValue);
-      tokens.add(token);
-    }
+    while (true) {
+      nextToken();
 
-    return tokens;
-  }
+      if (expectOperand) {
+        if (tokenType == null) {
+          throw new RuleParsingException("Unexpected end of rule");
+        }
+        if (tokenType == Token.TokenType.PARENTHESIS && tokenText.equals("(")) {
+          if (operatorCount == operators.length) {
+            operators = Arrays.copyOf(operators, operatorCount * 2);
+          }
+          operators[operatorCount++] = OPEN_PAREN;
+          openParens++;
+        } else if (tokenType == Token.TokenType.ATTRIBUTE) {
+          operands.push(parseCondition());
+          expectOperand = false;
+        } else {
+          throw new RuleParsingException("Unexpected token: " + tokenText);
+        }
+        continue;
+      }
 
-  private Token createToken(String tokenValue) throws RuleParsingException {
-    if (
-      tokenValue.equalsIgnoreCase("AND") || tokenValue.equalsIgnoreCase("OR")
-    ) {
-      return new Token(Token.TokenType.OPERATOR, tokenValue.toUpperCase());
-    } else if (tokenValue.equals("(") || tokenValue.equals(")")) {
-      return new Token(Token.TokenType.PARENTHESIS, tokenValue);
-    } else if (tokenValue.matches("[><=!]=?")) {
-      return new Token(Token.TokenType.COMPARATOR, tokenValue);
-    } else if (
-      tokenValue.matches("'[^']*'") || tokenValue.matches("\"[^\"]*\"")
-    ) {
-      return new Token(
-        Token.TokenType.VALUE,
-        tokenValue.substring(1, tokenValue.length() - 1)
-      );
-    } else if (tokenValue.matches("\\w+")) {
-      return new Token(Token.TokenType.ATTRIBUTE, tokenValue);
-    } else {
-      throw new RuleParsingException("Unknown token: " + tokenValue);
+      if (tokenType == null) {
+        break;
+      }
+      if (tokenType == Token.TokenType.OPERATOR) {
+        int operator = tokenText.equals("AND") ? AND : OR;
+        // Left-associative: reduce everything of equal or higher precedence
+        while (operatorCount > 0 && operators[operatorCount - 1] >= operator) {
+          reduce(operands, operators[--operatorCount]);
+        }
+        if (operatorCount == operators.length) {
+          operators = Arrays.copyOf(operators, operatorCount * 2);
+        }
+        operators[operatorCount++] = operator;
+        expectOperand = true;
+      } else if (
+        tokenType == Token.TokenType.PARENTHESIS &&
+        tokenText.equals(")") &&
+        openParens > 0
+      ) {
+        while (operators[operatorCount - 1] != OPEN_PAREN) {
+          reduce(operands, operators[--operatorCount]);
+        }
+        operatorCount--;
+        openParens--;
+      } else if (openParens > 0) {
+        throw new RuleParsingException("Missing closing parenthesis");
+      } else {
+        throw new RuleParsingException("Unexpected token: " + tokenText);
+      }
     }
-  }
 
-  private ASTNode parseExpression() throws RuleParsingException {
-    ASTNode node = parseTerm();
-
-    while (
-      currentTokenIndex < tokens.size() &&
-      tokens.get(currentTokenIndex).getType() == Token.TokenType.OPERATOR &&
-      tokens.get(currentTokenIndex).getValue().equals("OR")
-    ) {
-      Token operatorToken = tokens.get(currentTokenIndex++);
-      ASTNode rightNode = parseTerm();
-      node =  new OperatorNode(operatorToken.getValue(), node, rightNode); //error
+    if (openParens > 0) {
+      throw new RuleParsingException("Missing closing parenthesis");
     }
+    while (operatorCount > 0) {
+      reduce(operands, operators[--operatorCount]);
+    }
+    return operands.pop();
+  }
 
-    return node;
+  private void reduce(Deque<ASTNode> operands, int operator) {
+    ASTNode right = operands.pop();
+    ASTNode left = operands.pop();
+    operands.push(new OperatorNode(operator == AND ? "AND" : "OR", left, right));
   }
 
-  private ASTNode parseTerm() throws RuleParsingException {
-    ASTNode node = parseFactor();
+  private ASTNode parseCondition() throws RuleParsingException {
+    String attribute = tokenText;
 
-    while (
-      currentTokenIndex < tokens.size() &&
-      tokens.get(currentTokenIndex).getType() == Token.TokenType.OPERATOR &&
-      tokens.get(currentTokenIndex).getValue().equals("AND")
-    ) {
-      Token operatorToken = tokens.get(currentTokenIndex++);
-      ASTNode rightNode = parseFactor();
-      node = new OperatorNode(operatorToken.getValue(), node, rightNode); //error
+    nextToken();
+    if (tokenType == null) {
+      throw new RuleParsingException("Expected comparator after attribute");
+    }
+    if (isKeyword("IN")) {
+      return new OperandNode(attribute, OperandNode.IN, parseList());
+    }
+    if (isKeyword("NOT")) {
+      nextToken();
+      if (!isKeyword("IN")) {
+        throw new RuleParsingException("Expected IN after NOT");
+      }
+      return new OperandNode(attribute, OperandNode.NOT_IN, parseList());
+    }
+    if (isKeyword("BETWEEN")) {
+      Object low = parseListValue();
+      nextToken();
+      if (tokenType != Token.TokenType.OPERATOR || !tokenText.equals("AND")) {
+        throw new RuleParsingException("Expected AND in BETWEEN");
+      }
+      Object high = parseListValue();
+      if (!(low instanceof Double) || !(high instanceof Double)) {
+        throw new RuleParsingException("BETWEEN bounds must be numbers, found: " + low + " AND " + high);
+      }
+      return new OperandNode(attribute, OperandNode.BETWEEN, List.of(low, high));
+    }
+    if (tokenType != Token.TokenType.COMPARATOR) {
+      throw new RuleParsingException("Expected comparator, found: " + tokenText);
     }
+    String comparator = tokenText;
 
-    return node;
+    nextToken();
+    if (tokenType == null) {
+      throw new RuleParsingException("Expected value after comparator");
+    }
+    if (
+      tokenType != Token.TokenType.VALUE &&
+      tokenType != Token.TokenType.ATTRIBUTE
+    ) {
+      throw new RuleParsingException("Expected value, found: " + tokenText);
+    }
+    return new OperandNode(attribute, comparator, parseValue(tokenText));
   }
 
-  private ASTNode parseFactor() throws RuleParsingException {
-    Token token = tokens.get(currentTokenIndex);
+  // "(v1, v2, ...)" after IN; at least one value
+  private List<Object> parseList() throws RuleParsingException {
+    nextToken();
+    if (tokenType != Token.TokenType.PARENTHESIS || !tokenText.equals("(")) {
+      throw new RuleParsingException("Expected ( after IN");
+    }
+    List<Object> values = new ArrayList<>();
+    while (true) {
+      values.add(parseListValue());
+      nextToken();
+      if (tokenType == Token.TokenType.PARENTHESIS && tokenText.equals(")")) {
+        return List.copyOf(values);
+      }
+      if (tokenType != Token.TokenType.COMMA) {
+        throw new RuleParsingException("Expected , or ) in value list");
+      }
+    }
+  }
 
+  private Object parseListValue() throws RuleParsingException {
+    nextToken();
+    if (tokenType == null) {
+      throw new RuleParsingException("Expected value");
+    }
     if (
-      token.getType() == Token.TokenType.PARENTHESIS &&
-      token.getValue().equals("(")
+      tokenType != Token.TokenType.VALUE &&
+      tokenType != Token.TokenType.ATTRIBUTE
     ) {
-      currentTokenIndex++;
-      ASTNode node = parseExpression();
-      if (
-        currentTokenIndex >= tokens.size() ||
-        !tokens.get(currentTokenIndex).getValue().equals(")")
-      ) {
-        throw new RuleParsingException("Missing closing parenthesis");
-      }
-      currentTokenIndex++;
-      return node;
-    } else if (token.getType() == Token.TokenType.ATTRIBUTE) {
-      return parseCondition();
-    } else {
-      throw new RuleParsingException("Unexpected token: " + token.getValue());
+      throw new RuleParsingException("Expected value, found: " + tokenText);
     }
+    return parseValue(tokenText);
   }
 
-  private ASTNode parseCondition() throws RuleParsingException {
-    Token attributeToken = tokens.get(currentTokenIndex++);
-    if (currentTokenIndex >= tokens.size()) {
-      throw new RuleParsingException("Expected comparator after attribute");
+  private boolean isKeyword(String keyword) {
+    return tokenType == Token.TokenType.ATTRIBUTE && tokenText.equalsIgnoreCase(keyword);
+  }
+
+  // Numbers become Doubles, anything else stays a String. Only text that can
+  // start a number reaches Double.parseDouble, which keeps NumberFormatException
+  // (and its stack trace) off the path of ordinary string values.
+  private static Object parseValue(String value) {
+    int i = 0;
+    while (i < value.length() && value.charAt(i) <= ' ') {
+      i++; // Double.parseDouble ignores the same leading whitespace
     }
+    if (i < value.length() && (value.charAt(i) == '+' || value.charAt(i) == '-')) {
+      i++;
+    }
+    if (i == value.length()) {
+      return value;
+    }
+    char c = value.charAt(i);
+    if (!isDigit(c) && c != '.' && c != 'N' && c != 'I') {
+      return value;
+    }
+    try {
+      return Double.parseDouble(value);
+    } catch (NumberFormatException e) {
+      return value;
+    }
+  }
 
-    Token comparatorToken = tokens.get(currentTokenIndex++);
-    if (comparatorToken.getType() != Token.TokenType.COMPARATOR) {
-      throw new RuleParsingException(
-        "Expected comparator, found: " + comparatorToken.getValue()
-      );
+  /**
+   * Reads the next token into tokenType/tokenText; tokenType is null at the
+   * end of the input.
+   */
+  private void nextToken() throws RuleParsingException {
+    int length = input.length();
+    while (position < length && isWhitespace(input.charAt(position))) {
+      position++;
+    }
+    if (position == length) {
+      tokenType = null;
+      tokenText = null;
+      return;
     }
 
-    if (currentTokenIndex >= tokens.size()) {
-      throw new RuleParsingException("Expected value after comparator");
+    int start = position;
+    char c = input.charAt(position);
+    switch (c) {
+      case '(':
+        position++;
+        tokenType = Token.TokenType.PARENTHESIS;
+        tokenText = "(";
+        return;
+      case ')':
+        position++;
+        tokenType = Token.TokenType.PARENTHESIS;
+        tokenText = ")";
+        return;
+      case ',':
+        position++;
+        tokenType = Token.TokenType.COMMA;
+        tokenText = ",";
+        return;
+      case '>':
+      case '<':
+      case '=':
+      case '!':
+        position++;
+        if (position < length && input.charAt(position) == '=') {
+          position++;
+        }
+        tokenType = Token.TokenType.COMPARATOR;
+        tokenText = comparator(c, position - start == 2);
+        return;
+      case '\'':
+      case '"':
+        int end = input.indexOf(c, start + 1);
+        if (end < 0) {
+          throw new RuleParsingException("Unterminated string literal: " + input.substring(start));
+        }
+        position = end + 1;
+        tokenType = Token.TokenType.VALUE;
+        tokenText = input.substring(start + 1, end);
+        return;
+      default:
+        break;
     }
 
-    Token valueToken = tokens.get(currentTokenIndex++);
+    if (c == '-' && position + 1 < length && isDigit(input.charAt(position + 1))) {
+      position++; // Negative number
+    } else if (!isWordChar(c)) {
+      throw new RuleParsingException("Unknown token: " + c);
+    }
+    while (position < length && isWordChar(input.charAt(position))) {
+      position++;
+    }
+    // Decimal part of a number such as 30.5
     if (
-      valueToken.getType() != Token.TokenType.VALUE &&
-      valueToken.getType() != Token.TokenType.ATTRIBUTE
+      position + 1 < length &&
+      input.charAt(position) == '.' &&
+      isDigit(input.charAt(position + 1)) &&
+      isNumber(start, position)
     ) {
-      throw new RuleParsingException(
-        "Expected value, found: " + valueToken.getValue()
-      );
+      position++;
+      while (position < length && isWordChar(input.charAt(position))) {
+        position++;
+      }
     }
 
-    String attribute = attributeToken.getValue();
-    String comparator = comparatorToken.getValue();
-    String value = valueToken.getValue();
+    int wordLength = position - start;
+    if (wordLength == 3 && input.regionMatches(true, start, "AND", 0, 3)) {
+      tokenType = Token.TokenType.OPERATOR;
+      tokenText = "AND";
+    } else if (wordLength == 2 && input.regionMatches(true, start, "OR", 0, 2)) {
+      tokenType = Token.TokenType.OPERATOR;
+      tokenText = "OR";
+    } else {
+      // Unquoted values are lexed like attributes, as they always were
+      tokenType = Token.TokenType.ATTRIBUTE;
+      tokenText = input.substring(start, position);
+    }
+  }
 
-    Object valueObject;
-    try {
-      valueObject = Double.parseDouble(value);
-    } catch (NumberFormatException e) {
-      valueObject = value;
+  private static String comparator(char c, boolean withEquals) {
+    switch (c) {
+      case '>':
+        return withEquals ? ">=" : ">";
+      case '<':
+        return withEquals ? "<=" : "<";
+      case '=':
+        return withEquals ? "==" : "=";
+      default:
+        return withEquals ? "!=" : "!";
+    }
+  }
+
+  private boolean isNumber(int start, int end) {
+    for (int i = input.charAt(start) == '-' ? start + 1 : start; i < end; i++) {
+      if (!isDigit(input.charAt(i))) {
+        return false;
+      }
     }
+    return true;
+  }
 
-    return new OperandNode(attribute, comparator, valueObject);// error
+  // Same character classes as the regex \s and \w
+  private static boolean isWhitespace(char c) {
+    return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f' || c == '\u000B';
   }
-}
 
+  private static boolean isWordChar(char c) {
+    return (
+      (c >= 'a' && c <= 'z') ||
+      (c >= 'A' && c <= 'Z') ||
+      (c >= '0' && c <= '9') ||
+      c == '_'
+    );
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+}
@@ -18,5 +18,6 @@ public class Token {
     ATTRIBUTE,
     VALUE,
     LOGICAL,
+    COMMA,
   }
 }
\ No newline at end of file
@@ -3,10 +3,14 @@
 package com.ruleengine.ruleapplication.repository;
 
 import com.ruleengine.ruleapplication.entity.Rule;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -16,5 +20,19 @@ public interface RuleRepository extends JpaRepository<Rule, UUID> {
     List<Rule> findAllByNameIn(List<String> ruleNames);
     Optional<Rule> findByName(String name);
     boolean existsByName(String name); 
+
+    // Which of the given names are taken, in one query
+    @Query("select r.name from Rule r where r.name in :names")
+    List<String> findExistingNames(@Param("names") Collection<String> names);
+
+    // Rows written since a point in time, and every rule name, to reconcile the startup snapshot
+    List<Rule> findByUpdatedAtGreaterThanEqual(LocalDateTime since);
+
+    @Query("select r.name from Rule r")
+    List<String> findAllNames();
+
+    // Rows still holding only the legacy ast_json form
+    @Query("select r.id from Rule r where r.astBinary is null and r.astJson is not null")
+    List<UUID> findIdsWithLegacyAst();
     
 }
@@ -0,0 +1,6 @@
+package com.ruleengine.ruleapplication.repository;
+
+import java.time.LocalDateTime;
+
+/** Catalog view of a rule, read without the AST columns. */
+public record RuleSummary(String name, String ruleString, LocalDateTime updatedAt) {}
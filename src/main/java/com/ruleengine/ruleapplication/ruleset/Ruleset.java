@@ -0,0 +1,110 @@
+package com.ruleengine.ruleapplication.ruleset;
+
+import com.ruleengine.ruleapplication.model.ASTNode;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Immutable set of all rule trees at one version. A change produces a new
+ * Ruleset with the next version and leaves this one untouched, so a reader
+ * that took a Ruleset evaluates against exactly that version however many
+ * changes are published meanwhile.
+ *
+ * Rules are spread over a fixed number of hash shards and a change copies
+ * only the shards it touches, so publishing one rule costs about
+ * size / SHARDS entries instead of a copy of the whole set.
+ */
+public final class Ruleset {
+
+  private static final int SHARDS = 64;
+
+  /** A rule, with the updated_at of its row and the version that published it. */
+  public record Entry(ASTNode ast, LocalDateTime updatedAt, long version) {}
+
+  /** A new tree for a rule, or its removal when ast is null. */
+  public record Change(String ruleName, ASTNode ast, LocalDateTime updatedAt) {}
+
+  private static final Ruleset EMPTY = new Ruleset(0, emptyShards(), 0, null);
+
+  private final long version;
+  private final Map<String, Entry>[] shards;
+  private final int size;
+  // Newest updated_at seen, where polling for changes of other nodes resumes
+  private final LocalDateTime newestUpdate;
+
+  private Ruleset(long version, Map<String, Entry>[] shards, int size, LocalDateTime newestUpdate) {
+    this.version = version;
+    this.shards = shards;
+    this.size = size;
+    this.newestUpdate = newestUpdate;
+  }
+
+  public static Ruleset empty() {
+    return EMPTY;
+  }
+
+  public long version() {
+    return version;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public LocalDateTime newestUpdate() {
+    return newestUpdate;
+  }
+
+  public Entry get(String ruleName) {
+    return shards[shardOf(ruleName)].get(ruleName);
+  }
+
+  public void forEach(BiConsumer<String, Entry> action) {
+    for (Map<String, Entry> shard : shards) {
+      shard.forEach(action);
+    }
+  }
+
+  /** This ruleset with the changes applied, at the given version. */
+  public Ruleset apply(long nextVersion, List<Change> changes) {
+    Map<String, Entry>[] next = shards.clone();
+    boolean[] copied = new boolean[SHARDS];
+    int nextSize = size;
+    LocalDateTime nextNewest = newestUpdate;
+    for (Change change : changes) {
+      int shard = shardOf(change.ruleName());
+      if (!copied[shard]) {
+        next[shard] = new HashMap<>(next[shard]);
+        copied[shard] = true;
+      }
+      Entry previous = change.ast() == null
+        ? next[shard].remove(change.ruleName())
+        : next[shard].put(change.ruleName(), new Entry(change.ast(), change.updatedAt(), nextVersion));
+      if (previous == null && change.ast() != null) {
+        nextSize++;
+      } else if (previous != null && change.ast() == null) {
+        nextSize--;
+      }
+      if (change.updatedAt() != null && (nextNewest == null || change.updatedAt().isAfter(nextNewest))) {
+        nextNewest = change.updatedAt();
+      }
+    }
+    return new Ruleset(nextVersion, next, nextSize, nextNewest);
+  }
+
+  private static int shardOf(String ruleName) {
+    int h = ruleName.hashCode();
+    return (h ^ (h >>> 16)) & (SHARDS - 1);
+  }
+
+  private static Map<String, Entry>[] emptyShards() {
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    Map<String, Entry>[] shards = new Map[SHARDS];
+    Arrays.fill(shards, Map.of());
+    return shards;
+  }
+}
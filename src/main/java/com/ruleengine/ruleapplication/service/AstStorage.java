@@ -0,0 +1,57 @@
+package com.ruleengine.ruleapplication.service;
+
+import com.fasterxml.jackson.core.StreamReadConstraints;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ruleengine.ruleapplication.codec.AstCodec;
+import com.ruleengine.ruleapplication.entity.Rule;
+import com.ruleengine.ruleapplication.model.ASTNode;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reads and writes the stored AST of a Rule. New trees are written in the
+ * compact AstCodec form; rows that still only have the legacy ast_json are
+ * read through Jackson until AstStorageMigration converts them. Jackson
+ * reads recursively, so legacy JSON nested deeper than MAX_LEGACY_JSON_DEPTH
+ * is refused with an error instead of overflowing the thread stack.
+ */
+@Component
+public class AstStorage {
+
+  // JSON levels, one or two per tree level
+  static final int MAX_LEGACY_JSON_DEPTH = 500;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  private ObjectMapper legacyReader;
+
+  @PostConstruct
+  void init() {
+    legacyReader = objectMapper.copy();
+    legacyReader.getFactory().setStreamReadConstraints(
+      StreamReadConstraints.builder().maxNestingDepth(MAX_LEGACY_JSON_DEPTH).build()
+    );
+  }
+
+  public ASTNode read(Rule rule) {
+    if (rule.getAstBinary() != null) {
+      return AstCodec.decode(rule.getAstBinary());
+    }
+    if (rule.getAstJson() != null) {
+      try {
+        return legacyReader.readValue(rule.getAstJson(), ASTNode.class);
+      } catch (Exception e) {
+        throw new IllegalStateException("Stored AST is not readable for rule: " + rule.getName(), e);
+      }
+    }
+    throw new IllegalStateException("Rule has no stored AST: " + rule.getName());
+  }
+
+  public void write(Rule rule, ASTNode ast) {
+    rule.setAstBinary(AstCodec.encode(ast));
+    rule.setAstJson(null);
+    rule.setAst(ast);
+  }
+}
@@ -0,0 +1,65 @@
+package com.ruleengine.ruleapplication.service;
+
+import com.ruleengine.ruleapplication.entity.Rule;
+import com.ruleengine.ruleapplication.repository.RuleRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Converts rows that only have the legacy ast_json column to ast_binary at
+ * startup, in chunks. Rows that fail to convert are logged and left as they
+ * are; AstStorage keeps reading them from JSON.
+ */
+@Component
+public class AstStorageMigration implements ApplicationRunner {
+
+  private static final Logger log = LoggerFactory.getLogger(AstStorageMigration.class);
+
+  @Autowired
+  private RuleRepository ruleRepository;
+
+  @Autowired
+  private AstStorage astStorage;
+
+  @Value("${rule.storage.migrate-on-startup:true}")
+  private boolean enabled;
+
+  @Value("${rule.storage.migration-chunk-size:500}")
+  private int chunkSize;
+
+  @Override
+  public void run(ApplicationArguments args) {
+    if (!enabled) {
+      return;
+    }
+    List<UUID> ids = ruleRepository.findIdsWithLegacyAst();
+    if (ids.isEmpty()) {
+      return;
+    }
+
+    int migrated = 0;
+    for (int from = 0; from < ids.size(); from += chunkSize) {
+      List<UUID> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+      List<Rule> converted = new ArrayList<>(chunk.size());
+      for (Rule rule : ruleRepository.findAllById(chunk)) {
+        try {
+          astStorage.write(rule, astStorage.read(rule));
+          converted.add(rule);
+        } catch (RuntimeException e) {
+          log.warn("Could not migrate AST of rule {}", rule.getName(), e);
+        }
+      }
+      ruleRepository.saveAll(converted);
+      migrated += converted.size();
+    }
+    log.info("Migrated {} of {} legacy ast_json rules to ast_binary", migrated, ids.size());
+  }
+}
@@ -1,38 +1,293 @@
 package com.ruleengine.ruleapplication.service;
 
-
-
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ruleengine.ruleapplication.entity.Rule;
+import com.ruleengine.ruleapplication.exception.RuleBudgetExceededException;
+import com.ruleengine.ruleapplication.metrics.RuleMetrics;
 import com.ruleengine.ruleapplication.model.ASTNode;
+import com.ruleengine.ruleapplication.model.AdaptiveStats;
+import com.ruleengine.ruleapplication.model.OperandNode;
+import com.ruleengine.ruleapplication.model.OperatorNode;
+import com.ruleengine.ruleapplication.model.RuleExplainer;
 import com.ruleengine.ruleapplication.repository.RuleRepository;
+import com.ruleengine.ruleapplication.ruleset.Ruleset;
+import com.ruleengine.ruleapplication.slot.CompiledRule;
+import com.ruleengine.ruleapplication.stream.NdjsonEvaluator;
+import com.ruleengine.ruleapplication.vector.ColumnarBatch;
+import com.ruleengine.ruleapplication.vector.VectorizedEvaluator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.stream.IntStream;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.stereotype.Service;
 
-
 @Service
 public class EvaluationService {
 
   @Autowired
   private RuleRepository ruleRepository;
 
+  @Autowired
+  private AstStorage astStorage;
+
+  @Autowired
+  private RuleCache ruleCache;
+
+  @Autowired
+  private ResultCache resultCache;
+
+  @Autowired
+  private RulesetService rulesetService;
+
   @Autowired
   private ObjectMapper objectMapper;
 
+  @Autowired
+  private RuleMetrics ruleMetrics;
+
+  @Autowired
+  private RuleBudget ruleBudget;
+
+  // Platform thread pool, or virtual threads with spring.threads.virtual.enabled
+  @Autowired
+  @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+  private AsyncTaskExecutor taskExecutor;
+
+  private final Semaphore loadPermits;
+
+  public EvaluationService(@Value("${rule.datasource.max-concurrent-loads:8}") int maxConcurrentLoads) {
+    this.loadPermits = new Semaphore(maxConcurrentLoads, true);
+  }
+
+  /** A rule's tree and the version of the ruleset it was taken from, -1 with rule.ruleset.enabled=false. */
+  public record ResolvedRule(String name, ASTNode ast, long rulesetVersion) {}
+
+  public record Evaluation(boolean result, long rulesetVersion) {}
+
+  /**
+   * Looks a rule up in the current ruleset, or in the rule cache when the
+   * ruleset is disabled. Throws IllegalArgumentException for a missing rule.
+   */
+  public ResolvedRule resolve(String ruleName) {
+    if (!rulesetService.isEnabled()) {
+      return new ResolvedRule(ruleName, ruleCache.getOrLoad(ruleName, this::loadAst), -1);
+    }
+    Ruleset ruleset = rulesetService.current();
+    Ruleset.Entry entry = ruleset.get(ruleName);
+    if (entry == null) {
+      // Not published here yet, e.g. created on another node since the last poll
+      ruleset = rulesetService.publishLoaded(loadRule(ruleName));
+      entry = ruleset.get(ruleName);
+      if (entry == null) {
+        throw new IllegalArgumentException("Rule not found");
+      }
+    }
+    return new ResolvedRule(ruleName, entry.ast(), ruleset.version());
+  }
+
   public boolean evaluateRuleByName(String ruleName, Map<String, Object> data) {
+    return evaluateRule(ruleName, data).result();
+  }
+
+  public Evaluation evaluateRule(String ruleName, Map<String, Object> data) {
+    boolean timed = ruleMetrics.sample();
+    ResolvedRule rule;
     try {
-        Rule rule = ruleRepository.findByName(ruleName) // You'll need to implement this method in the repository
-            .orElseThrow(() -> new IllegalArgumentException("Rule not found"));
-
-        ASTNode astNode = objectMapper.readValue(
-            rule.getAstJson(),
-            ASTNode.class
-        );
-        return astNode.evaluate(data);
+      long start = timed ? System.nanoTime() : 0;
+      rule = resolve(ruleName);
+      if (timed) {
+        ruleMetrics.recordLoad(ruleName, System.nanoTime() - start);
+      }
+    } catch (IllegalArgumentException e) {
+      ruleMetrics.recordNotFound();
+      throw new RuntimeException("Failed to evaluate rule", e);
     } catch (Exception e) {
-        throw new RuntimeException("Failed to evaluate rule", e);
+      ruleMetrics.recordError(ruleName, e);
+      throw new RuntimeException("Failed to evaluate rule", e);
     }
-}
 
-}
\ No newline at end of file
+    try {
+      long start = timed ? System.nanoTime() : 0;
+      ruleBudget.check(rule.ast());
+      boolean result = resultCache.evaluate(ruleName, rule.ast(), data, ruleBudget.maxEvaluationNanos());
+      if (timed) {
+        ruleMetrics.recordEvaluate(ruleName, System.nanoTime() - start);
+      }
+      ruleMetrics.recordResult(ruleName, result);
+      return new Evaluation(result, rule.rulesetVersion());
+    } catch (RuleBudgetExceededException e) {
+      // Rejected, not failed: passed on as is for the controller to answer
+      ruleMetrics.recordError(ruleName, e);
+      throw e;
+    } catch (Exception e) {
+      ruleMetrics.recordError(ruleName, e);
+      throw new RuntimeException("Failed to evaluate rule", e);
+    }
+  }
+
+  /**
+   * Evaluates the rule with RuleExplainer and returns the result together with
+   * the trace of every node. Explain requests bypass the result cache and are
+   * not recorded in the metrics; an evaluation error is reported in the body.
+   */
+  public Map<String, Object> explainRule(String ruleName, Map<String, Object> data) {
+    ResolvedRule rule = resolve(ruleName);
+    ruleBudget.check(rule.ast());
+    RuleExplainer.Explanation explanation = RuleExplainer.explain(rule.ast(), data);
+    Map<String, Object> body = new LinkedHashMap<>();
+    if (explanation.error() != null) {
+      body.put("error", explanation.error());
+    } else {
+      body.put("result", explanation.result());
+    }
+    if (rule.rulesetVersion() >= 0) {
+      body.put("rulesetVersion", rule.rulesetVersion());
+    }
+    body.put("nanos", explanation.nanos());
+    body.put("explain", explanation.tree());
+    return body;
+  }
+
+  /**
+   * Asynchronous evaluateRule. A rule held in memory is evaluated right away
+   * on the calling thread; otherwise the repository fetch and the evaluation
+   * run on the application task executor, so the request thread is not
+   * blocked on the database.
+   */
+  public CompletableFuture<Evaluation> evaluateRuleAsync(String ruleName, Map<String, Object> data) {
+    boolean inMemory = rulesetService.isEnabled()
+      ? rulesetService.current().get(ruleName) != null
+      : ruleCache.contains(ruleName);
+    if (inMemory) {
+      try {
+        return CompletableFuture.completedFuture(evaluateRule(ruleName, data));
+      } catch (RuntimeException e) {
+        return CompletableFuture.failedFuture(e);
+      }
+    }
+    return CompletableFuture.supplyAsync(() -> evaluateRule(ruleName, data), taskExecutor);
+  }
+
+  /**
+   * Evaluates one rule against many records. The rule is resolved once and the
+   * records are spread over the common fork-join pool; results keep the input
+   * order and a failing record gets an inline error instead of failing the batch.
+   */
+  public List<Map<String, Object>> evaluateBatch(ResolvedRule rule, List<Map<String, Object>> records) {
+    String ruleName = rule.name();
+    ASTNode astNode = rule.ast();
+
+    return IntStream.range(0, records.size())
+      .parallel()
+      .mapToObj(i -> evaluateRecord(ruleName, astNode, records.get(i)))
+      .toList();
+  }
+
+  /**
+   * Compiles a resolved rule for evaluateStream; resolving first means a
+   * missing rule fails before any output has been written.
+   */
+  public CompiledRule compileRule(ResolvedRule rule) {
+    return CompiledRule.compile(rule.ast());
+  }
+
+  /**
+   * Evaluates NDJSON records from in and writes one result line per record
+   * to out as it goes; returns the number of records read.
+   */
+  public long evaluateStream(CompiledRule rule, InputStream in, OutputStream out) throws IOException {
+    return new NdjsonEvaluator(objectMapper).evaluate(rule, in, out);
+  }
+
+  /**
+   * Evaluates a rule over columnar data in one vectorized pass and returns the
+   * bitset of matching rows.
+   */
+  public BitSet evaluateColumns(ResolvedRule rule, ColumnarBatch batch) {
+    return VectorizedEvaluator.evaluate(rule.ast(), batch);
+  }
+
+  /**
+   * Returns the rule tree annotated with the adaptive evaluation statistics of
+   * each operator (empty unless rule.evaluation.adaptive is enabled).
+   */
+  public Map<String, Object> getEvaluationStats(String ruleName) {
+    return describe(resolve(ruleName).ast());
+  }
+
+  // Each description is placed in its parent before it is filled in, so
+  // children can be described from a plain stack
+  private Map<String, Object> describe(ASTNode ast) {
+    Map<String, Object> root = new LinkedHashMap<>();
+    Deque<Description> pending = new ArrayDeque<>();
+    pending.push(new Description(ast, root));
+    while (!pending.isEmpty()) {
+      Description next = pending.pop();
+      Map<String, Object> description = next.description();
+      if (next.node() instanceof OperandNode operand) {
+        description.put("condition", operand.getAttribute() + " " + operand.getOperator() + " " + operand.getValue());
+      } else if (next.node() instanceof OperatorNode operatorNode) {
+        description.put("operator", operatorNode.getOperator());
+        AdaptiveStats stats = operatorNode.getAdaptiveStats();
+        if (stats != null) {
+          description.put("stats", stats.toMap());
+        }
+        List<Map<String, Object>> operands = new ArrayList<>();
+        for (ASTNode child : operatorNode.getChildren()) {
+          Map<String, Object> operandDescription = new LinkedHashMap<>();
+          operands.add(operandDescription);
+          pending.push(new Description(child, operandDescription));
+        }
+        description.put("operands", operands);
+      }
+    }
+    return root;
+  }
+
+  private record Description(ASTNode node, Map<String, Object> description) {}
+
+  private Map<String, Object> evaluateRecord(String ruleName, ASTNode astNode, Map<String, Object> data) {
+    if (data == null) {
+      return Map.of("error", "Record must be a JSON object");
+    }
+    try {
+      ruleBudget.check(astNode);
+      boolean result = resultCache.evaluate(ruleName, astNode, data, ruleBudget.maxEvaluationNanos());
+      ruleMetrics.recordResult(ruleName, result);
+      return Map.of("result", result);
+    } catch (RuntimeException e) {
+      ruleMetrics.recordError(ruleName, e);
+      return Map.of("error", String.valueOf(e.getMessage()));
+    }
+  }
+
+  // At most rule.datasource.max-concurrent-loads fetches hold a connection at
+  // once, however many request threads miss the cache
+  private ASTNode loadAst(String ruleName) {
+    return astStorage.read(loadRule(ruleName));
+  }
+
+  private Rule loadRule(String ruleName) {
+    loadPermits.acquireUninterruptibly();
+    try {
+      return ruleRepository.findByName(ruleName)
+        .orElseThrow(() -> new IllegalArgumentException("Rule not found"));
+    } finally {
+      loadPermits.release();
+    }
+  }
+}
@@ -0,0 +1,19 @@
+package com.ruleengine.ruleapplication.service;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import. failures lists the first rejected rules with
+ * their line in the file; failed counts all of them.
+ */
+public record ImportReport(
+  long received,
+  long imported,
+  long failed,
+  long durationMillis,
+  double rulesPerSecond,
+  List<Failure> failures
+) {
+
+  public record Failure(long line, String ruleName, String error) {}
+}
@@ -0,0 +1,286 @@
+package com.ruleengine.ruleapplication.service;
+
+import com.ruleengine.ruleapplication.event.RuleChangedEvent;
+import com.ruleengine.ruleapplication.model.ASTNode;
+import com.ruleengine.ruleapplication.slot.SlotLayout;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Optional memo of rule results, enabled with rule.result-cache.enabled. A
+ * result is keyed on the values of only the attributes the rule reads, so
+ * records that differ in other fields (session ids, timestamps) share an
+ * entry. Every rule keeps at most rule.result-cache.max-entries-per-rule
+ * results, entries expire after rule.result-cache.ttl, and a rule's entries
+ * are dropped when it is updated or deleted.
+ *
+ * Lookups and inserts go to a ConcurrentHashMap without locking, so parallel
+ * evaluations of one rule do not queue. A full rule evicts with CLOCK, an
+ * approximation of LRU: a hit only marks its entry, and the thread that
+ * overfills the map sweeps a hand over the entries, sparing each marked one
+ * once.
+ *
+ * Results belong to the tree instance that computed them, so an evaluation
+ * that raced with an update never answers for the new tree. Errors are not
+ * cached, and records whose referenced values are not plain strings, boxed
+ * numbers or booleans bypass the cache.
+ */
+@Component
+public class ResultCache {
+
+  private final boolean enabled;
+  private final int maxEntries;
+  private final long ttlNanos;
+  private final Map<String, RuleResults> rules = new ConcurrentHashMap<>();
+  private final MeterRegistry registry;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder bypassed = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final LongAdder expirations = new LongAdder();
+  private final LongAdder invalidations = new LongAdder();
+
+  public ResultCache(
+    @Value("${rule.result-cache.enabled:false}") boolean enabled,
+    @Value("${rule.result-cache.max-entries-per-rule:10000}") int maxEntries,
+    @Value("${rule.result-cache.ttl:60s}") Duration ttl,
+    MeterRegistry registry
+  ) {
+    this.enabled = enabled && maxEntries > 0;
+    this.maxEntries = maxEntries;
+    this.ttlNanos = ttl.isZero() || ttl.isNegative() ? Long.MAX_VALUE : ttl.toNanos();
+    this.registry = registry;
+  }
+
+  // Registered once the cache is constructed, as the size gauge refers to it
+  @PostConstruct
+  void registerMeters() {
+    counter("rule.result_cache.requests", "outcome", "hit", hits);
+    counter("rule.result_cache.requests", "outcome", "miss", misses);
+    counter("rule.result_cache.requests", "outcome", "bypass", bypassed);
+    counter("rule.result_cache.evictions", "cause", "size", evictions);
+    counter("rule.result_cache.evictions", "cause", "expired", expirations);
+    counter("rule.result_cache.evictions", "cause", "invalidated", invalidations);
+    Gauge.builder("rule.result_cache.size", this, ResultCache::size)
+      .description("Results held by the rule result cache")
+      .register(registry);
+  }
+
+  private void counter(String name, String tag, String value, LongAdder adder) {
+    FunctionCounter.builder(name, adder, LongAdder::sum)
+      .tag(tag, value)
+      .register(registry);
+  }
+
+  /**
+   * Result of ast for data, from the cache when a record with the same values
+   * of the referenced attributes was evaluated recently.
+   */
+  public boolean evaluate(String ruleName, ASTNode ast, Map<String, Object> data) {
+    return evaluate(ruleName, ast, data, 0);
+  }
+
+  /** As evaluate, a miss taking at most maxNanos (0 for no limit), see ASTNode.evaluate. */
+  public boolean evaluate(String ruleName, ASTNode ast, Map<String, Object> data, long maxNanos) {
+    if (!enabled) {
+      return ast.evaluate(data, maxNanos);
+    }
+    RuleResults results = rules.get(ruleName);
+    if (results == null || results.ast != ast) {
+      results = rules.compute(ruleName, (name, current) ->
+        current != null && current.ast == ast ? current : new RuleResults(ast)
+      );
+    }
+
+    Key key = results.keyOf(data);
+    if (key == null) {
+      bypassed.increment();
+      return ast.evaluate(data, maxNanos);
+    }
+    long now = System.nanoTime();
+    Entry entry = results.entries.get(key);
+    if (entry != null) {
+      if (ttlNanos == Long.MAX_VALUE || now - entry.expiresAt < 0) {
+        if (!entry.referenced) {
+          entry.referenced = true;
+        }
+        hits.increment();
+        return entry.result;
+      }
+      if (results.entries.remove(key, entry)) {
+        expirations.increment();
+      }
+    }
+    misses.increment();
+
+    // An exception leaves nothing behind
+    boolean result = ast.evaluate(data, maxNanos);
+    results.entries.put(key, new Entry(result, now + ttlNanos));
+    if (results.entries.size() > maxEntries) {
+      results.evict();
+    }
+    return result;
+  }
+
+  @EventListener
+  public void onRuleChanged(RuleChangedEvent event) {
+    invalidate(event.getRuleName());
+  }
+
+  public void invalidate(String ruleName) {
+    RuleResults removed = rules.remove(ruleName);
+    if (removed != null) {
+      invalidations.add(removed.entries.size());
+      removed.entries.clear();
+    }
+  }
+
+  public Map<String, Object> getStats() {
+    long lookups = hits.sum() + misses.sum();
+    Map<String, Object> stats = new LinkedHashMap<>();
+    stats.put("enabled", enabled);
+    stats.put("rules", rules.size());
+    stats.put("size", size());
+    stats.put("maxEntriesPerRule", maxEntries);
+    stats.put("hits", hits.sum());
+    stats.put("misses", misses.sum());
+    stats.put("bypassed", bypassed.sum());
+    stats.put("evictions", evictions.sum());
+    stats.put("expirations", expirations.sum());
+    stats.put("invalidations", invalidations.sum());
+    stats.put("hitRate", lookups == 0 ? 0.0 : (double) hits.sum() / lookups);
+    return stats;
+  }
+
+  private double size() {
+    long size = 0;
+    for (RuleResults results : rules.values()) {
+      size += results.entries.size();
+    }
+    return size;
+  }
+
+  private final class RuleResults {
+
+    final ASTNode ast;
+    final String[] attributes;
+    final ConcurrentHashMap<Key, Entry> entries = new ConcurrentHashMap<>();
+    // The CLOCK hand, guarded by evicting
+    private final ReentrantLock evicting = new ReentrantLock();
+    private Iterator<Map.Entry<Key, Entry>> hand;
+
+    RuleResults(ASTNode ast) {
+      this.ast = ast;
+      this.attributes = SlotLayout.of(ast).attributes().toArray(new String[0]);
+    }
+
+    // Projection of the record on the referenced attributes, null if a value
+    // could change after it was cached
+    Key keyOf(Map<String, Object> data) {
+      Object[] values = new Object[attributes.length];
+      for (int i = 0; i < attributes.length; i++) {
+        Object value = data.get(attributes[i]);
+        if (!isImmutable(value)) {
+          return null;
+        }
+        values[i] = value;
+      }
+      return new Key(values);
+    }
+
+    // Clears the mark of each entry the hand passes and evicts unmarked ones
+    // until the rule is back to maxEntries
+    void evict() {
+      if (!evicting.tryLock()) {
+        return; // Another thread is already making room
+      }
+      try {
+        while (entries.size() > maxEntries) {
+          if (hand == null || !hand.hasNext()) {
+            hand = entries.entrySet().iterator();
+            if (!hand.hasNext()) {
+              return;
+            }
+          }
+          Map.Entry<Key, Entry> next = hand.next();
+          Entry entry = next.getValue();
+          if (entry.referenced) {
+            entry.referenced = false;
+          } else if (entries.remove(next.getKey(), entry)) {
+            evictions.increment();
+          }
+        }
+      } finally {
+        evicting.unlock();
+      }
+    }
+  }
+
+  private static boolean isImmutable(Object value) {
+    return (
+      value == null ||
+      value instanceof String ||
+      value instanceof Boolean ||
+      value instanceof Integer ||
+      value instanceof Long ||
+      value instanceof Double ||
+      value instanceof Float ||
+      value instanceof Short ||
+      value instanceof Byte ||
+      value instanceof BigDecimal ||
+      value instanceof BigInteger
+    );
+  }
+
+  // Values compare with equals, so 30 and 30.0 are different keys with the same result
+  private static final class Key {
+
+    private final Object[] values;
+    private final int hash;
+
+    Key(Object[] values) {
+      this.values = values;
+      this.hash = Arrays.hashCode(values);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof Key other && hash == other.hash && Arrays.equals(values, other.values);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+
+  private static final class Entry {
+
+    final boolean result;
+    final long expiresAt;
+    // Set by hits and cleared by the CLOCK hand, so an entry that is never
+    // hit again is the first to go
+    volatile boolean referenced;
+
+    Entry(boolean result, long expiresAt) {
+      this.result = result;
+      this.expiresAt = expiresAt;
+    }
+  }
+}
@@ -0,0 +1,50 @@
+package com.ruleengine.ruleapplication.service;
+
+import com.ruleengine.ruleapplication.exception.RuleBudgetExceededException;
+import com.ruleengine.ruleapplication.model.ASTNode;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Limits on how large a rule may be and how long one evaluation may take
+ * (rule.budget.*). Rules with more nodes or levels are rejected when they are
+ * created, combined, updated or imported, and rules stored before the limits
+ * were lowered are rejected when evaluated. An evaluation running past
+ * max-evaluation-time is abandoned, so one oversized rule cannot hold a
+ * request thread for long. The clock is read about every
+ * OperatorNode.CLOCK_CHECK_INTERVAL nodes and once more at the end, so a
+ * small rule is only found over the limit after it has finished. A limit of
+ * 0 turns the check off.
+ */
+@Component
+public class RuleBudget {
+
+  @Value("${rule.budget.max-nodes:10000}")
+  private int maxNodes;
+
+  @Value("${rule.budget.max-depth:256}")
+  private int maxDepth;
+
+  @Value("${rule.budget.max-evaluation-time:100ms}")
+  private Duration maxEvaluationTime;
+
+  /** Throws RuleBudgetExceededException when the tree is larger than allowed; takes constant time. */
+  public void check(ASTNode ast) {
+    if (maxNodes > 0 && ast.size() > maxNodes) {
+      throw new RuleBudgetExceededException(
+        "Rule has " + ast.size() + " nodes, the limit is " + maxNodes
+      );
+    }
+    if (maxDepth > 0 && ast.depth() > maxDepth) {
+      throw new RuleBudgetExceededException(
+        "Rule is " + ast.depth() + " levels deep, the limit is " + maxDepth
+      );
+    }
+  }
+
+  /** The time one evaluation may take, for ASTNode.evaluate; 0 for no limit. */
+  public long maxEvaluationNanos() {
+    return maxEvaluationTime.toNanos();
+  }
+}
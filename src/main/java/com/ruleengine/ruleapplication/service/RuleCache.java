@@ -0,0 +1,190 @@
+package com.ruleengine.ruleapplication.service;
+
+import com.ruleengine.ruleapplication.event.RuleChangedEvent;
+import com.ruleengine.ruleapplication.model.ASTNode;
+import com.ruleengine.ruleapplication.model.AdaptiveStats;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded LRU cache of deserialized rule trees keyed by rule name, so the
+ * evaluation path does not hit the database and Jackson on every request.
+ * Only used with rule.ruleset.enabled=false: the ruleset already holds every
+ * tree, so the cache then stays empty and ignores rule changes.
+ * With rule.evaluation.adaptive=true every admitted tree gets AdaptiveStats
+ * attached and reorders its AND/OR children from observed selectivity.
+ *
+ * Concurrent misses on the same rule name are coalesced: the first caller
+ * runs the loader and the others wait for its result instead of issuing
+ * their own repository fetch.
+ */
+@Component
+public class RuleCache {
+
+  private final int maxSize;
+  private final boolean adaptive;
+  private final boolean rulesetEnabled;
+  private final LinkedHashMap<String, ASTNode> entries;
+  private final Map<String, CompletableFuture<ASTNode>> inFlight = new ConcurrentHashMap<>();
+
+  // All counters are guarded by the cache monitor
+  private long hits;
+  private long misses;
+  private long evictions;
+  private long coalesced;
+  // Bumped on every put/invalidate so a slow load cannot resurrect a stale tree
+  private long modifications;
+
+  public RuleCache(
+    @Value("${rule.cache.max-size:1000}") int maxSize,
+    @Value("${rule.evaluation.adaptive:false}") boolean adaptive,
+    @Value("${rule.ruleset.enabled:true}") boolean rulesetEnabled
+  ) {
+    this.maxSize = maxSize;
+    this.adaptive = adaptive;
+    this.rulesetEnabled = rulesetEnabled;
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, ASTNode> eldest) {
+        if (size() > RuleCache.this.maxSize) {
+          evictions++;
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  public ASTNode getOrLoad(String ruleName, Function<String, ASTNode> loader) {
+    long seenModifications;
+    synchronized (this) {
+      ASTNode cached = entries.get(ruleName);
+      if (cached != null) {
+        hits++;
+        return cached;
+      }
+      misses++;
+      seenModifications = modifications;
+    }
+
+    CompletableFuture<ASTNode> load = new CompletableFuture<>();
+    CompletableFuture<ASTNode> running = inFlight.putIfAbsent(ruleName, load);
+    if (running != null) {
+      synchronized (this) {
+        coalesced++;
+      }
+      return await(running);
+    }
+
+    // Load outside the lock, the loader talks to the database
+    try {
+      ASTNode loaded = admit(loader.apply(ruleName));
+      synchronized (this) {
+        if (modifications == seenModifications && maxSize > 0) {
+          entries.put(ruleName, loaded);
+        }
+      }
+      load.complete(loaded);
+      return loaded;
+    } catch (RuntimeException | Error e) {
+      load.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlight.remove(ruleName, load);
+    }
+  }
+
+  /** Whether the rule is cached, without counting a lookup or touching the LRU order. */
+  public synchronized boolean contains(String ruleName) {
+    return entries.containsKey(ruleName);
+  }
+
+  private static ASTNode await(CompletableFuture<ASTNode> load) {
+    try {
+      return load.join();
+    } catch (CompletionException e) {
+      // Rethrow what the loader threw, e.g. IllegalArgumentException for a missing rule
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      if (e.getCause() instanceof Error cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  public synchronized void put(String ruleName, ASTNode astNode) {
+    modifications++;
+    inFlight.remove(ruleName); // Later lookups must not join a load that predates the change
+    if (maxSize > 0) {
+      entries.put(ruleName, admit(astNode));
+    }
+  }
+
+  /**
+   * Adds a tree loaded ahead of use, e.g. from the startup snapshot, if the
+   * cache has room and does not hold the rule yet. Never evicts anything.
+   */
+  public synchronized boolean preload(String ruleName, ASTNode astNode) {
+    if (entries.size() >= maxSize || entries.containsKey(ruleName)) {
+      return false;
+    }
+    modifications++;
+    inFlight.remove(ruleName);
+    entries.put(ruleName, admit(astNode));
+    return true;
+  }
+
+  public synchronized void invalidate(String ruleName) {
+    modifications++;
+    inFlight.remove(ruleName);
+    entries.remove(ruleName);
+  }
+
+  @EventListener
+  public void onRuleChanged(RuleChangedEvent event) {
+    if (rulesetEnabled) {
+      return;
+    }
+    if (event.isDeleted()) {
+      invalidate(event.getRuleName());
+    } else {
+      put(event.getRuleName(), event.getAst());
+    }
+  }
+
+  public synchronized void clear() {
+    modifications++;
+    inFlight.clear();
+    entries.clear();
+  }
+
+  private ASTNode admit(ASTNode astNode) {
+    if (adaptive) {
+      AdaptiveStats.attach(astNode);
+    }
+    return astNode;
+  }
+
+  public synchronized Map<String, Object> getStats() {
+    long lookups = hits + misses;
+    return Map.of(
+      "enabled", !rulesetEnabled,
+      "size", entries.size(),
+      "maxSize", maxSize,
+      "hits", hits,
+      "misses", misses,
+      "evictions", evictions,
+      "coalescedLoads", coalesced,
+      "hitRate", lookups == 0 ? 0.0 : (double) hits / lookups
+    );
+  }
+}
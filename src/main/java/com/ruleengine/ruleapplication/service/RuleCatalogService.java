@@ -0,0 +1,103 @@
+package com.ruleengine.ruleapplication.service;
+
+import com.ruleengine.ruleapplication.repository.RuleSummary;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Lists rules by name without loading entities: a projection query selects
+ * only name, rule string and updated_at, never the AST columns. Pages use
+ * keyset pagination on the unique name index (name > after, ordered by
+ * name), so a page costs the same wherever it is in the catalog. forEach
+ * reads the whole (filtered) catalog through a database cursor for
+ * streamed responses.
+ */
+@Service
+public class RuleCatalogService {
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Value("${rule.catalog.max-page-size:1000}")
+  private int maxPageSize;
+
+  @Value("${rule.catalog.fetch-size:500}")
+  private int fetchSize;
+
+  /** A page of rules; nextAfter is the after of the next page, null on the last one. */
+  public record Page(List<RuleSummary> rules, String nextAfter) {}
+
+  public Page page(String after, String prefix, LocalDateTime updatedSince, int limit) {
+    int size = Math.max(1, Math.min(limit, maxPageSize));
+    List<RuleSummary> rules = query(after, prefix, updatedSince)
+      .setMaxResults(size + 1) // One more tells whether there is a next page
+      .getResultList();
+    if (rules.size() <= size) {
+      return new Page(rules, null);
+    }
+    rules = rules.subList(0, size);
+    return new Page(rules, rules.get(size - 1).name());
+  }
+
+  /** Passes every matching rule to action in name order, as rows come off the cursor; returns the count. */
+  public long forEach(String prefix, LocalDateTime updatedSince, Consumer<RuleSummary> action) {
+    TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+    transaction.setReadOnly(true); // A cursor needs a transaction, PostgreSQL fetches all rows otherwise
+    Long count = transaction.execute(status -> {
+      long rows = 0;
+      try (Stream<RuleSummary> stream = query(null, prefix, updatedSince)
+        .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+        .getResultStream()) {
+        for (RuleSummary rule : (Iterable<RuleSummary>) stream::iterator) {
+          action.accept(rule);
+          rows++;
+        }
+      }
+      return rows;
+    });
+    return count == null ? 0 : count;
+  }
+
+  private TypedQuery<RuleSummary> query(String after, String prefix, LocalDateTime updatedSince) {
+    StringBuilder jpql = new StringBuilder(
+      "select new com.ruleengine.ruleapplication.repository.RuleSummary(r.name, r.ruleString, r.updatedAt)" +
+      " from Rule r where r.name is not null"
+    );
+    if (after != null) {
+      jpql.append(" and r.name > :after");
+    }
+    if (prefix != null && !prefix.isEmpty()) {
+      jpql.append(" and r.name like :prefix escape '!'");
+    }
+    if (updatedSince != null) {
+      jpql.append(" and r.updatedAt >= :updatedSince");
+    }
+    jpql.append(" order by r.name");
+
+    TypedQuery<RuleSummary> query = entityManager.createQuery(jpql.toString(), RuleSummary.class);
+    if (after != null) {
+      query.setParameter("after", after);
+    }
+    if (prefix != null && !prefix.isEmpty()) {
+      query.setParameter("prefix", prefix.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%");
+    }
+    if (updatedSince != null) {
+      query.setParameter("updatedSince", updatedSince);
+    }
+    return query;
+  }
+}
@@ -0,0 +1,235 @@
+package com.ruleengine.ruleapplication.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ruleengine.ruleapplication.entity.Rule;
+import com.ruleengine.ruleapplication.optimizer.RuleOptimizer;
+import com.ruleengine.ruleapplication.repository.RuleRepository;
+import com.ruleengine.ruleapplication.ruleset.Ruleset;
+import com.ruleengine.ruleapplication.stream.RuleFileReader;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Loads a rule file in chunks of rule.import.chunk-size rules. For each
+ * chunk the names are checked against the database in one query, the rules
+ * are parsed, optimized and encoded in parallel, and the rows are written in
+ * one transaction with JDBC batching (hibernate.jdbc.batch_size). A rule
+ * that fails is reported with its line and the rest of the file still loads;
+ * when a chunk cannot be committed its rules are retried one by one so only
+ * the offending rows are lost.
+ */
+@Service
+public class RuleImportService {
+
+  private static final Logger log = LoggerFactory.getLogger(RuleImportService.class);
+
+  @Autowired
+  private RuleRepository ruleRepository;
+
+  @Autowired
+  private RuleService ruleService;
+
+  @Autowired
+  private AstStorage astStorage;
+
+  @Autowired
+  private RulesetService rulesetService;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Value("${rule.import.chunk-size:1000}")
+  private int chunkSize;
+
+  @Value("${rule.import.max-reported-failures:1000}")
+  private int maxReportedFailures;
+
+  public ImportReport importRules(InputStream in, RuleFileReader.Format format) throws IOException {
+    long start = System.nanoTime();
+    RuleFileReader reader = new RuleFileReader(in, format, objectMapper);
+    TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+    Set<String> seen = new HashSet<>();
+    Failures failures = new Failures(maxReportedFailures);
+    long received = 0;
+    long imported = 0;
+
+    List<RuleFileReader.Entry> entries;
+    while (!(entries = reader.next(chunkSize)).isEmpty()) {
+      received += entries.size();
+
+      List<RuleFileReader.Entry> candidates = new ArrayList<>(entries.size());
+      for (RuleFileReader.Entry entry : entries) {
+        if (entry.error() != null) {
+          failures.add(entry, entry.error());
+        } else if (isBlank(entry.ruleName()) || isBlank(entry.ruleString())) {
+          failures.add(entry, "ruleName and ruleString are required");
+        } else if (!seen.add(entry.ruleName())) {
+          failures.add(entry, "Rule name appears more than once in the file: " + entry.ruleName());
+        } else {
+          candidates.add(entry);
+        }
+      }
+      if (candidates.isEmpty()) {
+        continue;
+      }
+
+      Set<String> existing = new HashSet<>(
+        ruleRepository.findExistingNames(candidates.stream().map(RuleFileReader.Entry::ruleName).toList())
+      );
+      List<RuleFileReader.Entry> fresh = new ArrayList<>(candidates.size());
+      for (RuleFileReader.Entry entry : candidates) {
+        if (existing.contains(entry.ruleName())) {
+          failures.add(entry, "Rule name already exists: " + entry.ruleName());
+        } else {
+          fresh.add(entry);
+        }
+      }
+
+      // Parsing and encoding are CPU-bound and independent, so they use every core
+      Prepared[] prepared = new Prepared[fresh.size()];
+      IntStream.range(0, fresh.size()).parallel().forEach(i -> prepared[i] = prepare(fresh.get(i)));
+
+      List<Prepared> valid = new ArrayList<>(prepared.length);
+      for (Prepared rule : prepared) {
+        if (rule.error != null) {
+          failures.add(rule.entry, rule.error);
+        } else {
+          valid.add(rule);
+        }
+      }
+      imported += persist(valid, transaction, failures);
+    }
+
+    failures.reported.sort(Comparator.comparingLong(ImportReport.Failure::line));
+    long durationNanos = System.nanoTime() - start;
+    log.info("Imported {} of {} rules in {} ms", imported, received, durationNanos / 1_000_000);
+    return new ImportReport(
+      received,
+      imported,
+      failures.count,
+      durationNanos / 1_000_000,
+      durationNanos == 0 ? 0.0 : imported * 1e9 / durationNanos,
+      failures.reported
+    );
+  }
+
+  private Prepared prepare(RuleFileReader.Entry entry) {
+    try {
+      RuleOptimizer.Result optimized = ruleService.prepare("import", entry.ruleString());
+      Rule rule = new Rule();
+      rule.setName(entry.ruleName());
+      rule.setRuleString(entry.ruleString());
+      astStorage.write(rule, optimized.ast());
+      return new Prepared(entry, rule, null);
+    } catch (RuntimeException e) {
+      return new Prepared(entry, null, String.valueOf(e.getMessage()));
+    }
+  }
+
+  // Returns the number of rules written
+  private int persist(List<Prepared> rules, TransactionTemplate transaction, Failures failures) {
+    if (rules.isEmpty()) {
+      return 0;
+    }
+    LocalDateTime now = LocalDateTime.now();
+    List<Prepared> written = rules;
+    try {
+      insert(rules, transaction, now);
+    } catch (RuntimeException e) {
+      log.warn("Import chunk of {} rules failed, retrying one at a time", rules.size(), e);
+      written = new ArrayList<>(rules.size());
+      for (Prepared rule : rules) {
+        try {
+          insert(List.of(rule), transaction, now);
+          written.add(rule);
+        } catch (RuntimeException failure) {
+          failures.add(rule.entry, "Failed to save rule: " + failure.getMessage());
+        }
+      }
+    }
+    publish(written, now);
+    return written.size();
+  }
+
+  private void insert(List<Prepared> rules, TransactionTemplate transaction, LocalDateTime now) {
+    try {
+      transaction.executeWithoutResult(status -> {
+        List<Rule> entities = new ArrayList<>(rules.size());
+        for (Prepared rule : rules) {
+          entities.add(rule.newEntity(now)); // New instances, a retry must not reuse ids of a rolled back chunk
+        }
+        ruleRepository.saveAll(entities);
+        entityManager.flush();
+      });
+    } finally {
+      // Detach the rows, the request's persistence context would otherwise grow with the file
+      entityManager.clear();
+    }
+  }
+
+  // One new ruleset version per chunk; caches and the match network pick up the rules as after create_rule
+  private void publish(List<Prepared> rules, LocalDateTime updatedAt) {
+    List<Ruleset.Change> changes = new ArrayList<>(rules.size());
+    for (Prepared rule : rules) {
+      changes.add(new Ruleset.Change(rule.template.getName(), rule.template.getAst(), updatedAt));
+    }
+    rulesetService.publish(changes);
+  }
+
+  private static boolean isBlank(String value) {
+    return value == null || value.isBlank();
+  }
+
+  private record Prepared(RuleFileReader.Entry entry, Rule template, String error) {
+
+    Rule newEntity(LocalDateTime now) {
+      Rule rule = new Rule();
+      rule.setName(template.getName());
+      rule.setRuleString(template.getRuleString());
+      rule.setAstBinary(template.getAstBinary());
+      rule.setCreatedAt(now);
+      rule.setUpdatedAt(now);
+      return rule;
+    }
+  }
+
+  private static final class Failures {
+
+    final int max;
+    final List<ImportReport.Failure> reported = new ArrayList<>();
+    long count;
+
+    Failures(int max) {
+      this.max = max;
+    }
+
+    void add(RuleFileReader.Entry entry, String error) {
+      count++;
+      if (reported.size() < max) {
+        reported.add(new ImportReport.Failure(entry.line(), entry.ruleName(), error));
+      }
+    }
+  }
+}
@@ -0,0 +1,135 @@
+package com.ruleengine.ruleapplication.service;
+
+import com.ruleengine.ruleapplication.entity.Rule;
+import com.ruleengine.ruleapplication.event.RuleChangedEvent;
+import com.ruleengine.ruleapplication.model.ASTNode;
+import com.ruleengine.ruleapplication.network.MatchResult;
+import com.ruleengine.ruleapplication.network.RuleNetwork;
+import com.ruleengine.ruleapplication.repository.RuleRepository;
+import com.ruleengine.ruleapplication.ruleset.Ruleset;
+import java.util.List;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Finds every stored rule a record satisfies. All rules are compiled into one
+ * shared RuleNetwork. With rule.ruleset.enabled the network follows the
+ * published Ruleset: before matching, it is brought up to the current version
+ * by applying the entries published since the version it holds. Otherwise it
+ * is built from the database on first use and kept in sync with RuleService.
+ */
+@Service
+public class RuleMatchService {
+
+  /** A match, and the ruleset version the network held, or -1 when rule.ruleset.enabled=false. */
+  public record Match(MatchResult result, long rulesetVersion) {}
+
+  @Autowired
+  private RuleRepository ruleRepository;
+
+  @Autowired
+  private AstStorage astStorage;
+
+  @Autowired
+  private RulesetService rulesetService;
+
+  private volatile RuleNetwork network;
+  // The ruleset the network was last brought up to; only set when the ruleset is enabled
+  private volatile Ruleset synced;
+
+  public Match match(Map<String, Object> data, List<String> ruleNames) {
+    if (!rulesetService.isEnabled()) {
+      return new Match(network().match(data, ruleNames), -1);
+    }
+    // A newer version may be applied while matching, so the network holds at least this one
+    Ruleset ruleset = syncTo(rulesetService.current());
+    return new Match(network.match(data, ruleNames), ruleset.version());
+  }
+
+  public Map<String, Object> getStats() {
+    if (rulesetService.isEnabled()) {
+      syncTo(rulesetService.current());
+      return network.getStats();
+    }
+    return network().getStats();
+  }
+
+  @EventListener
+  public synchronized void onRuleChanged(RuleChangedEvent event) {
+    if (network == null || rulesetService.isEnabled()) {
+      return; // Not built yet, or following the ruleset, which already has the change
+    }
+    if (event.isDeleted()) {
+      network.remove(event.getRuleName());
+    } else {
+      network.put(event.getRuleName(), event.getAst());
+    }
+  }
+
+  /** Builds the network from trees already in memory instead of the database, unless it exists. */
+  public synchronized void preload(Map<String, ASTNode> rules) {
+    if (network == null && !rulesetService.isEnabled()) {
+      RuleNetwork built = new RuleNetwork();
+      rules.forEach(built::put);
+      network = built;
+    }
+  }
+
+  // Brings the network up to the ruleset unless it holds that version already; returns the one it holds
+  private Ruleset syncTo(Ruleset ruleset) {
+    Ruleset held = synced;
+    if (held != null && held.version() >= ruleset.version()) {
+      return held;
+    }
+    synchronized (this) {
+      Ruleset previous = synced;
+      if (previous == null) {
+        RuleNetwork built = new RuleNetwork();
+        ruleset.forEach((name, entry) -> built.put(name, entry.ast()));
+        network = built;
+        synced = ruleset;
+      } else if (previous.version() < ruleset.version()) {
+        // Entries published after the held version, and rules the new version no longer has
+        ruleset.forEach((name, entry) -> {
+          if (entry.version() > previous.version()) {
+            network.put(name, entry.ast());
+          }
+        });
+        previous.forEach((name, entry) -> {
+          if (ruleset.get(name) == null) {
+            network.remove(name);
+          }
+        });
+        synced = ruleset;
+      }
+      return synced;
+    }
+  }
+
+  private RuleNetwork network() {
+    RuleNetwork current = network;
+    if (current == null) {
+      synchronized (this) {
+        if (network == null) {
+          network = buildNetwork();
+        }
+        current = network;
+      }
+    }
+    return current;
+  }
+
+  private RuleNetwork buildNetwork() {
+    RuleNetwork built = new RuleNetwork();
+    for (Rule rule : ruleRepository.findAll()) {
+      try {
+        built.put(rule.getName(), astStorage.read(rule));
+      } catch (Exception e) {
+        throw new RuntimeException("Failed to load rule: " + rule.getName(), e);
+      }
+    }
+    return built;
+  }
+}
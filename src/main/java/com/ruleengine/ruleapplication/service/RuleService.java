@@ -1,25 +1,24 @@
 package com.ruleengine.ruleapplication.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ruleengine.ruleapplication.entity.Rule;
 import com.ruleengine.ruleapplication.exception.DuplicateRuleNameException;
+import com.ruleengine.ruleapplication.exception.RuleBudgetExceededException;
 import com.ruleengine.ruleapplication.exception.RuleParsingException;
+import com.ruleengine.ruleapplication.metrics.RuleMetrics;
 import com.ruleengine.ruleapplication.model.ASTNode;
+import com.ruleengine.ruleapplication.model.AstNormalizer;
 import com.ruleengine.ruleapplication.model.OperatorNode;
+import com.ruleengine.ruleapplication.optimizer.RuleOptimizer;
 import com.ruleengine.ruleapplication.parser.Ruleparser;
 import com.ruleengine.ruleapplication.repository.RuleRepository;
+import com.ruleengine.ruleapplication.slot.SlotLayout;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -29,7 +28,19 @@ public class RuleService {
     private RuleRepository ruleRepository;
 
     @Autowired
-    private ObjectMapper objectMapper;
+    private AstStorage astStorage;
+
+    @Autowired
+    private RulesetService rulesetService;
+
+    @Autowired
+    private RuleMetrics ruleMetrics;
+
+    @Autowired
+    private RuleBudget ruleBudget;
+
+    @Value("${rule.optimizer.enabled:true}")
+    private boolean optimizerEnabled;
 
     public Rule createRule(String ruleName, String ruleString) {
         if (ruleRepository.existsByName(ruleName)) { // Check for duplicate rule name
@@ -37,19 +48,22 @@ public class RuleService {
         }
 
         try {
-            Ruleparser parser = new Ruleparser();
-            ASTNode ast = parser.parse(ruleString);  // Parse the rule string
-            String astJson = objectMapper.writeValueAsString(ast);  // Convert AST to JSON
+            RuleOptimizer.Result optimized = optimize(parse("create", ruleString));  // Parse and simplify the rule string
+            ASTNode ast = optimized.ast();
+            ruleBudget.check(ast);  // Reject rules too large to evaluate
 
             Rule rule = new Rule();
             rule.setName(ruleName);  // Use the provided rule name
             rule.setRuleString(ruleString);
-            rule.setAstJson(astJson);
+            astStorage.write(rule, ast);  // Store the AST in its compact binary form
             rule.setCreatedAt(LocalDateTime.now());
             rule.setUpdatedAt(LocalDateTime.now());
 
-            return ruleRepository.save(rule);  // Save the rule to the database
-        } catch (RuleParsingException e) {
+            Rule saved = ruleRepository.save(rule);  // Save the rule to the database
+            saved.setOptimization(optimized.report());
+            rulesetService.publish(ruleName, ast, saved.getUpdatedAt());  // Evaluations and caches pick up the parsed tree right away
+            return saved;
+        } catch (RuleParsingException | RuleBudgetExceededException e) {
             throw e;
         } catch (Exception e) {
             throw new RuntimeException("Failed to create rule", e);
@@ -73,7 +87,7 @@ public class RuleService {
   
           for (int i = 0; i < rules.size(); i++) {
               Rule rule = rules.get(i);
-              ASTNode astNode = objectMapper.readValue(rule.getAstJson(), ASTNode.class);
+              ASTNode astNode = astStorage.read(rule);
               astNodes.add(astNode);
   
               // Append the rule string
@@ -84,18 +98,24 @@ public class RuleService {
           }
   
           // Combine AST nodes using the specified operator
-          ASTNode combinedAst = combineAstNodes(astNodes, operator);
-          String astJson = objectMapper.writeValueAsString(combinedAst);
+          RuleOptimizer.Result optimized = optimize(combineAstNodes(astNodes, operator));
+          ASTNode combinedAst = optimized.ast();
+          ruleBudget.check(combinedAst);
   
           Rule combinedRule = new Rule();
           combinedRule.setName(combinedRuleName); // Set the combined rule name from user input
           combinedRule.setRuleString(combinedRuleString.toString()); // Use the combined rule string
-          combinedRule.setAstJson(astJson);
+          astStorage.write(combinedRule, combinedAst);
           combinedRule.setCreatedAt(LocalDateTime.now());
           combinedRule.setUpdatedAt(LocalDateTime.now());
   
           // Save the combined rule to the repository
-          return ruleRepository.save(combinedRule);
+          Rule saved = ruleRepository.save(combinedRule);
+          saved.setOptimization(optimized.report());
+          rulesetService.publish(combinedRuleName, combinedAst, saved.getUpdatedAt());
+          return saved;
+      } catch (RuleBudgetExceededException e) {
+          throw e;
       } catch (Exception e) {
           throw new RuntimeException("Failed to combine rules", e);
       }
@@ -103,24 +123,12 @@ public class RuleService {
   
   
   private ASTNode combineAstNodes(List<ASTNode> astNodes, String operator) {
-      ASTNode combined = astNodes.get(0);
-      for (int i = 1; i < astNodes.size(); i++) {
-          combined = new OperatorNode(operator, combined, astNodes.get(i)); // Use the operator passed from the user
-      }
-      return combined;
+      // One n-ary node over all rules (using the operator passed from the user); flattening and
+      // sharing the conditions of the components is left to the normalizer
+      return new OperatorNode(operator, astNodes);
   }
   
 
-    public List<Map<String, String>> getAllRules() {
-        List<Rule> rules = ruleRepository.findAll(); // Fetch all rules from the repository
-        return rules.stream()
-            .map(rule -> Map.of(
-                "name", rule.getName(),
-                "ruleString", rule.getRuleString()
-            ))
-            .collect(Collectors.toList()); // Map to a list of maps containing name and ruleString
-    }
-
     public Rule updateRule(String name, String newRuleString) {
         Optional<Rule> optionalRule = ruleRepository.findByName(name); // Find a rule by name
         if (!optionalRule.isPresent()) {
@@ -133,15 +141,50 @@ public class RuleService {
         }
 
         Rule rule = optionalRule.get();
+        RuleOptimizer.Result optimized = optimize(parse("update", newRuleString)); // Re-parse so the stored AST matches the new string
+        ASTNode ast = optimized.ast();
+        ruleBudget.check(ast);
+        astStorage.write(rule, ast);
         rule.setRuleString(newRuleString); // Update the rule string
-        // If you want to update the AST or any other fields, do that here
-        return ruleRepository.save(rule); // Save the updated rule
+        rule.setUpdatedAt(LocalDateTime.now());
+        Rule saved = ruleRepository.save(rule); // Save the updated rule
+        saved.setOptimization(optimized.report());
+        rulesetService.publish(name, ast, saved.getUpdatedAt());
+        return saved;
     }
     
+    private ASTNode parse(String operation, String ruleString) {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            ASTNode ast = new Ruleparser().parse(ruleString);
+            success = true;
+            return ast;
+        } finally {
+            ruleMetrics.recordParse(operation, System.nanoTime() - start, success);
+        }
+    }
+
+    // Parsed and optimized tree of a rule string, as create_rule stores it; used by RuleImportService
+    RuleOptimizer.Result prepare(String operation, String ruleString) {
+        RuleOptimizer.Result optimized = optimize(parse(operation, ruleString));
+        ruleBudget.check(optimized.ast());
+        return optimized;
+    }
+
+    // Normal form of the tree, simplified by the optimizer unless rule.optimizer.enabled=false
+    private RuleOptimizer.Result optimize(ASTNode ast) {
+        if (!optimizerEnabled) {
+            return new RuleOptimizer.Result(AstNormalizer.normalize(ast), null);
+        }
+        return RuleOptimizer.optimize(ast);
+    }
+
     public void deleteRuleByName(String name) {
       Optional<Rule> optionalRule = ruleRepository.findByName(name); // Fetch the rule by name
       if (optionalRule.isPresent()) {
           ruleRepository.delete(optionalRule.get()); // Delete the rule if it exists
+          rulesetService.publish(name, null, null);
       } else {
           throw new IllegalArgumentException("Rule not found with name: " + name); // Handle not found case
       }
@@ -150,35 +193,10 @@ public class RuleService {
     Optional<Rule> optionalRule = ruleRepository.findByName(ruleName);
     if (optionalRule.isPresent()) {
         Rule rule = optionalRule.get();
-        // Assuming the attributes are stored in the rule string or can be derived from the AST
-        return extractAttributesFromRule(rule);
+        return SlotLayout.of(astStorage.read(rule)).attributes();
     } else {
         throw new IllegalArgumentException("Rule not found with name: " + ruleName);
     }
 }
-  private List<String> extractAttributesFromRule(Rule rule) {
-    String ruleString = rule.getRuleString();
-    // Regex to match variable names in the rule string.
-    // This example assumes variables are alphanumeric and can include underscores.
-    // Adjust regex according to your rule string format.
-    String regex = "\\b([a-zA-Z_][a-zA-Z0-9_]*)\\b";
-    
-    // Create a Set to avoid duplicate attributes
-    Set<String> attributes = new HashSet<>();
-    
-    // Split the rule string by logical operators AND, OR, and also by comparison operators
-    String[] parts = ruleString.split("(?i)\\s+(AND|OR)\\s+|(?<=\\s)(<|<=|>|>=|==|!=|=)(?=\\s)"); // Handles AND/OR and comparison operators
-
-    for (String part : parts) {
-        // Find matches using regex
-        Matcher matcher = Pattern.compile(regex).matcher(part);
-        while (matcher.find()) {
-            attributes.add(matcher.group(1)); // Add attribute to the Set
-        }
-    }
-    
-    // Convert Set to List and return
-    return new ArrayList<>(attributes);
-}
 
 }
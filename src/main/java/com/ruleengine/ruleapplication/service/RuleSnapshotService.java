@@ -0,0 +1,219 @@
+package com.ruleengine.ruleapplication.service;
+
+import com.ruleengine.ruleapplication.entity.Rule;
+import com.ruleengine.ruleapplication.model.ASTNode;
+import com.ruleengine.ruleapplication.repository.RuleRepository;
+import com.ruleengine.ruleapplication.ruleset.Ruleset;
+import com.ruleengine.ruleapplication.snapshot.RuleSnapshotFile;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Warm start from a local snapshot of all compiled rules
+ * (rule.snapshot.enabled). At startup, before the application reports
+ * itself ready, the snapshot file is memory-mapped and decoded, rows whose
+ * updated_at is newer than the snapshot are read from the database, deleted
+ * rules are dropped, and the result preloads the ruleset, the rule cache
+ * and the match network. The first requests after a deploy then find their
+ * rules in memory instead of loading each one from the database.
+ *
+ * The snapshot is rewritten after every startup and at shutdown. Without a
+ * usable file the rules are read from the database once and a new snapshot
+ * is written.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE) // Warm the caches before other startup work
+public class RuleSnapshotService implements ApplicationRunner {
+
+  private static final Logger log = LoggerFactory.getLogger(RuleSnapshotService.class);
+
+  @Autowired
+  private RuleRepository ruleRepository;
+
+  @Autowired
+  private AstStorage astStorage;
+
+  @Autowired
+  private RuleCache ruleCache;
+
+  @Autowired
+  private RuleMatchService ruleMatchService;
+
+  @Autowired
+  private RulesetService rulesetService;
+
+  @Value("${rule.snapshot.enabled:false}")
+  private boolean enabled;
+
+  @Value("${rule.snapshot.path:rule-snapshot.bin}")
+  private Path path;
+
+  // Rows changed up to this long before the newest snapshot entry are re-read, for clocks of other nodes
+  @Value("${rule.snapshot.clock-skew:60s}")
+  private Duration clockSkew;
+
+  // Rules as of the last load or write, guarded by this
+  private final Map<String, RuleSnapshotFile.Entry> rules = new LinkedHashMap<>();
+  private final Map<String, Object> stats = new LinkedHashMap<>();
+
+  @Override
+  public void run(ApplicationArguments args) {
+    if (!enabled) {
+      return;
+    }
+    load();
+  }
+
+  public synchronized void load() {
+    long start = System.nanoTime();
+    rules.clear();
+    int fromFile = 0;
+    try {
+      for (RuleSnapshotFile.Entry entry : RuleSnapshotFile.read(path)) {
+        rules.put(entry.name(), entry);
+      }
+      fromFile = rules.size();
+    } catch (NoSuchFileException e) {
+      log.info("No rule snapshot at {}, loading all rules from the database", path);
+    } catch (IOException e) {
+      log.warn("Ignoring unreadable rule snapshot {}", path, e);
+      rules.clear();
+    }
+    long readNanos = System.nanoTime() - start;
+
+    int[] counts = fromFile == 0 ? loadAll() : reconcile();
+
+    Map<String, ASTNode> trees = new LinkedHashMap<>();
+    List<Ruleset.Change> changes = new ArrayList<>(rules.size());
+    int cached = 0;
+    for (RuleSnapshotFile.Entry entry : rules.values()) {
+      trees.put(entry.name(), entry.ast());
+      changes.add(new Ruleset.Change(entry.name(), entry.ast(), entry.updatedAt()));
+      if (!rulesetService.isEnabled() && ruleCache.preload(entry.name(), entry.ast())) {
+        cached++;
+      }
+    }
+    ruleMatchService.preload(trees);
+    rulesetService.preload(changes);
+    long loadNanos = System.nanoTime() - start;
+
+    stats.put("rulesInFile", fromFile);
+    stats.put("changedSinceSnapshot", counts[0]);
+    stats.put("removedSinceSnapshot", counts[1]);
+    stats.put("rules", rules.size());
+    stats.put("preloadedIntoCache", cached);
+    stats.put("fileReadMillis", readNanos / 1_000_000);
+    stats.put("loadMillis", loadNanos / 1_000_000);
+    log.info(
+      "Loaded {} rules in {} ms ({} from {}, {} changed and {} removed since it was written)",
+      rules.size(), loadNanos / 1_000_000, fromFile, path, counts[0], counts[1]
+    );
+
+    if (fromFile == 0 || counts[0] > 0 || counts[1] > 0) {
+      write();
+    }
+  }
+
+  /** Brings the snapshot up to date with the database and rewrites the file. */
+  @PreDestroy
+  public synchronized void save() {
+    if (!enabled) {
+      return;
+    }
+    try {
+      reconcile();
+    } catch (RuntimeException e) {
+      log.warn("Could not refresh the rule snapshot from the database, not writing it", e);
+      return;
+    }
+    write();
+  }
+
+  public synchronized Map<String, Object> getStats() {
+    Map<String, Object> result = new LinkedHashMap<>();
+    result.put("enabled", enabled);
+    result.put("path", path.toAbsolutePath().toString());
+    result.putAll(stats);
+    return result;
+  }
+
+  private int[] loadAll() {
+    rules.clear();
+    for (Rule rule : ruleRepository.findAll()) {
+      add(rule);
+    }
+    return new int[] { rules.size(), 0 };
+  }
+
+  // Returns the number of changed and removed rules
+  private int[] reconcile() {
+    LocalDateTime newest = null;
+    for (RuleSnapshotFile.Entry entry : rules.values()) {
+      if (entry.updatedAt() != null && (newest == null || entry.updatedAt().isAfter(newest))) {
+        newest = entry.updatedAt();
+      }
+    }
+    if (newest == null) {
+      return loadAll();
+    }
+
+    int changed = 0;
+    for (Rule rule : ruleRepository.findByUpdatedAtGreaterThanEqual(newest.minus(clockSkew))) {
+      RuleSnapshotFile.Entry current = rules.get(rule.getName());
+      if (current == null || !Objects.equals(current.updatedAt(), rule.getUpdatedAt())) {
+        if (add(rule)) {
+          changed++;
+        }
+      }
+    }
+    Set<String> names = new HashSet<>(ruleRepository.findAllNames());
+    int before = rules.size();
+    rules.keySet().retainAll(names);
+    return new int[] { changed, before - rules.size() };
+  }
+
+  private boolean add(Rule rule) {
+    try {
+      rules.put(rule.getName(), new RuleSnapshotFile.Entry(rule.getName(), rule.getUpdatedAt(), astStorage.read(rule)));
+      return true;
+    } catch (RuntimeException e) {
+      // Left out of the snapshot, evaluations load it lazily and report the error as before
+      log.warn("Could not read the AST of rule {} for the snapshot", rule.getName(), e);
+      rules.remove(rule.getName());
+      return false;
+    }
+  }
+
+  private void write() {
+    long start = System.nanoTime();
+    try {
+      RuleSnapshotFile.write(path, rules.values());
+      stats.put("lastWriteRules", rules.size());
+      stats.put("lastWriteBytes", Files.size(path));
+      stats.put("lastWriteMillis", (System.nanoTime() - start) / 1_000_000);
+    } catch (IOException e) {
+      log.warn("Could not write the rule snapshot {}", path, e);
+    }
+  }
+}
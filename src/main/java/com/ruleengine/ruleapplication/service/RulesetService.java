@@ -0,0 +1,301 @@
+package com.ruleengine.ruleapplication.service;
+
+import com.ruleengine.ruleapplication.entity.Rule;
+import com.ruleengine.ruleapplication.event.RuleChangedEvent;
+import com.ruleengine.ruleapplication.model.ASTNode;
+import com.ruleengine.ruleapplication.model.AdaptiveStats;
+import com.ruleengine.ruleapplication.model.OperatorNode;
+import com.ruleengine.ruleapplication.repository.RuleRepository;
+import com.ruleengine.ruleapplication.ruleset.Ruleset;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+/**
+ * Holds the current Ruleset that evaluations read (rule.ruleset.enabled).
+ * Readers take the current version with one volatile read and never block.
+ * Every change goes through publish, which builds the next version
+ * copy-on-write, swaps it in and then sends the RuleChangedEvent to the other
+ * caches. Writers are serialized, so every listener sees changes in version
+ * order.
+ *
+ * Changes made on other nodes are picked up by polling the indexed
+ * rules.updated_at column every rule.ruleset.poll-interval. Deletes leave no
+ * row to find, so whenever a poll sees a changed row or the row count moved,
+ * the names held are reconciled with all names in the table. Rows whose AST
+ * cannot be read are remembered with their update time, so they count as
+ * neither changed nor missing until they are written again. Rules are loaded
+ * at startup, from the warm start snapshot when there is one.
+ */
+@Service
+@Order(Ordered.HIGHEST_PRECEDENCE + 1) // After RuleSnapshotService, which may preload the ruleset
+public class RulesetService implements ApplicationRunner {
+
+  private static final Logger log = LoggerFactory.getLogger(RulesetService.class);
+  private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+  @Autowired
+  private RuleRepository ruleRepository;
+
+  @Autowired
+  private AstStorage astStorage;
+
+  @Autowired
+  private ApplicationEventPublisher eventPublisher;
+
+  @Value("${rule.ruleset.enabled:true}")
+  private boolean enabled;
+
+  @Value("${rule.evaluation.adaptive:false}")
+  private boolean adaptive;
+
+  @Value("${rule.ruleset.poll-interval:5s}")
+  private Duration pollInterval;
+
+  // Rows changed up to this long before the newest known update are re-read, for clocks of other nodes
+  @Value("${rule.ruleset.clock-skew:60s}")
+  private Duration clockSkew;
+
+  // Null until loaded; only written under the service monitor
+  private volatile Ruleset current;
+  private ScheduledExecutorService poller;
+
+  // Update times of rows left out because their AST could not be read
+  private final Map<String, LocalDateTime> unreadable = new ConcurrentHashMap<>();
+
+  private long polls;
+  private long polledChanges;
+  private long reconciliations;
+  // Rows in the table at the last poll, -1 before the first
+  private long polledCount = -1;
+  private volatile LocalDateTime lastPoll;
+
+  @Override
+  public void run(ApplicationArguments args) {
+    if (!enabled) {
+      return;
+    }
+    current();
+    if (!pollInterval.isZero() && !pollInterval.isNegative()) {
+      poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ruleset-poller");
+        thread.setDaemon(true);
+        return thread;
+      });
+      long millis = pollInterval.toMillis();
+      poller.scheduleWithFixedDelay(this::pollSafely, millis, millis, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  @PreDestroy
+  public void stop() {
+    if (poller != null) {
+      poller.shutdownNow();
+    }
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /** The current version, loading all rules from the database on first use. */
+  public Ruleset current() {
+    Ruleset ruleset = current;
+    if (ruleset == null) {
+      synchronized (this) {
+        if (current == null) {
+          List<Ruleset.Change> changes = new ArrayList<>();
+          for (Rule rule : ruleRepository.findAll()) {
+            Ruleset.Change change = read(rule);
+            if (change != null) {
+              changes.add(change);
+            }
+          }
+          install(changes);
+        }
+        ruleset = current;
+      }
+    }
+    return ruleset;
+  }
+
+  /** Installs rules loaded from elsewhere as the first version, unless rules were loaded already. */
+  public synchronized boolean preload(Collection<Ruleset.Change> rules) {
+    if (!enabled || current != null) {
+      return false;
+    }
+    install(rules);
+    return true;
+  }
+
+  public void publish(String ruleName, ASTNode ast, LocalDateTime updatedAt) {
+    publish(List.of(new Ruleset.Change(ruleName, ast, updatedAt)));
+  }
+
+  /** Publishes the changes as one new version, then notifies the listeners of each change. */
+  public synchronized void publish(List<Ruleset.Change> changes) {
+    if (changes.isEmpty()) {
+      return;
+    }
+    // Before the first load nothing is held; the load reads these rows from the database
+    if (enabled && current != null) {
+      changes.forEach(change -> {
+        admit(change.ast());
+        unreadable.remove(change.ruleName());
+      });
+      current = current.apply(current.version() + 1, changes);
+    }
+    for (Ruleset.Change change : changes) {
+      eventPublisher.publishEvent(new RuleChangedEvent(change.ruleName(), change.ast()));
+    }
+  }
+
+  /**
+   * Publishes a rule read from the database that the ruleset does not hold,
+   * e.g. one created on another node since the last poll, and returns the
+   * ruleset that has it. Should the rule have been deleted meanwhile, the
+   * next poll removes it again.
+   */
+  public synchronized Ruleset publishLoaded(Rule rule) {
+    Ruleset ruleset = current();
+    if (ruleset.get(rule.getName()) == null) {
+      publish(rule.getName(), astStorage.read(rule), rule.getUpdatedAt());
+    }
+    return current;
+  }
+
+  private void install(Collection<Ruleset.Change> rules) {
+    List<Ruleset.Change> changes = new ArrayList<>(rules);
+    changes.forEach(change -> admit(change.ast()));
+    current = Ruleset.empty().apply(1, changes);
+    log.info("Ruleset version 1 holds {} rules", current.size());
+  }
+
+  private void admit(ASTNode ast) {
+    if (adaptive && ast instanceof OperatorNode operatorNode && operatorNode.getAdaptiveStats() == null) {
+      AdaptiveStats.attach(ast);
+    }
+  }
+
+  private void pollSafely() {
+    try {
+      poll();
+    } catch (RuntimeException e) {
+      log.warn("Polling for rule changes failed", e);
+    }
+  }
+
+  /** Reads rules changed on other nodes and publishes them; returns the number of changes. */
+  public int poll() {
+    Ruleset base = current();
+    LocalDateTime since = base.newestUpdate() == null ? EPOCH : base.newestUpdate().minus(clockSkew);
+
+    // Read and decode outside the monitor, writers and readers keep going
+    List<Ruleset.Change> updates = new ArrayList<>();
+    boolean rowsChanged = false;
+    for (Rule rule : ruleRepository.findByUpdatedAtGreaterThanEqual(since)) {
+      Ruleset.Entry entry = base.get(rule.getName());
+      LocalDateTime known = entry != null ? entry.updatedAt() : unreadable.get(rule.getName());
+      if (known == null || !sameTime(known, rule.getUpdatedAt())) {
+        rowsChanged = true;
+        Ruleset.Change change = read(rule);
+        if (change != null) {
+          updates.add(change);
+        }
+      }
+    }
+    long count = ruleRepository.count();
+
+    synchronized (this) {
+      // A rule published here since the poll started is at least as new as what was read
+      List<Ruleset.Change> changes = new ArrayList<>();
+      for (Ruleset.Change update : updates) {
+        if (unchangedSince(update.ruleName(), base)) {
+          changes.add(update);
+        }
+      }
+      publish(changes);
+
+      // A delete next to a create can leave the count as it was, so any change reconciles the names
+      List<Ruleset.Change> removals = new ArrayList<>();
+      if (rowsChanged || count != polledCount || current.size() + unreadable.size() != count) {
+        Set<String> names = new HashSet<>(ruleRepository.findAllNames());
+        current.forEach((name, entry) -> {
+          if (!names.contains(name) && entry.version() <= base.version()) {
+            removals.add(new Ruleset.Change(name, null, null));
+          }
+        });
+        publish(removals);
+        unreadable.keySet().removeIf(name -> !names.contains(name) || current.get(name) != null);
+        reconciliations++;
+      }
+
+      polledCount = count;
+      polls++;
+      polledChanges += changes.size() + removals.size();
+      lastPoll = LocalDateTime.now();
+      return changes.size() + removals.size();
+    }
+  }
+
+  // The database may round timestamps to microseconds
+  private static boolean sameTime(LocalDateTime a, LocalDateTime b) {
+    if (a == null || b == null) {
+      return a == b;
+    }
+    return Math.abs(Duration.between(a, b).toNanos()) < 1_000;
+  }
+
+  private boolean unchangedSince(String ruleName, Ruleset base) {
+    Ruleset.Entry entry = current.get(ruleName);
+    return entry == null ? base.get(ruleName) == null : entry.version() <= base.version();
+  }
+
+  private Ruleset.Change read(Rule rule) {
+    try {
+      Ruleset.Change change = new Ruleset.Change(rule.getName(), astStorage.read(rule), rule.getUpdatedAt());
+      unreadable.remove(rule.getName());
+      return change;
+    } catch (RuntimeException e) {
+      // Left out, evaluating it reports the error as the lazy path did
+      log.warn("Could not read the AST of rule {}", rule.getName(), e);
+      unreadable.put(rule.getName(), rule.getUpdatedAt() == null ? EPOCH : rule.getUpdatedAt());
+      return null;
+    }
+  }
+
+  public synchronized Map<String, Object> getStats() {
+    Map<String, Object> stats = new LinkedHashMap<>();
+    stats.put("enabled", enabled);
+    stats.put("version", current == null ? 0 : current.version());
+    stats.put("rules", current == null ? 0 : current.size());
+    stats.put("newestUpdate", current == null ? null : current.newestUpdate());
+    stats.put("pollInterval", pollInterval.toString());
+    stats.put("polls", polls);
+    stats.put("polledChanges", polledChanges);
+    stats.put("reconciliations", reconciliations);
+    stats.put("lastPoll", lastPoll);
+    return stats;
+  }
+}
@@ -0,0 +1,185 @@
+package com.ruleengine.ruleapplication.slot;
+
+import com.ruleengine.ruleapplication.model.ASTNode;
+import com.ruleengine.ruleapplication.model.LogicalOperator;
+import com.ruleengine.ruleapplication.model.OperandNode;
+import com.ruleengine.ruleapplication.model.OperatorNode;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A rule compiled against its own SlotLayout. Evaluating many records with
+ * one CompiledRule converts each record once and then reads slots directly;
+ * evaluate(Map) is the adapter for callers that hold plain maps.
+ */
+public final class CompiledRule {
+
+  private final SlotLayout layout;
+  private final Predicate root;
+
+  private CompiledRule(SlotLayout layout, Predicate root) {
+    this.layout = layout;
+    this.root = root;
+  }
+
+  public static CompiledRule compile(ASTNode ast) {
+    SlotLayout layout = new SlotLayout();
+    return new CompiledRule(layout, compile(ast, layout));
+  }
+
+  public boolean evaluate(Map<String, Object> data) {
+    return evaluate(SlotRecord.of(layout, data));
+  }
+
+  public boolean evaluate(SlotRecord record) {
+    return root.test(record);
+  }
+
+  public SlotLayout getLayout() {
+    return layout;
+  }
+
+  // Like RuleNetwork.compile: a junction is built once its children are
+  private static Predicate compile(ASTNode ast, SlotLayout layout) {
+    Deque<PendingJunction> junctions = new ArrayDeque<>();
+    Predicate result = enter(ast, layout, junctions);
+    while (!junctions.isEmpty()) {
+      PendingJunction junction = junctions.peek();
+      if (junction.next < junction.operands.size()) {
+        Predicate done = enter(junction.operands.get(junction.next++), layout, junctions);
+        if (done != null) {
+          junction.compiled.add(done);
+        }
+        continue;
+      }
+      junctions.pop();
+      Predicate node = new Junction(junction.conjunction, junction.compiled.toArray(new Predicate[0]));
+      if (junctions.isEmpty()) {
+        result = node;
+      } else {
+        junctions.peek().compiled.add(node);
+      }
+    }
+    return result;
+  }
+
+  // Returns the compiled node, or null after pushing a junction for an AND/OR
+  private static Predicate enter(ASTNode node, SlotLayout layout, Deque<PendingJunction> junctions) {
+    if (node instanceof OperandNode operand) {
+      return new SlotCondition(operand, layout)::test;
+    }
+    if (!(node instanceof OperatorNode operatorNode)) {
+      throw new IllegalArgumentException("Unsupported node: " + node);
+    }
+    LogicalOperator op = LogicalOperator.from(operatorNode.getOperator());
+    if (op == null) {
+      return record -> {
+        throw new UnsupportedOperationException("Unknown operator: " + operatorNode.getOperator());
+      };
+    }
+
+    // Same left-to-right short-circuit order as OperatorNode
+    junctions.push(new PendingJunction(op == LogicalOperator.AND, operatorNode.flatten()));
+    return null;
+  }
+
+  @FunctionalInterface
+  private interface Predicate {
+    boolean test(SlotRecord record);
+
+    default int depth() {
+      return 0;
+    }
+  }
+
+  // An AND/OR being compiled, and its children compiled so far
+  private static final class PendingJunction {
+
+    final boolean conjunction;
+    final List<ASTNode> operands;
+    final List<Predicate> compiled = new ArrayList<>();
+    int next;
+
+    PendingJunction(boolean conjunction, List<ASTNode> operands) {
+      this.conjunction = conjunction;
+      this.operands = operands;
+    }
+  }
+
+  /**
+   * A compiled AND/OR. Up to OperatorNode.MAX_RECURSION_DEPTH levels deep it
+   * tests its children recursively, deeper ones are walked with an explicit
+   * stack.
+   */
+  private static final class Junction implements Predicate {
+
+    private final boolean conjunction;
+    private final Predicate[] children;
+    private final int depth;
+
+    Junction(boolean conjunction, Predicate[] children) {
+      this.conjunction = conjunction;
+      this.children = children;
+      int childDepth = 0;
+      for (Predicate child : children) {
+        childDepth = Math.max(childDepth, child.depth());
+      }
+      this.depth = childDepth + 1;
+    }
+
+    @Override
+    public int depth() {
+      return depth;
+    }
+
+    @Override
+    public boolean test(SlotRecord record) {
+      if (depth > OperatorNode.MAX_RECURSION_DEPTH) {
+        return walk(record);
+      }
+      // AND is decided by a false child, OR by a true one
+      for (Predicate child : children) {
+        if (child.test(record) != conjunction) {
+          return !conjunction;
+        }
+      }
+      return conjunction;
+    }
+
+    private boolean walk(SlotRecord record) {
+      // Every junction on the stack is deeper than the one above it
+      Junction[] stack = new Junction[depth];
+      int[] next = new int[depth];
+      int top = 0;
+      stack[0] = this;
+      while (true) {
+        Junction junction = stack[top];
+        boolean value;
+        if (next[top] < junction.children.length) {
+          Predicate child = junction.children[next[top]++];
+          if (child instanceof Junction inner && inner.depth > OperatorNode.MAX_RECURSION_DEPTH) {
+            stack[++top] = inner;
+            next[top] = 0;
+            continue;
+          }
+          value = child.test(record);
+          if (value == junction.conjunction) {
+            continue;
+          }
+        } else {
+          value = junction.conjunction;
+        }
+        // The junction evaluates to value, and so does every parent it decides
+        do {
+          if (top == 0) {
+            return value;
+          }
+          top--;
+        } while (value != stack[top].conjunction);
+      }
+    }
+  }
+}
@@ -0,0 +1,127 @@
+package com.ruleengine.ruleapplication.slot;
+
+import com.ruleengine.ruleapplication.exception.IncompatibleTypesException;
+import com.ruleengine.ruleapplication.model.OperandNode;
+import com.ruleengine.ruleapplication.model.ValueSet;
+
+/**
+ * An OperandNode bound to a slot. Gives the same answers and errors as
+ * OperandNode.evaluate, with the comparator resolved once at compile time.
+ */
+public final class SlotCondition {
+
+  private static final int GT = 0;
+  private static final int LT = 1;
+  private static final int EQ = 2;
+  private static final int GE = 3;
+  private static final int LE = 4;
+  private static final int NE = 5;
+  private static final int UNKNOWN = -1;
+
+  private final int slot;
+  private final String operator;
+  private final int comparator;
+  private final Object value;
+  private final double number;
+  // IN, NOT IN and BETWEEN, null for the other operators
+  private final ValueSet values;
+
+  public SlotCondition(OperandNode operand, SlotLayout layout) {
+    this.slot = layout.assign(operand.getAttribute());
+    this.operator = operand.getOperator();
+    this.comparator = comparator(operator);
+    this.value = operand.getValue();
+    this.number = value instanceof Number n ? n.doubleValue() : Double.NaN;
+    this.values = operand.getValueSet();
+  }
+
+  public boolean test(SlotRecord record) {
+    if (values != null) {
+      byte kind = record.kind(slot);
+      if (kind == SlotRecord.MISSING) {
+        return false;
+      }
+      if (kind == SlotRecord.NUMBER && values.acceptsNumbers()) {
+        return values.matches(record.number(slot));
+      }
+      return values.test(record.value(slot));
+    }
+    switch (record.kind(slot)) {
+      case SlotRecord.MISSING:
+        return false;
+      case SlotRecord.NUMBER:
+        if (value instanceof Number) {
+          return compareNumbers(record.number(slot));
+        }
+        break;
+      case SlotRecord.STRING:
+        if (value instanceof String string) {
+          return compareStrings((String) record.value(slot), string);
+        }
+        break;
+      default:
+        break;
+    }
+    throw new IncompatibleTypesException(
+      "Incompatible types for comparison: " +
+      record.value(slot).getClass() +
+      " and " +
+      value.getClass()
+    );
+  }
+
+  private boolean compareNumbers(double attrDouble) {
+    switch (comparator) {
+      case GT:
+        return attrDouble > number;
+      case LT:
+        return attrDouble < number;
+      case EQ:
+        return attrDouble == number;
+      case GE:
+        return attrDouble >= number;
+      case LE:
+        return attrDouble <= number;
+      case NE:
+        return attrDouble != number;
+      default:
+        throw new UnsupportedOperationException("Unknown operator: " + operator);
+    }
+  }
+
+  private boolean compareStrings(String attrValue, String ruleValue) {
+    switch (comparator) {
+      case EQ:
+        return attrValue.equals(ruleValue);
+      case NE:
+        return !attrValue.equals(ruleValue);
+      default:
+        throw new UnsupportedOperationException(
+          "Unknown operator for String comparison: " + operator
+        );
+    }
+  }
+
+  private static int comparator(String operator) {
+    if (operator == null) {
+      return UNKNOWN;
+    }
+    switch (operator) {
+      case ">":
+        return GT;
+      case "<":
+        return LT;
+      case "=":
+      case "==":
+        return EQ;
+      case ">=":
+        return GE;
+      case "<=":
+        return LE;
+      case "!=":
+        return NE;
+      default:
+        return UNKNOWN;
+    }
+  }
+}
@@ -0,0 +1,75 @@
+package com.ruleengine.ruleapplication.slot;
+
+import com.ruleengine.ruleapplication.model.ASTNode;
+import com.ruleengine.ruleapplication.model.OperandNode;
+import com.ruleengine.ruleapplication.model.OperatorNode;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Assigns every attribute referenced by a rule or rule set a fixed integer
+ * slot, so a record can be read by index instead of by name. Slots are only
+ * ever added: a layout grows with its rule set and never renumbers.
+ *
+ * Assignment is serialized, lookups are lock-free.
+ */
+public final class SlotLayout {
+
+  private final Map<String, Integer> slots = new ConcurrentHashMap<>();
+  private volatile String[] attributes = new String[0];
+
+  /** Layout of the attributes a tree references, in the order they appear. */
+  public static SlotLayout of(ASTNode ast) {
+    SlotLayout layout = new SlotLayout();
+    Deque<ASTNode> pending = new ArrayDeque<>();
+    pending.push(ast);
+    while (!pending.isEmpty()) {
+      ASTNode node = pending.pop();
+      if (node instanceof OperandNode operand) {
+        layout.assign(operand.getAttribute());
+      } else if (node instanceof OperatorNode operatorNode) {
+        List<ASTNode> operands = operatorNode.getChildren();
+        for (int i = operands.size() - 1; i >= 0; i--) {
+          pending.push(operands.get(i));
+        }
+      }
+    }
+    return layout;
+  }
+
+  /** Returns the slot of the attribute, assigning the next free one if needed. */
+  public synchronized int assign(String attribute) {
+    Integer slot = slots.get(attribute);
+    if (slot != null) {
+      return slot;
+    }
+    String[] grown = Arrays.copyOf(attributes, attributes.length + 1);
+    grown[attributes.length] = attribute;
+    // Publish the name before the slot, so a visible slot always resolves
+    attributes = grown;
+    slots.put(attribute, attributes.length - 1);
+    return attributes.length - 1;
+  }
+
+  /** Slot of the attribute, or -1 if no rule references it. */
+  public int slotOf(String attribute) {
+    Integer slot = slots.get(attribute);
+    return slot == null ? -1 : slot;
+  }
+
+  public String attribute(int slot) {
+    return attributes[slot];
+  }
+
+  public List<String> attributes() {
+    return List.of(attributes);
+  }
+
+  public int size() {
+    return attributes.length;
+  }
+}
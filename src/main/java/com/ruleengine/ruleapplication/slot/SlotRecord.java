@@ -0,0 +1,95 @@
+package com.ruleengine.ruleapplication.slot;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * A record converted once into the slots of a SlotLayout. Numeric values are
+ * kept unboxed next to the original objects, so conditions read them without
+ * a hash lookup or an instanceof check.
+ */
+public final class SlotRecord {
+
+  public static final byte MISSING = 0;
+  public static final byte NUMBER = 1;
+  public static final byte STRING = 2;
+  public static final byte OTHER = 3;
+
+  private final SlotLayout layout;
+  private final Map<String, Object> source;
+  private final byte[] kinds;
+  private final double[] numbers;
+  private final Object[] values;
+
+  /**
+   * An empty record with every slot of the layout missing, filled with set.
+   * Slots the layout assigns later always read as missing.
+   */
+  public SlotRecord(SlotLayout layout) {
+    this(layout, Map.of(), layout.size());
+  }
+
+  private SlotRecord(SlotLayout layout, Map<String, Object> source, int size) {
+    this.layout = layout;
+    this.source = source;
+    this.kinds = new byte[size];
+    this.numbers = new double[size];
+    this.values = new Object[size];
+  }
+
+  public static SlotRecord of(SlotLayout layout, Map<String, Object> data) {
+    int size = layout.size();
+    SlotRecord record = new SlotRecord(layout, data, size);
+    // One hash lookup per attribute, from whichever side is smaller
+    if (data.size() < size) {
+      for (Map.Entry<String, Object> entry : data.entrySet()) {
+        int slot = layout.slotOf(entry.getKey());
+        if (slot >= 0 && slot < size) {
+          record.set(slot, entry.getValue());
+        }
+      }
+    } else {
+      for (int slot = 0; slot < size; slot++) {
+        record.set(slot, data.get(layout.attribute(slot)));
+      }
+    }
+    return record;
+  }
+
+  public void set(int slot, Object value) {
+    kinds[slot] = kindOf(value);
+    values[slot] = value;
+    if (value instanceof Number number) {
+      numbers[slot] = number.doubleValue();
+    }
+  }
+
+  /** Marks every slot missing again, so one record can be reused. */
+  public void clear() {
+    Arrays.fill(kinds, MISSING);
+    Arrays.fill(values, null);
+  }
+
+  public byte kind(int slot) {
+    // Slots assigned after the conversion are read from the source record
+    return slot < kinds.length ? kinds[slot] : kindOf(value(slot));
+  }
+
+  public double number(int slot) {
+    return slot < numbers.length ? numbers[slot] : ((Number) value(slot)).doubleValue();
+  }
+
+  public Object value(int slot) {
+    return slot < values.length ? values[slot] : source.get(layout.attribute(slot));
+  }
+
+  private static byte kindOf(Object value) {
+    if (value == null) {
+      return MISSING;
+    }
+    if (value instanceof Number) {
+      return NUMBER;
+    }
+    return value instanceof String ? STRING : OTHER;
+  }
+}
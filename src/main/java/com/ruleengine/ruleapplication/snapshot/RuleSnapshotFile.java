@@ -0,0 +1,141 @@
+package com.ruleengine.ruleapplication.snapshot;
+
+import com.ruleengine.ruleapplication.codec.AstCodec;
+import com.ruleengine.ruleapplication.model.ASTNode;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Local file holding every compiled rule, read back by memory-mapping it.
+ *
+ * Layout (version 1, big-endian):
+ * <pre>
+ *   'R' 'S' version
+ *   long writtenAtMillis, int ruleCount
+ *   per rule: int nameLength, UTF-8 name,
+ *             long updatedAtSecond, int updatedAtNano (-1 when unknown),
+ *             int astLength, AstCodec bytes
+ *   int CRC32 of everything before it
+ * </pre>
+ * Trees are decoded straight from the mapped pages, nothing is copied into
+ * an intermediate array. Files are written to a temporary file and moved into
+ * place, so a reader never sees a partial snapshot; a file that is truncated
+ * or corrupt fails the checksum and is rejected as a whole.
+ */
+public final class RuleSnapshotFile {
+
+  static final byte MAGIC_0 = 'R';
+  static final byte MAGIC_1 = 'S';
+  static final byte VERSION = 1;
+
+  private static final int HEADER_SIZE = 3 + 8 + 4;
+  private static final int CHECKSUM_SIZE = 4;
+
+  /** One rule; updatedAt is the rules.updated_at of the row it was read from. */
+  public record Entry(String name, LocalDateTime updatedAt, ASTNode ast) {}
+
+  private RuleSnapshotFile() {
+  }
+
+  public static void write(Path path, Collection<Entry> entries) throws IOException {
+    Path directory = path.toAbsolutePath().getParent();
+    Files.createDirectories(directory);
+    Path temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+    try {
+      try (OutputStream file = Files.newOutputStream(temporary)) {
+        CRC32 crc = new CRC32();
+        DataOutputStream out = new DataOutputStream(
+          new CheckedOutputStream(new BufferedOutputStream(file, 1 << 16), crc)
+        );
+        out.writeByte(MAGIC_0);
+        out.writeByte(MAGIC_1);
+        out.writeByte(VERSION);
+        out.writeLong(System.currentTimeMillis());
+        out.writeInt(entries.size());
+        for (Entry entry : entries) {
+          byte[] name = entry.name().getBytes(StandardCharsets.UTF_8);
+          out.writeInt(name.length);
+          out.write(name);
+          LocalDateTime updatedAt = entry.updatedAt();
+          out.writeLong(updatedAt == null ? 0 : updatedAt.toEpochSecond(ZoneOffset.UTC));
+          out.writeInt(updatedAt == null ? -1 : updatedAt.getNano());
+          byte[] ast = AstCodec.encode(entry.ast());
+          out.writeInt(ast.length);
+          out.write(ast);
+        }
+        out.flush();
+        // The checksum itself is written past the checked stream
+        new DataOutputStream(file).writeInt((int) crc.getValue());
+      }
+      Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(temporary);
+    }
+  }
+
+  /** The rules in the file; IOException when it is missing, corrupt or of another version. */
+  public static List<Entry> read(Path path) throws IOException {
+    MappedByteBuffer buffer;
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size < HEADER_SIZE + CHECKSUM_SIZE || size > Integer.MAX_VALUE) {
+        throw new IOException("Not a rule snapshot: " + path);
+      }
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size); // Stays valid after close
+    }
+
+    int end = buffer.limit() - CHECKSUM_SIZE;
+    CRC32 crc = new CRC32();
+    crc.update(buffer.slice(0, end));
+    if ((int) crc.getValue() != buffer.getInt(end)) {
+      throw new IOException("Rule snapshot checksum mismatch: " + path);
+    }
+    if (buffer.get() != MAGIC_0 || buffer.get() != MAGIC_1) {
+      throw new IOException("Not a rule snapshot: " + path);
+    }
+    byte version = buffer.get();
+    if (version != VERSION) {
+      throw new IOException("Unsupported rule snapshot version: " + version);
+    }
+    buffer.getLong(); // Written at, informational
+    int count = buffer.getInt();
+
+    try {
+      List<Entry> entries = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        byte[] name = new byte[buffer.getInt()];
+        buffer.get(name);
+        long second = buffer.getLong();
+        int nano = buffer.getInt();
+        LocalDateTime updatedAt = nano < 0 ? null : LocalDateTime.ofEpochSecond(second, nano, ZoneOffset.UTC);
+        int astLength = buffer.getInt();
+        ByteBuffer ast = buffer.slice(buffer.position(), astLength);
+        buffer.position(buffer.position() + astLength);
+        entries.add(new Entry(new String(name, StandardCharsets.UTF_8), updatedAt, AstCodec.decode(ast)));
+      }
+      if (buffer.position() != end) {
+        throw new IOException("Rule snapshot has trailing bytes: " + path);
+      }
+      return entries;
+    } catch (RuntimeException e) {
+      throw new IOException("Corrupt rule snapshot: " + path, e);
+    }
+  }
+}
@@ -0,0 +1,118 @@
+package com.ruleengine.ruleapplication.stream;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ruleengine.ruleapplication.slot.CompiledRule;
+import com.ruleengine.ruleapplication.slot.SlotLayout;
+import com.ruleengine.ruleapplication.slot.SlotRecord;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Evaluates a rule over newline-delimited JSON records with Jackson's
+ * streaming parser. Only the fields the rule references are read, into one
+ * reused SlotRecord; every other field is skipped token by token without
+ * building objects. A result line is written for each record as soon as it
+ * is read, so memory stays bounded whatever the input size.
+ *
+ * Output lines are {"result":true|false}, or {"error":"..."} for a record
+ * that is not an object or fails to evaluate. Malformed JSON ends the stream
+ * with a final error line, since the parser cannot resynchronize.
+ */
+public class NdjsonEvaluator {
+
+  private final ObjectMapper objectMapper;
+
+  public NdjsonEvaluator(ObjectMapper objectMapper) {
+    this.objectMapper = objectMapper;
+  }
+
+  /** Returns the number of records read. Neither stream is closed. */
+  public long evaluate(CompiledRule rule, InputStream in, OutputStream out) throws IOException {
+    SlotLayout layout = rule.getLayout();
+    SlotRecord record = new SlotRecord(layout);
+    long records = 0;
+
+    try (
+      JsonParser parser = objectMapper.getFactory().createParser(in);
+      JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+    ) {
+      parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+      generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+      generator.setRootValueSeparator(null);
+
+      while (true) {
+        try {
+          JsonToken token = parser.nextToken();
+          if (token == null) {
+            break;
+          }
+          records++;
+          if (token != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            writeLine(generator, "error", "Record must be a JSON object");
+            continue;
+          }
+          record.clear();
+          readFields(parser, layout, record);
+        } catch (JsonProcessingException e) {
+          writeLine(generator, "error", "Malformed JSON: " + e.getOriginalMessage());
+          break;
+        }
+
+        try {
+          writeLine(generator, "result", rule.evaluate(record));
+        } catch (RuntimeException e) {
+          writeLine(generator, "error", String.valueOf(e.getMessage()));
+        }
+      }
+    }
+    return records;
+  }
+
+  private static void readFields(JsonParser parser, SlotLayout layout, SlotRecord record) throws IOException {
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      int slot = layout.slotOf(parser.currentName());
+      JsonToken token = parser.nextToken();
+      if (slot < 0) {
+        parser.skipChildren(); // No-op for scalars
+        continue;
+      }
+      switch (token) {
+        case VALUE_STRING:
+          record.set(slot, parser.getText());
+          break;
+        case VALUE_NUMBER_INT:
+        case VALUE_NUMBER_FLOAT:
+          record.set(slot, parser.getNumberValue());
+          break;
+        case VALUE_TRUE:
+        case VALUE_FALSE:
+          record.set(slot, parser.getBooleanValue());
+          break;
+        case VALUE_NULL:
+          record.set(slot, null);
+          break;
+        default:
+          // Objects and arrays only matter for the error message, as in a Map
+          record.set(slot, parser.readValueAs(Object.class));
+          break;
+      }
+    }
+  }
+
+  private static void writeLine(JsonGenerator generator, String field, Object value) throws IOException {
+    generator.writeStartObject();
+    if (value instanceof Boolean result) {
+      generator.writeBooleanField(field, result);
+    } else {
+      generator.writeStringField(field, (String) value);
+    }
+    generator.writeEndObject();
+    generator.writeRaw('\n');
+  }
+}
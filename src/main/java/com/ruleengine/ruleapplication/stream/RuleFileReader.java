@@ -0,0 +1,118 @@
+package com.ruleengine.ruleapplication.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads a rule file one line at a time, so an upload of any size is handled
+ * in bounded memory. Two formats are accepted:
+ * <ul>
+ *   <li>NDJSON, one {"ruleName": "...", "ruleString": "..."} object per line,</li>
+ *   <li>CSV with ruleName,ruleString columns, an optional header row and
+ *       double-quoted fields ("" for a quote inside one).</li>
+ * </ul>
+ * Blank lines are skipped. A line that cannot be read becomes an entry with
+ * an error instead of ending the file.
+ */
+public class RuleFileReader {
+
+  public enum Format { NDJSON, CSV }
+
+  /** One rule of the file; error is set when the line could not be read. */
+  public record Entry(long line, String ruleName, String ruleString, String error) {}
+
+  private final BufferedReader reader;
+  private final Format format;
+  private final ObjectMapper objectMapper;
+  private long line;
+  private boolean firstRow = true;
+
+  public RuleFileReader(InputStream in, Format format, ObjectMapper objectMapper) {
+    this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    this.format = format;
+    this.objectMapper = objectMapper;
+  }
+
+  /** Up to max entries, empty at the end of the file. */
+  public List<Entry> next(int max) throws IOException {
+    List<Entry> entries = new ArrayList<>(Math.min(max, 1024));
+    String text;
+    while (entries.size() < max && (text = reader.readLine()) != null) {
+      line++;
+      if (text.isBlank()) {
+        continue;
+      }
+      Entry entry = format == Format.CSV ? readCsv(text) : readJson(text);
+      if (entry != null) {
+        entries.add(entry);
+      }
+    }
+    return entries;
+  }
+
+  private Entry readJson(String text) {
+    try {
+      JsonNode node = objectMapper.readTree(text);
+      if (!node.isObject()) {
+        return new Entry(line, null, null, "Line must be a JSON object");
+      }
+      return new Entry(line, textOf(node, "ruleName"), textOf(node, "ruleString"), null);
+    } catch (JsonProcessingException e) {
+      return new Entry(line, null, null, "Malformed JSON: " + e.getOriginalMessage());
+    }
+  }
+
+  private static String textOf(JsonNode node, String field) {
+    JsonNode value = node.get(field);
+    return value == null || value.isNull() ? null : value.asText();
+  }
+
+  // Null for the header row
+  private Entry readCsv(String text) {
+    List<String> fields = new ArrayList<>(2);
+    StringBuilder field = new StringBuilder();
+    boolean quoted = false;
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (quoted) {
+        if (c != '"') {
+          field.append(c);
+        } else if (i + 1 < text.length() && text.charAt(i + 1) == '"') {
+          field.append('"');
+          i++;
+        } else {
+          quoted = false;
+        }
+      } else if (c == '"') {
+        quoted = true;
+      } else if (c == ',') {
+        fields.add(field.toString().trim());
+        field.setLength(0);
+      } else {
+        field.append(c);
+      }
+    }
+    if (quoted) {
+      return new Entry(line, null, null, "Unterminated quoted field");
+    }
+    fields.add(field.toString().trim());
+
+    if (fields.size() != 2) {
+      return new Entry(line, null, null, "Expected 2 fields (ruleName,ruleString), found " + fields.size());
+    }
+    boolean header = firstRow;
+    firstRow = false;
+    if (header && (fields.get(0).equalsIgnoreCase("ruleName") || fields.get(0).equalsIgnoreCase("name"))) {
+      return null;
+    }
+    return new Entry(line, fields.get(0), fields.get(1), null);
+  }
+}
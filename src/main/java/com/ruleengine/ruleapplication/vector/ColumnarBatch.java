@@ -0,0 +1,68 @@
+package com.ruleengine.ruleapplication.vector;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A set of rows stored column by column. Numeric attributes are primitive
+ * double arrays where NaN marks a missing value; string attributes are
+ * dictionary encoded.
+ */
+@JsonDeserialize(using = ColumnarBatchDeserializer.class)
+public final class ColumnarBatch {
+
+  private final int rowCount;
+  private final Map<String, double[]> numericColumns = new HashMap<>();
+  private final Map<String, DictionaryColumn> stringColumns = new HashMap<>();
+
+  public ColumnarBatch(int rowCount) {
+    this.rowCount = rowCount;
+  }
+
+  public ColumnarBatch addNumeric(String attribute, double[] values) {
+    checkLength(attribute, values.length);
+    stringColumns.remove(attribute);
+    numericColumns.put(attribute, values);
+    return this;
+  }
+
+  public ColumnarBatch addStrings(String attribute, DictionaryColumn column) {
+    checkLength(attribute, column.size());
+    numericColumns.remove(attribute);
+    stringColumns.put(attribute, column);
+    return this;
+  }
+
+  public ColumnarBatch addStrings(String attribute, String[] values) {
+    return addStrings(attribute, DictionaryColumn.encode(values));
+  }
+
+  /** A column without a value in any row, which no condition matches, whatever its type. */
+  public ColumnarBatch addMissing(String attribute, int length) {
+    checkLength(attribute, length);
+    numericColumns.remove(attribute);
+    stringColumns.remove(attribute);
+    return this;
+  }
+
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  public double[] getNumeric(String attribute) {
+    return numericColumns.get(attribute);
+  }
+
+  public DictionaryColumn getStrings(String attribute) {
+    return stringColumns.get(attribute);
+  }
+
+  private void checkLength(String attribute, int length) {
+    if (length != rowCount) {
+      throw new IllegalArgumentException(
+        "Column " + attribute + " has " + length + " rows, expected " + rowCount
+      );
+    }
+  }
+}
@@ -0,0 +1,146 @@
+package com.ruleengine.ruleapplication.vector;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streams {"columns": {"age": [35, 40], "department": ["Sales", null]}} into
+ * primitive and dictionary-encoded columns without boxing every cell. A
+ * column with no value in any row has no type, so it is treated as absent.
+ */
+public class ColumnarBatchDeserializer extends JsonDeserializer<ColumnarBatch> {
+
+  @Override
+  public ColumnarBatch deserialize(JsonParser parser, DeserializationContext context)
+      throws IOException {
+    Map<String, Object> columns = new LinkedHashMap<>();
+    Integer rowCount = null;
+
+    expect(parser, context, parser.currentToken(), JsonToken.START_OBJECT);
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.currentName();
+      JsonToken token = parser.nextToken();
+      if (field.equals("rowCount")) {
+        rowCount = parser.getIntValue();
+      } else if (field.equals("columns")) {
+        expect(parser, context, token, JsonToken.START_OBJECT);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+          String attribute = parser.currentName();
+          parser.nextToken();
+          columns.put(attribute, readColumn(parser, context, attribute));
+        }
+      } else {
+        parser.skipChildren();
+      }
+    }
+
+    if (rowCount == null) {
+      rowCount = columns.isEmpty() ? 0 : length(columns.values().iterator().next());
+    }
+    ColumnarBatch batch = new ColumnarBatch(rowCount);
+    try {
+      for (Map.Entry<String, Object> column : columns.entrySet()) {
+        if (column.getValue() instanceof double[] values) {
+          batch.addNumeric(column.getKey(), values);
+        } else if (column.getValue() instanceof Integer length) {
+          batch.addMissing(column.getKey(), length);
+        } else {
+          batch.addStrings(column.getKey(), (String[]) column.getValue());
+        }
+      }
+    } catch (IllegalArgumentException e) {
+      return context.reportInputMismatch(ColumnarBatch.class, e.getMessage());
+    }
+    return batch;
+  }
+
+  private Object readColumn(JsonParser parser, DeserializationContext context, String attribute)
+      throws IOException {
+    expect(parser, context, parser.currentToken(), JsonToken.START_ARRAY);
+    double[] numbers = new double[64];
+    List<String> strings = null;
+    Boolean numeric = null;
+    int size = 0;
+
+    JsonToken token;
+    while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+      if (token == JsonToken.VALUE_NULL) {
+        if (strings != null) {
+          strings.add(null);
+        } else {
+          if (size == numbers.length) {
+            numbers = Arrays.copyOf(numbers, size * 2);
+          }
+          numbers[size] = Double.NaN;
+        }
+        size++;
+        continue;
+      }
+
+      boolean isNumber = token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT;
+      if (!isNumber && token != JsonToken.VALUE_STRING) {
+        return context.reportInputMismatch(
+          ColumnarBatch.class, "Column " + attribute + " must hold numbers or strings"
+        );
+      }
+      if (numeric == null) {
+        numeric = isNumber;
+        if (!numeric) {
+          // Rows seen so far were all null
+          strings = new ArrayList<>(Math.max(16, size * 2));
+          for (int i = 0; i < size; i++) {
+            strings.add(null);
+          }
+        }
+      } else if (numeric != isNumber) {
+        return context.reportInputMismatch(
+          ColumnarBatch.class, "Column " + attribute + " mixes numbers and strings"
+        );
+      }
+
+      if (numeric) {
+        if (size == numbers.length) {
+          numbers = Arrays.copyOf(numbers, size * 2);
+        }
+        numbers[size] = parser.getDoubleValue();
+      } else {
+        strings.add(parser.getText());
+      }
+      size++;
+    }
+
+    if (numeric == null) {
+      return size; // Empty or all null, only the length is known
+    }
+    if (strings != null) {
+      return strings.toArray(new String[0]);
+    }
+    return Arrays.copyOf(numbers, size);
+  }
+
+  private static int length(Object column) {
+    if (column instanceof Integer length) {
+      return length;
+    }
+    return column instanceof double[] values ? values.length : ((String[]) column).length;
+  }
+
+  private static void expect(
+    JsonParser parser,
+    DeserializationContext context,
+    JsonToken actual,
+    JsonToken expected
+  ) throws IOException {
+    if (actual != expected) {
+      context.reportWrongTokenException(ColumnarBatch.class, expected, "Malformed columnar batch");
+    }
+  }
+}
@@ -0,0 +1,67 @@
+package com.ruleengine.ruleapplication.vector;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dictionary-encoded string column: each row holds an int code into a table
+ * of distinct values, or MISSING when the row has no value.
+ */
+public final class DictionaryColumn {
+
+  public static final int MISSING = -1;
+
+  private final String[] dictionary;
+  private final int[] codes;
+  private final Map<String, Integer> index;
+
+  public DictionaryColumn(String[] dictionary, int[] codes) {
+    this.dictionary = dictionary;
+    this.codes = codes;
+    this.index = new HashMap<>(dictionary.length * 2);
+    for (int i = 0; i < dictionary.length; i++) {
+      index.put(dictionary[i], i);
+    }
+  }
+
+  public static DictionaryColumn encode(String[] values) {
+    Map<String, Integer> index = new HashMap<>();
+    List<String> dictionary = new ArrayList<>();
+    int[] codes = new int[values.length];
+    for (int i = 0; i < values.length; i++) {
+      String value = values[i];
+      if (value == null) {
+        codes[i] = MISSING;
+        continue;
+      }
+      Integer code = index.get(value);
+      if (code == null) {
+        code = dictionary.size();
+        index.put(value, code);
+        dictionary.add(value);
+      }
+      codes[i] = code;
+    }
+    return new DictionaryColumn(dictionary.toArray(new String[0]), codes);
+  }
+
+  // Code of a value, or MISSING when no row holds it
+  public int codeOf(String value) {
+    Integer code = index.get(value);
+    return code == null ? MISSING : code;
+  }
+
+  public String[] getDictionary() {
+    return dictionary;
+  }
+
+  public int[] getCodes() {
+    return codes;
+  }
+
+  public int size() {
+    return codes.length;
+  }
+}
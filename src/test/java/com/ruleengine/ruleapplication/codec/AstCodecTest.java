@@ -0,0 +1,127 @@
+package com.ruleengine.ruleapplication.codec;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ruleengine.ruleapplication.model.ASTNode;
+import com.ruleengine.ruleapplication.model.AstNormalizer;
+import com.ruleengine.ruleapplication.model.OperandNode;
+import com.ruleengine.ruleapplication.model.OperatorNode;
+import com.ruleengine.ruleapplication.parser.RuleGenerator;
+import com.ruleengine.ruleapplication.parser.Ruleparser;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+class AstCodecTest {
+
+  private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+  @Test
+  void roundTripsParsedRules() throws Exception {
+    Random random = new Random(3);
+    for (int i = 0; i < 500; i++) {
+      ASTNode ast = new Ruleparser().parse(RuleGenerator.randomRule(random, 1 + random.nextInt(60)));
+      byte[] encoded = AstCodec.encode(ast);
+      assertEquals(ast, AstCodec.decode(encoded));
+      assertTrue(encoded.length < objectMapper.writeValueAsBytes(ast).length);
+    }
+  }
+
+  @Test
+  void roundTripsListValues() throws Exception {
+    Random random = new Random(4);
+    for (int i = 0; i < 200; i++) {
+      ASTNode ast = new Ruleparser().parse(RuleGenerator.randomListRule(random, 1 + random.nextInt(30)));
+      assertEquals(ast, AstCodec.decode(AstCodec.encode(ast)));
+      assertEquals(ast, objectMapper.readValue(objectMapper.writeValueAsBytes(ast), ASTNode.class));
+    }
+
+    OperandNode decoded = (OperandNode) AstCodec.decode(
+      AstCodec.encode(new OperandNode("a", OperandNode.IN, List.of(1, 2L, 2.5, "x")))
+    );
+    assertEquals(OperandNode.IN, decoded.getOperator());
+    assertEquals(List.of(1, 2L, 2.5, "x"), decoded.getValue());
+  }
+
+  @Test
+  void keepsValueTypes() {
+    ASTNode ast = new OperatorNode(
+      "OR",
+      new OperatorNode("AND", new OperandNode("a", "=", 30), new OperandNode("b", ">", 2.5)),
+      new OperatorNode(
+        "XOR",
+        new OperandNode("c", "<>", 1L << 40),
+        new OperandNode("d", "!=", -0.0)
+      )
+    );
+    ASTNode decoded = AstCodec.decode(AstCodec.encode(ast));
+    assertEquals(ast, decoded);
+    OperatorNode left = (OperatorNode) ((OperatorNode) decoded).getLeft();
+    assertInstanceOf(Integer.class, ((OperandNode) left.getLeft()).getValue());
+    OperatorNode right = (OperatorNode) ((OperatorNode) decoded).getRight();
+    assertInstanceOf(Long.class, ((OperandNode) right.getLeft()).getValue());
+  }
+
+  @Test
+  void handlesDeepTrees() {
+    ASTNode chain = new Ruleparser().parse(RuleGenerator.chainRule(100_000));
+    ASTNode decoded = AstCodec.decode(AstCodec.encode(chain));
+    assertEquals(((OperatorNode) chain).getRight(), ((OperatorNode) decoded).getRight());
+  }
+
+  @Test
+  void writesSharedSubtreesOnce() {
+    Ruleparser parser = new Ruleparser();
+    String shared = "(age > 30 AND department = 'Sales') OR (salary > 50000 AND experience > 5)";
+    ASTNode first = parser.parse(shared + " OR city = 'Pune'");
+    ASTNode second = parser.parse(shared + " OR city = 'Delhi'");
+    ASTNode combined = AstNormalizer.normalize(new OperatorNode("AND", List.of(first, second)));
+
+    byte[] encoded = AstCodec.encode(combined);
+    assertTrue(encoded.length < AstCodec.encode(first).length + AstCodec.encode(second).length / 2);
+    OperatorNode decoded = (OperatorNode) AstCodec.decode(encoded);
+    assertEquals(combined, decoded);
+    assertSame(
+      ((OperatorNode) decoded.getLeft()).getChildren().get(0),
+      ((OperatorNode) decoded.getRight()).getChildren().get(0)
+    );
+  }
+
+  @Test
+  void readsVersion1() {
+    // AND(a = 1, a = 2) as written before n-ary operators
+    byte[] version1 = { 'R', 'A', 1, 1, 1, 'a', 0, 3, 0, 4, 3, 2, 3, 0, 4, 3, 4 };
+    assertEquals(
+      new OperatorNode("AND", new OperandNode("a", "=", 1), new OperandNode("a", "=", 2)),
+      AstCodec.decode(version1)
+    );
+  }
+
+  @Test
+  void readsVersion2() {
+    // OR(a = 1, a != 'x') as written before list values
+    byte[] version2 = { 'R', 'A', 2, 2, 1, 'a', 1, 'x', 1, 2, 3, 0, 4, 3, 2, 3, 0, 6, 5, 1 };
+    assertEquals(
+      new OperatorNode("OR", new OperandNode("a", "=", 1), new OperandNode("a", "!=", "x")),
+      AstCodec.decode(version2)
+    );
+
+    byte[] encoded = AstCodec.encode(new OperandNode("a", OperandNode.IN, List.of(1, 2)));
+    assertEquals(AstCodec.VERSION, encoded[2]);
+    encoded[2] = 2;
+    assertThrows(IllegalArgumentException.class, () -> AstCodec.decode(encoded));
+  }
+
+  @Test
+  void rejectsUnknownVersions() {
+    byte[] encoded = AstCodec.encode(new OperandNode("a", "=", "x"));
+    encoded[2] = 99;
+    assertThrows(IllegalArgumentException.class, () -> AstCodec.decode(encoded));
+  }
+}
@@ -0,0 +1,111 @@
+package com.ruleengine.ruleapplication.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ruleengine.ruleapplication.event.RuleChangedEvent;
+import com.ruleengine.ruleapplication.service.EvaluationService;
+import com.ruleengine.ruleapplication.service.RuleService;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+class RuleMetricsTest {
+
+  @Autowired
+  private EvaluationService evaluationService;
+
+  @Autowired
+  private RuleService ruleService;
+
+  @Autowired
+  private RulesEndpoint rulesEndpoint;
+
+  @Autowired
+  private MeterRegistry registry;
+
+  @Test
+  void countsEvaluationsByResultAndCause() {
+    ruleService.createRule("metrics-counted", "age > 30");
+    evaluationService.evaluateRule("metrics-counted", Map.of("age", 40));
+    evaluationService.evaluateRule("metrics-counted", Map.of("age", 40));
+    evaluationService.evaluateRule("metrics-counted", Map.of("age", 20));
+    assertThrows(RuntimeException.class, () -> evaluationService.evaluateRule("metrics-counted", Map.of("age", "old")));
+
+    assertEquals(2.0, evaluations("metrics-counted", "true"));
+    assertEquals(1.0, evaluations("metrics-counted", "false"));
+    assertEquals(1.0, evaluations("metrics-counted", "error"));
+    assertEquals(1.0, registry.get("rule.evaluation.errors")
+      .tag("rule", "metrics-counted").tag("cause", RuleMetrics.CAUSE_INCOMPATIBLE_TYPES).counter().count());
+
+    Map<String, Object> summary = rulesEndpoint.rule("metrics-counted");
+    assertEquals(4L, summary.get("evaluations"));
+    assertEquals(2.0 / 3, (double) summary.get("trueRatio"), 1e-9);
+    assertEquals(Map.of(RuleMetrics.CAUSE_INCOMPATIBLE_TYPES, 1L), summary.get("errors"));
+    assertTrue(rulesEndpoint.rules().containsKey("metrics-counted"));
+
+    ruleService.deleteRuleByName("metrics-counted");
+    assertTrue(registry.find("rule.evaluations").tag("rule", "metrics-counted").meters().isEmpty());
+    assertTrue(registry.find("rule.evaluation.errors").tag("rule", "metrics-counted").meters().isEmpty());
+    assertNull(registry.find("rule.evaluation.load").tag("rule", "metrics-counted").timer());
+    assertNull(registry.find("rule.evaluation.evaluate").tag("rule", "metrics-counted").timer());
+    assertNull(rulesEndpoint.rule("metrics-counted"));
+  }
+
+  @Test
+  void createsNoMetersForUnknownRules() {
+    double notFound = registry.get("rule.evaluation.not_found").counter().count();
+    assertThrows(RuntimeException.class, () -> evaluationService.evaluateRule("metrics-missing", Map.of("age", 40)));
+    assertEquals(notFound + 1, registry.get("rule.evaluation.not_found").counter().count());
+    assertTrue(registry.find("rule.evaluations").tag("rule", "metrics-missing").meters().isEmpty());
+    assertNull(rulesEndpoint.rule("metrics-missing"));
+  }
+
+  @Test
+  void classifiesErrorsByCause() {
+    SimpleMeterRegistry simple = new SimpleMeterRegistry();
+    RuleMetrics metrics = new RuleMetrics(simple, 1, false);
+    metrics.recordError("r", new UnsupportedOperationException("Unknown operator: XOR"));
+    metrics.recordError("r", new IllegalStateException());
+    assertEquals(
+      Map.of(RuleMetrics.CAUSE_UNKNOWN_OPERATOR, 1L, RuleMetrics.CAUSE_OTHER, 1L),
+      metrics.summary("r").get("errors")
+    );
+
+    metrics.onRuleChanged(new RuleChangedEvent("r", null));
+    assertTrue(simple.find("rule.evaluation.errors").meters().isEmpty());
+    assertNull(metrics.summary("r"));
+  }
+
+  @Test
+  void publishesPercentileHistogramsOnlyOnRequest() {
+    for (boolean enabled : new boolean[] { false, true }) {
+      SimpleMeterRegistry simple = new SimpleMeterRegistry();
+      Map<String, Boolean> histograms = new HashMap<>();
+      simple.config().meterFilter(new MeterFilter() {
+        @Override
+        public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+          histograms.put(id.getName(), config.isPercentileHistogram());
+          return config;
+        }
+      });
+      new RuleMetrics(simple, 1, enabled).recordEvaluate("r", 1_000);
+      assertEquals(enabled, histograms.get("rule.evaluation.load"));
+      assertEquals(enabled, histograms.get("rule.evaluation.evaluate"));
+    }
+  }
+
+  private double evaluations(String rule, String result) {
+    return registry.get("rule.evaluations").tag("rule", rule).tag("result", result).counter().count();
+  }
+}
@@ -0,0 +1,69 @@
+package com.ruleengine.ruleapplication.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.ruleengine.ruleapplication.parser.RuleGenerator;
+import com.ruleengine.ruleapplication.parser.Ruleparser;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class AstNormalizerTest {
+
+  @Test
+  void flattensCombinedRulesAndSharesRepeatedSubtrees() {
+    Ruleparser parser = new Ruleparser();
+    ASTNode sales = parser.parse("(age > 30 AND department = 'Sales') OR salary > 50000");
+    ASTNode marketing = parser.parse("(age > 30 AND department = 'Sales') OR experience > 5");
+    ASTNode chain = parser.parse("a = 1 AND b = 2 AND c = 3 AND a = 1");
+
+    OperatorNode combined = (OperatorNode) AstNormalizer.normalize(
+      new OperatorNode("AND", List.of(chain, new OperatorNode("AND", sales, marketing)))
+    );
+
+    // a, b, c (a repeated once), then the two ORs
+    assertEquals(5, combined.getChildren().size());
+    assertInstanceOf(OperandNode.class, combined.getChildren().get(2));
+    OperatorNode first = (OperatorNode) combined.getChildren().get(3);
+    OperatorNode second = (OperatorNode) combined.getChildren().get(4);
+    assertSame(first.getChildren().get(0), second.getChildren().get(0));
+  }
+
+  @Test
+  void keepsAnswersAndErrors() {
+    Random random = new Random(14);
+    for (int i = 0; i < 300; i++) {
+      ASTNode ast = new Ruleparser().parse(RuleGenerator.randomRule(random, 1 + random.nextInt(12)));
+      ASTNode normalized = AstNormalizer.normalize(ast);
+      for (int j = 0; j < 50; j++) {
+        Map<String, Object> record = new HashMap<>();
+        record.put("age", random.nextInt(100));
+        record.put("salary", random.nextBoolean() ? random.nextDouble() * 100_000 : "high");
+        record.put("department", "value" + random.nextInt(5));
+        if (random.nextBoolean()) {
+          record.put("experience", random.nextInt(20));
+        }
+        assertEquals(outcome(ast, record), outcome(normalized, record), ast + " " + record);
+      }
+    }
+  }
+
+  @Test
+  void handlesDeepChains() {
+    ASTNode chain = new Ruleparser().parse(RuleGenerator.chainRule(100_000));
+    OperatorNode normalized = (OperatorNode) AstNormalizer.normalize(chain);
+    assertEquals(100_000, normalized.getChildren().size());
+  }
+
+  private static String outcome(ASTNode ast, Map<String, Object> record) {
+    try {
+      return String.valueOf(ast.evaluate(record));
+    } catch (RuntimeException e) {
+      return e.getClass().getSimpleName() + ": " + e.getMessage();
+    }
+  }
+}
@@ -0,0 +1,187 @@
+package com.ruleengine.ruleapplication.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ruleengine.ruleapplication.exception.IncompatibleTypesException;
+import com.ruleengine.ruleapplication.exception.RuleBudgetExceededException;
+import com.ruleengine.ruleapplication.parser.RuleGenerator;
+import com.ruleengine.ruleapplication.parser.Ruleparser;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class OperatorNodeTest {
+
+  @Test
+  void evaluatesTreesOfAnyDepth() {
+    // ((x > 0 AND x > 1) OR x > 2) AND x > 3 ..., which the normalizer cannot flatten
+    Map<String, Object> record = Map.of("x", 3);
+    ASTNode tree = new OperandNode("x", ">", 0);
+    boolean expected = true;
+    for (int i = 1; i <= 100_000; i++) {
+      String operator = i % 2 == 1 ? "AND" : "OR";
+      tree = new OperatorNode(operator, tree, new OperandNode("x", ">", i % 5));
+      expected = operator.equals("AND") ? expected && 3 > i % 5 : expected || 3 > i % 5;
+    }
+    assertEquals(100_001, tree.depth());
+    assertEquals(expected, tree.evaluate(record));
+    assertEquals(expected, tree.evaluate(record, Long.MAX_VALUE));
+
+    AdaptiveStats.attach(tree);
+    for (int i = 0; i < 3; i++) {
+      assertEquals(expected, tree.evaluate(record));
+    }
+
+    ASTNode chain = new Ruleparser().parse(RuleGenerator.chainRule(100_000));
+    Map<String, Object> attributes = new HashMap<>();
+    for (int i = 0; i < 100_000; i++) {
+      attributes.put("attr" + i, i);
+    }
+    assertTrue(chain.evaluate(attributes));
+  }
+
+  @Test
+  void comparesAndPrintsTreesOfAnyDepth() {
+    ASTNode tree = new OperandNode("x", ">", 0);
+    ASTNode copy = new OperandNode("x", ">", 0);
+    for (int i = 1; i <= 100_000; i++) {
+      String operator = i % 2 == 1 ? "AND" : "OR";
+      tree = new OperatorNode(operator, tree, new OperandNode("x", ">", i % 5));
+      copy = new OperatorNode(operator, copy, new OperandNode("x", ">", i % 5));
+    }
+    assertEquals(tree, copy);
+    assertEquals(tree.hashCode(), copy.hashCode());
+    assertTrue(tree.toString().startsWith("OperatorNode(operator=OR, children=[OperatorNode(operator=AND, "));
+    assertNotEquals(tree, new OperatorNode("OR", copy, new OperandNode("x", ">", 1)));
+
+    ASTNode age = new OperandNode("age", ">", 30);
+    ASTNode sales = new OperandNode("department", "=", "Sales");
+    ASTNode small = new OperatorNode("OR", new OperatorNode("AND", age, age), sales);
+    assertEquals(
+      "OperatorNode(operator=OR, children=[OperatorNode(operator=AND, children=[" + age + ", " + age + "]), " + sales + "])",
+      small.toString()
+    );
+    assertEquals(small, new OperatorNode("OR", new OperatorNode("AND", age, new OperandNode("age", ">", 30)), sales));
+    assertNotEquals(small, new OperatorNode("OR", new OperatorNode("AND", age, age), age));
+  }
+
+  @Test
+  void givesTheSameAnswersWithATimeLimit() {
+    Random random = new Random(25);
+    for (int i = 0; i < 50; i++) {
+      // Large enough to be walked when the time is limited
+      List<ASTNode> groups = new ArrayList<>();
+      for (int g = 0; g < 4; g++) {
+        List<ASTNode> rules = new ArrayList<>();
+        for (int r = 0; r < 20; r++) {
+          rules.add(new Ruleparser().parse(RuleGenerator.randomRule(random, 1 + random.nextInt(8))));
+        }
+        groups.add(new OperatorNode(random.nextBoolean() ? "AND" : "OR", rules));
+      }
+      ASTNode tree = new OperatorNode(random.nextBoolean() ? "AND" : "OR", groups);
+      assertTrue(tree.size() > OperatorNode.CLOCK_CHECK_INTERVAL);
+
+      for (int j = 0; j < 20; j++) {
+        Map<String, Object> record = new HashMap<>();
+        record.put("age", random.nextInt(100));
+        record.put("salary", random.nextBoolean() ? random.nextDouble() * 100_000 : "high");
+        record.put("department", "value" + random.nextInt(5));
+        if (random.nextBoolean()) {
+          record.put("experience", random.nextInt(20));
+        }
+        String recursive;
+        String walked;
+        try {
+          recursive = String.valueOf(tree.evaluate(record));
+        } catch (RuntimeException e) {
+          recursive = "error: " + e.getMessage();
+        }
+        try {
+          walked = String.valueOf(tree.evaluate(record, Long.MAX_VALUE));
+        } catch (RuntimeException e) {
+          walked = "error: " + e.getMessage();
+        }
+        assertEquals(recursive, walked, tree + " " + record);
+      }
+    }
+  }
+
+  @Test
+  void abandonsEvaluationsOverTheTimeLimit() {
+    List<ASTNode> conditions = new ArrayList<>();
+    for (int i = 0; i < 10_000; i++) {
+      conditions.add(new OperandNode("x", ">", -i));
+    }
+    ASTNode tree = new OperatorNode("AND", conditions);
+    Map<String, Object> record = Map.of("x", 1);
+
+    assertTrue(tree.evaluate(record, 0));
+    RuleBudgetExceededException e = assertThrows(
+      RuleBudgetExceededException.class,
+      () -> tree.evaluate(record, 1)
+    );
+    assertTrue(e.getMessage().startsWith("Evaluation exceeded the time limit"), e.getMessage());
+  }
+
+  @Test
+  void evaluatesTheMostDecisiveChildFirst() {
+    // x > 0 never decides the AND, y > 5 almost always does
+    OperatorNode tree = new OperatorNode("AND", new OperandNode("x", ">", 0), new OperandNode("y", ">", 5));
+    AdaptiveStats.attach(tree);
+    AdaptiveStats stats = tree.getAdaptiveStats();
+    Map<String, Object> rejected = Map.of("x", 1, "y", 0);
+    for (int i = 0; i < 100_000; i++) {
+      assertEquals(false, tree.evaluate(rejected));
+    }
+    assertEquals("[1, 0]", Arrays.toString(stats.order));
+    assertTrue(stats.reorders.sum() > 0);
+
+    // Decided by y > 5 alone, so x > 0 is skipped
+    long before = stats.children[0].evaluations.sum();
+    assertEquals(false, tree.evaluate(rejected));
+    assertEquals(before, stats.children[0].evaluations.sum());
+    assertEquals(true, tree.evaluate(Map.of("x", 1, "y", 9)));
+    assertEquals(before + 1, stats.children[0].evaluations.sum());
+  }
+
+  @Test
+  void neverMovesAChildPastOneThatHasThrown() {
+    OperatorNode tree = new OperatorNode("AND", List.of(
+      new OperandNode("x", ">", 0),
+      new OperandNode("salary", ">", 5),
+      new OperandNode("z", ">", 0),
+      new OperandNode("y", ">", 5)
+    ));
+    AdaptiveStats.attach(tree);
+    AdaptiveStats stats = tree.getAdaptiveStats();
+    Map<String, Object> failing = Map.of("x", 1, "salary", "high", "z", 1, "y", 0);
+    assertThrows(IncompatibleTypesException.class, () -> tree.evaluate(failing));
+    assertEquals(1, stats.children[1].errors.sum());
+
+    // y > 5 alone decides these, but moving it first would turn the failure above into false
+    Map<String, Object> rejected = Map.of("x", 1, "salary", 10, "z", 1, "y", 0);
+    for (int i = 0; i < 100_000; i++) {
+      assertEquals(false, tree.evaluate(rejected));
+    }
+    assertEquals("[0, 1, 3, 2]", Arrays.toString(stats.order));
+    assertThrows(IncompatibleTypesException.class, () -> tree.evaluate(failing));
+  }
+
+  @Test
+  void countsSharedSubtreesAtEachUse() {
+    ASTNode shared = new Ruleparser().parse("age > 30 AND salary > 50000");
+    OperatorNode tree = new OperatorNode("OR", Collections.nCopies(3, shared));
+    assertEquals(3, shared.size());
+    assertEquals(10, tree.size());
+    assertEquals(3, tree.depth());
+    assertEquals(1, new OperandNode("age", ">", 30).depth());
+  }
+}
@@ -0,0 +1,84 @@
+package com.ruleengine.ruleapplication.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ruleengine.ruleapplication.parser.RuleGenerator;
+import com.ruleengine.ruleapplication.parser.Ruleparser;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class RuleExplainerTest {
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void tracesVisitedNodesAndLookedUpValues() {
+    ASTNode ast = new Ruleparser().parse("(age > 30 AND department = 'Sales') OR salary > 50000");
+    RuleExplainer.Explanation explanation = RuleExplainer.explain(ast, Map.of("age", 25, "salary", 60000));
+
+    assertTrue(explanation.result());
+    assertNull(explanation.error());
+    Map<String, Object> or = explanation.tree();
+    assertEquals("OR", or.get("operator"));
+    assertEquals(true, or.get("visited"));
+    List<Map<String, Object>> orOperands = (List<Map<String, Object>>) or.get("operands");
+
+    Map<String, Object> and = orOperands.get(0);
+    assertEquals(false, and.get("result"));
+    List<Map<String, Object>> andOperands = (List<Map<String, Object>>) and.get("operands");
+    assertEquals(25, andOperands.get(0).get("value"));
+    assertEquals(false, andOperands.get(0).get("result"));
+    // Short-circuited by the false age condition
+    assertEquals(false, andOperands.get(1).get("visited"));
+    assertFalse(andOperands.get(1).containsKey("result"));
+
+    assertEquals(60000, orOperands.get(1).get("value"));
+    assertEquals(true, orOperands.get(1).get("result"));
+    assertTrue((Long) orOperands.get(1).get("nanos") >= 0);
+  }
+
+  @Test
+  void agreesWithEvaluate() {
+    Random random = new Random(20);
+    for (int i = 0; i < 300; i++) {
+      ASTNode ast = AstNormalizer.normalize(
+        new Ruleparser().parse(RuleGenerator.randomRule(random, 1 + random.nextInt(12)))
+      );
+      for (int j = 0; j < 20; j++) {
+        Map<String, Object> record = new HashMap<>();
+        record.put("age", random.nextInt(100));
+        record.put("salary", random.nextBoolean() ? random.nextDouble() * 100_000 : "high");
+        record.put("department", "value" + random.nextInt(5));
+        if (random.nextBoolean()) {
+          record.put("experience", random.nextInt(20));
+        }
+        RuleExplainer.Explanation explanation = RuleExplainer.explain(ast, record);
+        String explained = explanation.error() != null ? "error: " + explanation.error() : String.valueOf(explanation.result());
+        String evaluated;
+        try {
+          evaluated = String.valueOf(ast.evaluate(record));
+        } catch (RuntimeException e) {
+          evaluated = "error: " + e.getMessage();
+        }
+        assertEquals(evaluated, explained, ast + " " + record);
+      }
+    }
+  }
+
+  @Test
+  void handlesDeepChains() {
+    ASTNode chain = new Ruleparser().parse(RuleGenerator.chainRule(100_000));
+    Map<String, Object> record = new HashMap<>();
+    for (int i = 0; i < 100_000; i++) {
+      record.put("attr" + i, i);
+    }
+    assertTrue(RuleExplainer.explain(chain, record).result());
+    record.put("attr0", -1);
+    assertFalse(RuleExplainer.explain(chain, record).result());
+  }
+}
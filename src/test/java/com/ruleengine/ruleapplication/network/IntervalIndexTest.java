@@ -0,0 +1,59 @@
+package com.ruleengine.ruleapplication.network;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import org.junit.jupiter.api.Test;
+
+class IntervalIndexTest {
+
+  @Test
+  void findsTheSameRangesAsAScan() {
+    Random random = new Random(24);
+    IntervalIndex index = new IntervalIndex();
+    Map<String, NumericRange> filed = new HashMap<>();
+    for (int i = 0; i < 5000; i++) {
+      String name = "rule" + random.nextInt(300);
+      NumericRange previous = filed.remove(name);
+      if (previous != null) {
+        index.remove(previous, name);
+      }
+      if (random.nextInt(4) != 0) {
+        NumericRange range = randomRange(random);
+        index.add(range, name);
+        index.add(range, name); // Filing twice is the same as once
+        filed.put(name, range);
+      }
+      assertEquals(filed.size(), index.size());
+
+      double value = random.nextInt(10) == 0 ? -0.0 : random.nextInt(44) - 2 + (random.nextBoolean() ? 0.5 : 0);
+      Set<String> expected = new TreeSet<>();
+      filed.forEach((rule, range) -> {
+        if (range.contains(value)) {
+          expected.add(rule);
+        }
+      });
+      Set<String> found = new TreeSet<>();
+      index.collect(value, found);
+      assertEquals(expected, found, "value " + value);
+    }
+  }
+
+  private static NumericRange randomRange(Random random) {
+    double inf = Double.POSITIVE_INFINITY;
+    double a = random.nextInt(40);
+    double b = a + random.nextInt(10);
+    switch (random.nextInt(4)) {
+      case 0:
+        return new NumericRange(a, random.nextBoolean(), inf, false);
+      case 1:
+        return new NumericRange(-inf, false, b, random.nextBoolean());
+      default:
+        return new NumericRange(a, random.nextBoolean(), b, random.nextBoolean());
+    }
+  }
+}
@@ -0,0 +1,193 @@
+package com.ruleengine.ruleapplication.network;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ruleengine.ruleapplication.model.ASTNode;
+import com.ruleengine.ruleapplication.model.OperandNode;
+import com.ruleengine.ruleapplication.model.OperatorNode;
+import com.ruleengine.ruleapplication.parser.Ruleparser;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import org.junit.jupiter.api.Test;
+
+class RuleNetworkTest {
+
+  private static final String[] COMPARATORS = { "=", "=", "=", ">", "<", "!=" };
+
+  @Test
+  void matchesLikeEvaluatingEveryRule() {
+    Random random = new Random(9);
+    RuleNetwork network = new RuleNetwork();
+    Map<String, ASTNode> rules = new TreeMap<>();
+    for (int i = 0; i < 300; i++) {
+      putRandom(network, rules, random, "rule" + i);
+    }
+
+    int skipped = 0;
+    for (int i = 0; i < 2000; i++) {
+      // Keep the index honest across updates and deletes
+      if (i % 50 == 0) {
+        String name = "rule" + random.nextInt(350);
+        if (random.nextBoolean()) {
+          network.remove(name);
+          rules.remove(name);
+        } else {
+          putRandom(network, rules, random, name);
+        }
+      }
+
+      Map<String, Object> record = randomRecord(random);
+      MatchResult result = network.match(record, null);
+      assertEquals(expectedMatches(rules, record), result.matchedRules(), record.toString());
+      // A skipped rule cannot match, so it also never gets to report a type error
+      assertTrue(expectedErrors(rules, record).containsAll(result.errors().keySet()), record.toString());
+      assertEquals(rules.size(), result.rulesEvaluated() + result.rulesSkipped());
+      skipped += result.rulesSkipped();
+    }
+    assertTrue(skipped > 0);
+  }
+
+  @Test
+  void matchesTreesOfAnyDepth() {
+    ASTNode tree = new OperandNode("x", ">", 0);
+    for (int i = 1; i <= 100_000; i++) {
+      tree = new OperatorNode(i % 2 == 1 ? "AND" : "OR", tree, new OperandNode("x", ">", i % 5));
+    }
+    RuleNetwork network = new RuleNetwork();
+    network.put("deep", tree);
+    for (int x = 0; x < 6; x++) {
+      Map<String, Object> record = Map.of("x", x);
+      List<String> expected = tree.evaluate(record) ? List.of("deep") : List.of();
+      assertEquals(expected, network.match(record, null).matchedRules(), record.toString());
+    }
+    network.remove("deep");
+    assertEquals(List.of(), network.match(Map.of("x", 4), null).matchedRules());
+  }
+
+  @Test
+  void reportsUnknownOperatorsWhenMatching() {
+    RuleNetwork network = new RuleNetwork();
+    ASTNode age = new OperandNode("age", ">", 30);
+    network.put("none", new OperatorNode(null, age, age));
+    network.put("xor", new OperatorNode("XOR", age, age));
+    network.put("and", new OperatorNode("and", age, age));
+
+    MatchResult result = network.match(Map.of("age", 40), null);
+    assertEquals(List.of("and"), result.matchedRules());
+    assertEquals(Set.of("none", "xor"), result.errors().keySet());
+    assertTrue(result.errors().get("xor").toString().contains("Unknown operator: XOR"), result.errors().toString());
+  }
+
+  @Test
+  void skipsRulesWithMissingAttributes() {
+    RuleNetwork network = new RuleNetwork();
+    network.put("sales", new Ruleparser().parse("department = 'Sales' AND age > 30"));
+    network.put("either", new Ruleparser().parse("(city = 'Pune' AND age > 1) OR (age < 5 AND city = 'Pune')"));
+    network.put("salary", new Ruleparser().parse("salary > 1000"));
+
+    MatchResult result = network.match(Map.of("age", 40, "department", "Sales"), null);
+    assertEquals(List.of("sales"), result.matchedRules());
+    assertEquals(1, result.rulesEvaluated());
+    assertEquals(2, result.rulesSkipped());
+
+    result = network.match(Map.of("age", 40, "department", "HR", "city", "Pune"), null);
+    assertEquals(List.of("either"), result.matchedRules());
+    assertEquals(1, result.rulesEvaluated());
+  }
+
+  @Test
+  void evaluatesOnlyRulesWhoseThresholdsTheRecordMeets() {
+    RuleNetwork network = new RuleNetwork();
+    for (int i = 0; i < 1000; i++) {
+      network.put("above" + i, new Ruleparser().parse("salary > " + i * 10));
+      network.put("below" + i, new Ruleparser().parse("age <= " + i + " AND salary >= 0"));
+      network.put("between" + i, new Ruleparser().parse("experience BETWEEN " + i + " AND " + (i + 5)));
+    }
+    assertEquals(3000, network.getStats().get("rangeIndexedRules"));
+
+    MatchResult result = network.match(Map.of("salary", 55, "age", 997, "experience", 2.5), null);
+    assertEquals(
+      List.of(
+        "above0", "above1", "above2", "above3", "above4", "above5",
+        "below997", "below998", "below999", "between0", "between1", "between2"
+      ),
+      result.matchedRules()
+    );
+    assertEquals(result.matchedRules().size(), result.rulesEvaluated());
+
+    // Moved and removed rules leave the index with them
+    network.put("above0", new Ruleparser().parse("salary > 100"));
+    network.put("between1", new Ruleparser().parse("experience BETWEEN 1 AND 2"));
+    network.remove("above1");
+    result = network.match(Map.of("salary", 55, "experience", 2.5), null);
+    assertEquals(List.of("above2", "above3", "above4", "above5", "between0", "between2"), result.matchedRules());
+    assertEquals(6, result.rulesEvaluated());
+    assertEquals(2999, network.getStats().get("rangeIndexedRules"));
+  }
+
+  private static void putRandom(RuleNetwork network, Map<String, ASTNode> rules, Random random, String name) {
+    ASTNode ast = new Ruleparser().parse(randomRule(random, 1 + random.nextInt(6)));
+    network.put(name, ast);
+    rules.put(name, ast);
+  }
+
+  private static String randomRule(Random random, int conditions) {
+    if (conditions == 1) {
+      int attribute = random.nextInt(12);
+      String comparator = COMPARATORS[random.nextInt(COMPARATORS.length)];
+      // Even attributes hold numbers and odd ones strings, with a few mistakes
+      boolean numeric = (attribute % 2 == 0) != (random.nextInt(40) == 0);
+      String value = numeric ? String.valueOf(random.nextInt(4)) : "'v" + random.nextInt(4) + "'";
+      if (!numeric && !comparator.equals("=")) {
+        comparator = "!=";
+      }
+      return "a" + attribute + " " + comparator + " " + value;
+    }
+    int left = 1 + random.nextInt(conditions - 1);
+    return "(" + randomRule(random, left) + (random.nextInt(3) == 0 ? " OR " : " AND ") +
+      randomRule(random, conditions - left) + ")";
+  }
+
+  private static Map<String, Object> randomRecord(Random random) {
+    Map<String, Object> record = new HashMap<>();
+    for (int attribute = 0; attribute < 12; attribute++) {
+      if (random.nextInt(3) == 0) {
+        record.put("a" + attribute, attribute % 2 == 0 ? random.nextInt(4) : "v" + random.nextInt(4));
+      }
+    }
+    return record;
+  }
+
+  private static List<String> expectedMatches(Map<String, ASTNode> rules, Map<String, Object> record) {
+    List<String> matched = new ArrayList<>();
+    rules.forEach((name, ast) -> {
+      try {
+        if (ast.evaluate(record)) {
+          matched.add(name);
+        }
+      } catch (RuntimeException e) {
+        // Counted by expectedErrors
+      }
+    });
+    return matched;
+  }
+
+  private static Set<String> expectedErrors(Map<String, ASTNode> rules, Map<String, Object> record) {
+    Set<String> errors = new HashSet<>();
+    rules.forEach((name, ast) -> {
+      try {
+        ast.evaluate(record);
+      } catch (RuntimeException e) {
+        errors.add(name);
+      }
+    });
+    return errors;
+  }
+}
@@ -0,0 +1,142 @@
+package com.ruleengine.ruleapplication.optimizer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ruleengine.ruleapplication.model.ASTNode;
+import com.ruleengine.ruleapplication.model.OperandNode;
+import com.ruleengine.ruleapplication.model.OperatorNode;
+import com.ruleengine.ruleapplication.parser.RuleGenerator;
+import com.ruleengine.ruleapplication.parser.Ruleparser;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class RuleOptimizerTest {
+
+  private final Ruleparser parser = new Ruleparser();
+
+  @Test
+  void simplifiesRedundantAndContradictoryRules() {
+    assertEquals(
+      new OperandNode("age", ">", 40.0),
+      optimize("age > 30 AND age > 40").ast()
+    );
+    assertEquals(
+      new OperandNode("age", ">", 30.0),
+      optimize("age > 30 OR age > 40").ast()
+    );
+    assertEquals(
+      new OperandNode("dept", "=", "Sales"),
+      optimize("dept = 'Sales' OR dept = 'Sales'").ast()
+    );
+    assertEquals(
+      parser.parse("dept = 'Sales' AND age < 50"),
+      optimize("dept = 'Sales' AND dept != 'HR' AND age < 50 AND age <= 60").ast()
+    );
+
+    RuleOptimizer.Result never = optimize("age < 10 AND age > 20");
+    assertTrue(never.report().neverMatches());
+    assertEquals(RuleOptimizer.constant(false), never.ast());
+    assertEquals(0, never.report().conditionsAfter());
+
+    // A contradiction inside an OR only removes that branch
+    RuleOptimizer.Result branch = optimize("(age < 10 AND age > 20) OR salary > 5");
+    assertFalse(branch.report().neverMatches());
+    assertEquals(new OperandNode("salary", ">", 5.0), branch.ast());
+    assertEquals(
+      List.of("never true: age < 10.0 AND age > 20.0", "dropped a never-true operand of OR"),
+      branch.report().simplifications()
+    );
+
+    // NaN satisfies != but no range, so these stay
+    ASTNode kept = parser.parse("age != 5 AND age != 6");
+    assertEquals(kept, optimize("age != 5 AND age != 6").ast());
+  }
+
+  @Test
+  void keepsEveryAnswerOfTheOriginalRule() {
+    Random random = new Random(15);
+    int simplified = 0;
+    for (int i = 0; i < 1000; i++) {
+      ASTNode ast = parser.parse(RuleGenerator.randomRule(random, 2 + random.nextInt(14)));
+      RuleOptimizer.Result result = RuleOptimizer.optimize(ast);
+      if (!result.report().simplifications().isEmpty()) {
+        simplified++;
+      }
+      for (int j = 0; j < 100; j++) {
+        Map<String, Object> record = randomRecord(random);
+        String expected = outcome(ast, record);
+        // An error may become an answer, never the other way around
+        if (expected.equals("true") || expected.equals("false")) {
+          assertEquals(expected, outcome(result.ast(), record), ast + " " + record);
+        }
+      }
+    }
+    assertTrue(simplified > 100);
+  }
+
+  @Test
+  void treatsBetweenAsARange() {
+    assertEquals(parser.parse("age BETWEEN 10 AND 20"), optimize("age > 5 AND age BETWEEN 10 AND 20").ast());
+    assertTrue(optimize("age BETWEEN 10 AND 20 AND age > 20").report().neverMatches());
+    assertFalse(optimize("age BETWEEN 10 AND 20 AND age >= 20").report().neverMatches());
+
+    Random random = new Random(16);
+    for (int i = 0; i < 300; i++) {
+      ASTNode ast = parser.parse(RuleGenerator.randomListRule(random, 2 + random.nextInt(14)));
+      ASTNode optimized = RuleOptimizer.optimize(ast).ast();
+      for (int j = 0; j < 100; j++) {
+        Map<String, Object> record = randomRecord(random);
+        String expected = outcome(ast, record);
+        if (expected.equals("true") || expected.equals("false")) {
+          assertEquals(expected, outcome(optimized, record), ast + " " + record);
+        }
+      }
+    }
+  }
+
+  @Test
+  void foldsConstantsOfCombinedRules() {
+    ASTNode never = RuleOptimizer.constant(false);
+    ASTNode rule = parser.parse("age > 30");
+    assertEquals(rule, RuleOptimizer.optimize(new OperatorNode("OR", never, rule)).ast());
+    assertEquals(never, RuleOptimizer.optimize(new OperatorNode("AND", rule, never)).ast());
+  }
+
+  private RuleOptimizer.Result optimize(String rule) {
+    return RuleOptimizer.optimize(parser.parse(rule));
+  }
+
+  // Values close to each other so that ranges overlap and exclude each other
+  private static Map<String, Object> randomRecord(Random random) {
+    Map<String, Object> record = new HashMap<>();
+    for (String attribute : List.of("age", "salary", "department", "experience", "city")) {
+      switch (random.nextInt(5)) {
+        case 0:
+          break;
+        case 1:
+          record.put(attribute, "value" + random.nextInt(20));
+          break;
+        case 2:
+          record.put(attribute, random.nextInt(10) == 0 ? Double.NaN : random.nextDouble() * 100_000);
+          break;
+        default:
+          record.put(attribute, random.nextInt(100_000));
+          break;
+      }
+    }
+    return record;
+  }
+
+  private static String outcome(ASTNode ast, Map<String, Object> record) {
+    try {
+      return String.valueOf(ast.evaluate(record));
+    } catch (RuntimeException e) {
+      return e.getClass().getSimpleName();
+    }
+  }
+}
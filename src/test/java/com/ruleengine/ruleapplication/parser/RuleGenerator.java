@@ -0,0 +1,85 @@
+package com.ruleengine.ruleapplication.parser;
+
+import java.util.Random;
+
+/**
+ * Generates rule strings for RuleparserTest and the JMH benchmarks.
+ */
+public final class RuleGenerator {
+
+  private static final String[] ATTRIBUTES = { "age", "salary", "department", "experience", "city" };
+  private static final String[] COMPARATORS = { ">", "<", ">=", "<=", "=", "!=" };
+
+  private RuleGenerator() {
+  }
+
+  // Random mix of numeric and string conditions, AND/OR and parentheses
+  public static String randomRule(Random random, int conditions) {
+    StringBuilder rule = new StringBuilder();
+    appendRandom(rule, random, conditions, false);
+    return rule.toString();
+  }
+
+  // Same, with IN, NOT IN and BETWEEN among the conditions
+  public static String randomListRule(Random random, int conditions) {
+    StringBuilder rule = new StringBuilder();
+    appendRandom(rule, random, conditions, true);
+    return rule.toString();
+  }
+
+  private static void appendRandom(StringBuilder rule, Random random, int conditions, boolean lists) {
+    if (conditions == 1) {
+      rule.append(ATTRIBUTES[random.nextInt(ATTRIBUTES.length)]).append(' ');
+      int kind = lists ? random.nextInt(4) : 0;
+      if (kind == 1 || kind == 2) {
+        rule.append(kind == 1 ? "IN (" : "not in (");
+        boolean numbers = random.nextBoolean();
+        for (int i = 0, size = 1 + random.nextInt(8); i < size; i++) {
+          rule.append(i == 0 ? "" : ", ");
+          appendValue(rule, random, numbers);
+        }
+        rule.append(')');
+        return;
+      }
+      if (kind == 3) {
+        int low = random.nextInt(100_000);
+        rule.append("BETWEEN ").append(low).append(" AND ").append(low + random.nextInt(50_000));
+        return;
+      }
+      rule.append(COMPARATORS[random.nextInt(COMPARATORS.length)]).append(' ');
+      appendValue(rule, random, random.nextBoolean());
+      return;
+    }
+    int left = 1 + random.nextInt(conditions - 1);
+    boolean parenthesize = random.nextInt(3) == 0;
+    if (parenthesize) {
+      rule.append('(');
+    }
+    appendRandom(rule, random, left, lists);
+    rule.append(random.nextBoolean() ? " AND " : random.nextBoolean() ? " OR " : " and ");
+    appendRandom(rule, random, conditions - left, lists);
+    if (parenthesize) {
+      rule.append(')');
+    }
+  }
+
+  private static void appendValue(StringBuilder rule, Random random, boolean number) {
+    if (number) {
+      rule.append(random.nextInt(100_000));
+    } else {
+      rule.append('\'').append("value").append(random.nextInt(20)).append('\'');
+    }
+  }
+
+  // attr0 = 0 AND attr1 = 1 AND ..., parsed into a left-deep chain
+  public static String chainRule(int conditions) {
+    StringBuilder rule = new StringBuilder();
+    for (int i = 0; i < conditions; i++) {
+      if (i > 0) {
+        rule.append(" AND ");
+      }
+      rule.append("attr").append(i).append(" = ").append(i);
+    }
+    return rule.toString();
+  }
+}
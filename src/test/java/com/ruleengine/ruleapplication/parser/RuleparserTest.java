@@ -0,0 +1,119 @@
+package com.ruleengine.ruleapplication.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.ruleengine.ruleapplication.exception.RuleParsingException;
+import com.ruleengine.ruleapplication.model.ASTNode;
+import com.ruleengine.ruleapplication.model.OperandNode;
+import com.ruleengine.ruleapplication.model.OperatorNode;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class RuleparserTest {
+
+  @Test
+  void producesSameTreesAsLegacyParser() {
+    List<String> rules = List.of(
+      "age > 30",
+      "age >= 30 and department = 'Sales'",
+      "((age > 30 AND department = 'Sales') OR (age < 25 AND department = 'Marketing')) AND (salary > 50000 OR experience > 5)",
+      "a = 1 OR b = 2 AND c = 3 OR d != \"x y\"",
+      "(((x == y)))",
+      "x <= '12' OR y = abc"
+    );
+    for (String rule : rules) {
+      assertEquals(new LegacyRuleparser().parse(rule), new Ruleparser().parse(rule), rule);
+    }
+
+    Random random = new Random(42);
+    for (int i = 0; i < 2000; i++) {
+      String rule = RuleGenerator.randomRule(random, 1 + random.nextInt(40));
+      assertEquals(new LegacyRuleparser().parse(rule), new Ruleparser().parse(rule), rule);
+    }
+  }
+
+  @Test
+  void reportsSameErrorsAsLegacyParser() {
+    List<String> rules = List.of(
+      "(age > 30",
+      "(age > 30 salary",
+      "age",
+      "age 30",
+      "age >",
+      "age > AND",
+      "age > 30 AND )",
+      "AND age > 30"
+    );
+    for (String rule : rules) {
+      RuleParsingException legacy = assertThrows(RuleParsingException.class, () -> new LegacyRuleparser().parse(rule));
+      RuleParsingException current = assertThrows(RuleParsingException.class, () -> new Ruleparser().parse(rule));
+      assertEquals(legacy.getMessage(), current.getMessage(), rule);
+    }
+  }
+
+  @Test
+  void rejectsInputTheLegacyParserSilentlyDropped() {
+    assertThrows(RuleParsingException.class, () -> new Ruleparser().parse(""));
+    assertThrows(RuleParsingException.class, () -> new Ruleparser().parse("age > 30 salary > 10"));
+    assertThrows(RuleParsingException.class, () -> new Ruleparser().parse("age > 30)"));
+    assertThrows(RuleParsingException.class, () -> new Ruleparser().parse("dept = 'Sales"));
+    assertThrows(RuleParsingException.class, () -> new Ruleparser().parse("age @ 30"));
+  }
+
+  @Test
+  void readsDecimalsAndKeywordPrefixedAttributes() {
+    assertEquals(new OperandNode("age", ">", 30.5), new Ruleparser().parse("age > 30.5"));
+    assertEquals(new OperandNode("delta", ">=", -2.0), new Ruleparser().parse("delta >= -2"));
+    assertEquals(new OperandNode("order_count", "=", 3.0), new Ruleparser().parse("order_count = 3"));
+  }
+
+  @Test
+  void readsInNotInAndBetween() {
+    assertEquals(
+      new OperandNode("department", OperandNode.IN, List.of("Sales", "HR", 3.0)),
+      new Ruleparser().parse("department IN ('Sales', \"HR\", 3)")
+    );
+    assertEquals(
+      new OperandNode("city", OperandNode.NOT_IN, List.of("Paris")),
+      new Ruleparser().parse("city not in (Paris)")
+    );
+    assertEquals(
+      new OperatorNode(
+        "OR",
+        new OperatorNode("AND", new OperandNode("age", OperandNode.BETWEEN, List.of(18.0, 65.5)), new OperandNode("x", "=", 1.0)),
+        new OperandNode("y", "=", "in")
+      ),
+      new Ruleparser().parse("age BETWEEN 18 AND 65.5 AND x = 1 OR y = in")
+    );
+
+    List<String> invalid = List.of(
+      "department IN 'Sales'",
+      "department IN ()",
+      "department IN ('Sales' 'HR')",
+      "department IN ('Sales',",
+      "department NOT ('Sales')",
+      "age BETWEEN 18",
+      "age BETWEEN 18 OR 65",
+      "age BETWEEN 'a' AND 'z'",
+      "age BETWEEN 18 AND 'z'",
+      "age BETWEEN low AND high"
+    );
+    for (String rule : invalid) {
+      assertThrows(RuleParsingException.class, () -> new Ruleparser().parse(rule), rule);
+    }
+  }
+
+  @Test
+  void handlesDeepNestingAndLongChainsWithoutRecursion() {
+    int depth = 100_000;
+    String nested = "(".repeat(depth) + "age > 30" + ")".repeat(depth);
+    assertEquals(new OperandNode("age", ">", 30.0), new Ruleparser().parse(nested));
+
+    ASTNode chain = new Ruleparser().parse(RuleGenerator.chainRule(50_000));
+    assertInstanceOf(OperatorNode.class, chain);
+    assertEquals(new OperandNode("attr49999", "=", 49999.0), ((OperatorNode) chain).getRight());
+  }
+}
@@ -0,0 +1,52 @@
+package com.ruleengine.ruleapplication.ruleset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.ruleengine.ruleapplication.model.ASTNode;
+import com.ruleengine.ruleapplication.parser.Ruleparser;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class RulesetTest {
+
+  private final Ruleparser parser = new Ruleparser();
+
+  @Test
+  void changesNeverAffectPublishedVersions() {
+    List<Ruleset.Change> rules = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      rules.add(new Ruleset.Change("rule" + i, parser.parse("age > " + i), LocalDateTime.of(2024, 1, 1, 0, 0).plusSeconds(i)));
+    }
+    Ruleset first = Ruleset.empty().apply(1, rules);
+    assertEquals(1000, first.size());
+    assertEquals(LocalDateTime.of(2024, 1, 1, 0, 16, 39), first.newestUpdate());
+
+    ASTNode updated = parser.parse("age > 5000");
+    Ruleset second = first.apply(2, List.of(
+      new Ruleset.Change("rule7", updated, LocalDateTime.of(2024, 2, 1, 0, 0)),
+      new Ruleset.Change("rule8", null, null),
+      new Ruleset.Change("missing", null, null),
+      new Ruleset.Change("new", parser.parse("age < 1"), null)
+    ));
+
+    assertEquals(2, second.version());
+    assertEquals(1000, second.size());
+    assertSame(updated, second.get("rule7").ast());
+    assertEquals(2, second.get("rule7").version());
+    assertEquals(1, second.get("rule9").version());
+    assertNull(second.get("rule8"));
+    assertEquals(LocalDateTime.of(2024, 2, 1, 0, 0), second.newestUpdate());
+
+    // The first version still answers as before
+    assertEquals(parser.parse("age > 7"), first.get("rule7").ast());
+    assertEquals(parser.parse("age > 8"), first.get("rule8").ast());
+    assertNull(first.get("new"));
+    int[] count = new int[1];
+    first.forEach((name, entry) -> count[0]++);
+    assertEquals(1000, count[0]);
+  }
+}
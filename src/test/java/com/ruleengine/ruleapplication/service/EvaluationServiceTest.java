@@ -0,0 +1,79 @@
+package com.ruleengine.ruleapplication.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+
+import com.ruleengine.ruleapplication.entity.Rule;
+import com.ruleengine.ruleapplication.repository.RuleRepository;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+@SpringBootTest(properties = { "rule.ruleset.enabled=false", "rule.datasource.max-concurrent-loads=2" })
+class EvaluationServiceTest {
+
+  @Autowired
+  private EvaluationService evaluationService;
+
+  @Autowired
+  private RuleService ruleService;
+
+  @Autowired
+  private RuleCache ruleCache;
+
+  @MockitoSpyBean
+  private RuleRepository ruleRepository;
+
+  @Test
+  void boundsConcurrentRuleLoads() throws Exception {
+    int rules = 8;
+    Map<String, Rule> stored = new HashMap<>();
+    for (int i = 0; i < rules; i++) {
+      Rule rule = ruleService.createRule("loads-" + i, "age > " + i);
+      stored.put(rule.getName(), rule);
+    }
+    ruleCache.clear();
+
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger peak = new AtomicInteger();
+    doAnswer(invocation -> {
+      peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+      try {
+        Thread.sleep(100);
+        return Optional.ofNullable(stored.get(invocation.<String>getArgument(0)));
+      } finally {
+        running.decrementAndGet();
+      }
+    }).when(ruleRepository).findByName(anyString());
+
+    ExecutorService executor = Executors.newFixedThreadPool(rules);
+    try {
+      List<Future<Boolean>> results = new ArrayList<>();
+      for (int i = 0; i < rules; i++) {
+        String name = "loads-" + i;
+        results.add(executor.submit(() -> evaluationService.evaluateRuleByName(name, Map.of("age", 5))));
+      }
+      for (int i = 0; i < rules; i++) {
+        assertEquals(5 > i, results.get(i).get(10, TimeUnit.SECONDS));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    // Distinct rules are not coalesced, so only the permits kept the fetches apart
+    assertEquals(2, peak.get());
+    assertTrue((long) ruleCache.getStats().get("misses") >= rules);
+  }
+}
@@ -0,0 +1,106 @@
+package com.ruleengine.ruleapplication.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ruleengine.ruleapplication.event.RuleChangedEvent;
+import com.ruleengine.ruleapplication.model.ASTNode;
+import com.ruleengine.ruleapplication.parser.Ruleparser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+class ResultCacheTest {
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+  @Test
+  void ignoresUnreferencedFieldsAndForgetsChangedRules() {
+    ResultCache cache = new ResultCache(true, 2, Duration.ZERO, registry);
+    cache.registerMeters();
+    ASTNode rule = new Ruleparser().parse("age > 30 AND department = 'Sales'");
+
+    for (int session = 0; session < 5; session++) {
+      assertTrue(cache.evaluate("r", rule, Map.of("age", 35, "department", "Sales", "session", session)));
+    }
+    assertEquals(4L, cache.getStats().get("hits"));
+    assertEquals(1.0, registry.get("rule.result_cache.size").gauge().value());
+
+    // Values that could change in place are not cached
+    assertFalse(cache.evaluate("r", rule, Map.of("age", 20, "department", List.of("Sales"))));
+    assertEquals(1L, cache.getStats().get("bypassed"));
+
+    // At most two results per rule
+    assertFalse(cache.evaluate("r", rule, Map.of("age", 20, "department", "Sales")));
+    assertFalse(cache.evaluate("r", rule, Map.of("age", 40, "department", "HR")));
+    assertEquals(1L, cache.getStats().get("evictions"));
+
+    // An update drops the rule's results, and a new tree never sees the old ones
+    cache.onRuleChanged(new RuleChangedEvent("r", null));
+    assertEquals(0.0, registry.get("rule.result_cache.size").gauge().value());
+    ASTNode updated = new Ruleparser().parse("age > 50");
+    assertFalse(cache.evaluate("r", updated, Map.of("age", 35, "department", "Sales")));
+    assertFalse(cache.evaluate("r", updated, Map.of("age", 35, "department", "Sales")));
+  }
+
+  @Test
+  void expiresResults() throws InterruptedException {
+    ResultCache cache = new ResultCache(true, 100, Duration.ofMillis(1), registry);
+    ASTNode rule = new Ruleparser().parse("age > 30");
+    cache.evaluate("r", rule, Map.of("age", 35));
+    Thread.sleep(5);
+    cache.evaluate("r", rule, Map.of("age", 35));
+    assertEquals(1L, cache.getStats().get("expirations"));
+    assertEquals(0L, cache.getStats().get("hits"));
+  }
+
+  @Test
+  void keepsFrequentlyUsedResultsUnderConcurrentLoad() throws Exception {
+    int threads = 8;
+    ResultCache cache = new ResultCache(true, 50, Duration.ZERO, registry);
+    ASTNode rule = new Ruleparser().parse("age > 30");
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<?>> done = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        int thread = t;
+        done.add(executor.submit(() -> {
+          for (int i = 0; i < 5_000; i++) {
+            int age = i % 2 == 0 ? 99 : thread * 5_000 + i;
+            assertTrue(cache.evaluate("r", rule, Map.of("age", age)) == age > 30);
+          }
+          return null;
+        }));
+      }
+      for (Future<?> future : done) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    Map<String, Object> stats = cache.getStats();
+    assertEquals(threads * 5_000L, (long) stats.get("hits") + (long) stats.get("misses"));
+    assertTrue((double) stats.get("size") <= 50 + threads, stats.toString());
+  }
+
+  @Test
+  void evictsResultsThatAreNotUsed() {
+    ResultCache cache = new ResultCache(true, 10, Duration.ZERO, registry);
+    ASTNode rule = new Ruleparser().parse("age > 30");
+    cache.evaluate("r", rule, Map.of("age", 99));
+    for (int i = 0; i < 1_000; i++) {
+      cache.evaluate("r", rule, Map.of("age", 100 + i));
+      cache.evaluate("r", rule, Map.of("age", 99));
+    }
+    assertEquals(1_000L, cache.getStats().get("hits"));
+    assertEquals(991L, cache.getStats().get("evictions"));
+  }
+}
@@ -0,0 +1,74 @@
+package com.ruleengine.ruleapplication.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ruleengine.ruleapplication.codec.AstCodec;
+import com.ruleengine.ruleapplication.entity.Rule;
+import com.ruleengine.ruleapplication.exception.RuleBudgetExceededException;
+import com.ruleengine.ruleapplication.parser.Ruleparser;
+import com.ruleengine.ruleapplication.repository.RuleRepository;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = { "rule.budget.max-nodes=20", "rule.budget.max-depth=3" })
+class RuleBudgetTest {
+
+  @Autowired
+  private RuleService ruleService;
+
+  @Autowired
+  private EvaluationService evaluationService;
+
+  @Autowired
+  private RuleRepository ruleRepository;
+
+  @Test
+  void rejectsRulesOverTheLimits() {
+    StringBuilder wide = new StringBuilder("a0 = 1");
+    for (int i = 1; i < 20; i++) {
+      wide.append(" OR a").append(i).append(" = 1");
+    }
+    RuleBudgetExceededException e = assertThrows(
+      RuleBudgetExceededException.class,
+      () -> ruleService.createRule("budget-wide", wide.toString())
+    );
+    assertEquals("Rule has 21 nodes, the limit is 20", e.getMessage());
+    assertFalse(ruleRepository.existsByName("budget-wide"));
+
+    ruleService.createRule("budget-a", "(a = 1 AND b = 1) OR c = 1");
+    ruleService.createRule("budget-b", "d = 1 OR e = 1");
+    // AND over two ORs is one level deeper, OR over them is flattened
+    assertThrows(
+      RuleBudgetExceededException.class,
+      () -> ruleService.combineRules(List.of("budget-a", "budget-b"), "budget-and", "AND")
+    );
+    assertFalse(ruleRepository.existsByName("budget-and"));
+    ruleService.combineRules(List.of("budget-a", "budget-b"), "budget-or", "OR");
+    assertTrue(evaluationService.evaluateRuleByName("budget-or", Map.of("e", 1)));
+  }
+
+  @Test
+  void rejectsStoredRulesOverTheLimitsWhenEvaluated() {
+    // Written before the limits were lowered
+    Rule rule = new Rule();
+    rule.setName("budget-stored");
+    rule.setRuleString("((a = 1 AND b = 1) OR c = 1) AND d = 1");
+    rule.setAstBinary(AstCodec.encode(new Ruleparser().parse(rule.getRuleString())));
+    rule.setCreatedAt(LocalDateTime.now());
+    rule.setUpdatedAt(LocalDateTime.now());
+    ruleRepository.save(rule);
+
+    RuleBudgetExceededException e = assertThrows(
+      RuleBudgetExceededException.class,
+      () -> evaluationService.evaluateRule("budget-stored", Map.of("a", 1))
+    );
+    assertEquals("Rule is 4 levels deep, the limit is 3", e.getMessage());
+  }
+}
@@ -0,0 +1,102 @@
+package com.ruleengine.ruleapplication.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.ruleengine.ruleapplication.model.ASTNode;
+import com.ruleengine.ruleapplication.model.OperandNode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+
+class RuleCacheTest {
+
+  @Test
+  void evictsTheLeastRecentlyUsedRule() {
+    RuleCache cache = new RuleCache(2, false, false);
+    ASTNode ast = new OperandNode("age", ">", 30);
+    AtomicInteger loads = new AtomicInteger();
+    Function<String, ASTNode> loader = name -> {
+      loads.incrementAndGet();
+      return ast;
+    };
+
+    cache.getOrLoad("a", loader);
+    cache.getOrLoad("b", loader);
+    cache.getOrLoad("a", loader); // Now b is the least recently used
+    cache.getOrLoad("c", loader);
+    assertSame(ast, cache.getOrLoad("a", loader));
+    assertEquals(3, loads.get());
+    cache.getOrLoad("b", loader);
+    assertEquals(4, loads.get());
+
+    Map<String, Object> stats = cache.getStats();
+    assertEquals(2, stats.get("size"));
+    assertEquals(2L, stats.get("hits"));
+    assertEquals(4L, stats.get("misses"));
+    assertEquals(2L, stats.get("evictions"));
+  }
+
+  @Test
+  void servesTheLatestTreeAfterAChange() {
+    RuleCache cache = new RuleCache(10, false, false);
+    ASTNode first = new OperandNode("age", ">", 30);
+    ASTNode second = new OperandNode("age", ">", 40);
+    Function<String, ASTNode> loader = name -> second;
+
+    cache.put("r", first);
+    assertSame(first, cache.getOrLoad("r", loader));
+    cache.put("r", second);
+    assertSame(second, cache.getOrLoad("r", name -> first));
+    cache.invalidate("r");
+    assertSame(first, cache.getOrLoad("r", name -> first));
+  }
+
+  @Test
+  void concurrentMissesShareOneLoad() throws Exception {
+    RuleCache cache = new RuleCache(100, false, false);
+    ASTNode ast = new OperandNode("age", ">", 30);
+    AtomicInteger loads = new AtomicInteger();
+    CountDownLatch release = new CountDownLatch(1);
+    int callers = 8;
+
+    ExecutorService executor = Executors.newFixedThreadPool(callers);
+    try {
+      List<Future<ASTNode>> results = new ArrayList<>();
+      for (int i = 0; i < callers; i++) {
+        results.add(executor.submit(() -> cache.getOrLoad("r", name -> {
+          loads.incrementAndGet();
+          try {
+            release.await(10, TimeUnit.SECONDS);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          return ast;
+        })));
+      }
+      // Let every other caller join the running load before it finishes
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+      while ((long) cache.getStats().get("coalescedLoads") < callers - 1 && System.nanoTime() < deadline) {
+        Thread.sleep(5);
+      }
+      release.countDown();
+      for (Future<ASTNode> result : results) {
+        assertSame(ast, result.get(10, TimeUnit.SECONDS));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertEquals(1, loads.get());
+    assertEquals((long) callers - 1, cache.getStats().get("coalescedLoads"));
+    assertSame(ast, cache.getOrLoad("r", name -> { throw new AssertionError("loaded again"); }));
+  }
+}
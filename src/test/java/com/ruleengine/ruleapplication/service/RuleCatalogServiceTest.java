@@ -0,0 +1,54 @@
+package com.ruleengine.ruleapplication.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.ruleengine.ruleapplication.repository.RuleSummary;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+class RuleCatalogServiceTest {
+
+  @Autowired
+  private RuleCatalogService ruleCatalogService;
+
+  @Autowired
+  private RuleService ruleService;
+
+  @Test
+  void pagesAndStreamsInNameOrder() {
+    for (int i = 9; i >= 0; i--) {
+      ruleService.createRule("catalog-" + i, "age > " + i);
+    }
+    ruleService.createRule("catalog_x", "age > 1"); // _ is matched literally
+
+    List<String> paged = new ArrayList<>();
+    String after = null;
+    int pages = 0;
+    do {
+      RuleCatalogService.Page page = ruleCatalogService.page(after, "catalog-", null, 4);
+      page.rules().forEach(rule -> paged.add(rule.name()));
+      after = page.nextAfter();
+      pages++;
+    } while (after != null);
+    assertEquals(3, pages);
+    assertEquals(List.of(
+      "catalog-0", "catalog-1", "catalog-2", "catalog-3", "catalog-4",
+      "catalog-5", "catalog-6", "catalog-7", "catalog-8", "catalog-9"
+    ), paged);
+
+    List<RuleSummary> streamed = new ArrayList<>();
+    assertEquals(10, ruleCatalogService.forEach("catalog-", null, streamed::add));
+    assertEquals("catalog-0", streamed.get(0).name());
+    assertEquals("age > 0", streamed.get(0).ruleString());
+
+    RuleCatalogService.Page none = ruleCatalogService.page(null, "catalog", LocalDateTime.now().plusDays(1), 100);
+    assertEquals(0, none.rules().size());
+    assertNull(none.nextAfter());
+  }
+}
@@ -0,0 +1,63 @@
+package com.ruleengine.ruleapplication.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ruleengine.ruleapplication.repository.RuleRepository;
+import com.ruleengine.ruleapplication.stream.RuleFileReader;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = "rule.import.chunk-size=100")
+class RuleImportServiceTest {
+
+  @Autowired
+  private RuleImportService ruleImportService;
+
+  @Autowired
+  private RuleService ruleService;
+
+  @Autowired
+  private EvaluationService evaluationService;
+
+  @Autowired
+  private RuleRepository ruleRepository;
+
+  @Test
+  void importsValidRulesAndReportsTheOthers() throws Exception {
+    ruleService.createRule("import-taken", "age > 1");
+
+    StringBuilder file = new StringBuilder();
+    for (int i = 0; i < 250; i++) {
+      file.append("import-").append(i).append(",age > ").append(i).append('\n');
+    }
+    file.append("import-taken,age > 2\n");  // line 251
+    file.append("import-7,age > 3\n");      // line 252
+    file.append("import-bad,age >\n");      // line 253
+    file.append("import-empty,\n");         // line 254
+
+    ImportReport report = ruleImportService.importRules(
+      new ByteArrayInputStream(file.toString().getBytes(StandardCharsets.UTF_8)),
+      RuleFileReader.Format.CSV
+    );
+
+    assertEquals(254, report.received());
+    assertEquals(250, report.imported());
+    assertEquals(4, report.failed());
+    assertEquals(
+      List.of(251L, 252L, 253L, 254L),
+      report.failures().stream().map(ImportReport.Failure::line).toList()
+    );
+    assertTrue(report.failures().get(0).error().contains("already exists"));
+    assertEquals(
+      3,
+      ruleRepository.findExistingNames(List.of("import-0", "import-249", "import-taken", "import-bad")).size()
+    );
+    assertTrue(evaluationService.evaluateRuleByName("import-249", Map.of("age", 300)));
+  }
+}
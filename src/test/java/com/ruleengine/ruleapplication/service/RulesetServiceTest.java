@@ -0,0 +1,140 @@
+package com.ruleengine.ruleapplication.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ruleengine.ruleapplication.codec.AstCodec;
+import com.ruleengine.ruleapplication.entity.Rule;
+import com.ruleengine.ruleapplication.parser.Ruleparser;
+import com.ruleengine.ruleapplication.repository.RuleRepository;
+import com.ruleengine.ruleapplication.ruleset.Ruleset;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+class RulesetServiceTest {
+
+  @Autowired
+  private RulesetService rulesetService;
+
+  @Autowired
+  private RuleService ruleService;
+
+  @Autowired
+  private EvaluationService evaluationService;
+
+  @Autowired
+  private RuleRepository ruleRepository;
+
+  @Autowired
+  private RuleMatchService ruleMatchService;
+
+  @Test
+  void publishesLocalChangesAndPollsForOthers() {
+    Ruleset before = rulesetService.current();
+    ruleService.createRule("ruleset-local", "age > 30");
+    Ruleset after = rulesetService.current();
+    assertEquals(before.version() + 1, after.version());
+    assertNull(before.get("ruleset-local"));
+    EvaluationService.Evaluation evaluation = evaluationService.evaluateRule("ruleset-local", Map.of("age", 40));
+    assertTrue(evaluation.result());
+    assertEquals(after.version(), evaluation.rulesetVersion());
+
+    // Local changes are not picked up again by polling
+    assertEquals(0, rulesetService.poll());
+
+    // Rows written by another node
+    Rule remote = new Rule();
+    remote.setName("ruleset-remote");
+    remote.setRuleString("age > 50");
+    remote.setAstBinary(AstCodec.encode(new Ruleparser().parse("age > 50")));
+    remote.setCreatedAt(LocalDateTime.now());
+    remote.setUpdatedAt(LocalDateTime.now());
+    ruleRepository.save(remote);
+    Rule local = ruleRepository.findByName("ruleset-local").orElseThrow();
+    ruleRepository.delete(local);
+
+    assertEquals(2, rulesetService.poll());
+    Ruleset polled = rulesetService.current();
+    assertNull(polled.get("ruleset-local"));
+    assertFalse(evaluationService.evaluateRuleByName("ruleset-remote", Map.of("age", 40)));
+    assertEquals(0, rulesetService.poll());
+  }
+
+  @Test
+  void matchesAgainstTheCurrentVersion() {
+    ruleService.createRule("ruleset-match", "age > 30");
+    List<String> names = List.of("ruleset-match");
+    RuleMatchService.Match match = ruleMatchService.match(Map.of("age", 40), names);
+    assertEquals(names, match.result().matchedRules());
+    assertEquals(rulesetService.current().version(), match.rulesetVersion());
+
+    // Changed on another node, the network follows once the poll publishes it
+    Rule rule = ruleRepository.findByName("ruleset-match").orElseThrow();
+    rule.setAstBinary(AstCodec.encode(new Ruleparser().parse("age > 50")));
+    rule.setUpdatedAt(LocalDateTime.now().plusSeconds(1));
+    ruleRepository.save(rule);
+    assertEquals(names, ruleMatchService.match(Map.of("age", 40), names).result().matchedRules());
+    rulesetService.poll();
+    match = ruleMatchService.match(Map.of("age", 40), names);
+    assertEquals(List.of(), match.result().matchedRules());
+    assertEquals(rulesetService.current().version(), match.rulesetVersion());
+
+    ruleRepository.delete(ruleRepository.findByName("ruleset-match").orElseThrow());
+    rulesetService.poll();
+    assertThrows(IllegalArgumentException.class, () -> ruleMatchService.match(Map.of("age", 60), names));
+  }
+
+  @Test
+  void noticesADeleteNextToACreate() {
+    ruleService.createRule("ruleset-deleted", "age > 30");
+    // Not held, because it cannot be read, so the ruleset holds one rule less than the table
+    Rule unreadable = remoteRule("ruleset-unreadable", new byte[] { 'R', 'A', 99 });
+    ruleRepository.save(unreadable);
+    rulesetService.poll();
+
+    // Another node deletes a rule and creates one, the table and the ruleset stay the same size
+    ruleRepository.delete(ruleRepository.findByName("ruleset-deleted").orElseThrow());
+    ruleRepository.save(remoteRule("ruleset-created", AstCodec.encode(new Ruleparser().parse("age > 50"))));
+    try {
+      assertEquals(2, rulesetService.poll());
+      assertNull(rulesetService.current().get("ruleset-deleted"));
+      assertTrue(evaluationService.evaluateRuleByName("ruleset-created", Map.of("age", 60)));
+    } finally {
+      ruleRepository.delete(ruleRepository.findByName("ruleset-unreadable").orElseThrow());
+    }
+  }
+
+  @Test
+  void reconcilesOnlyWhenTheTableChanged() {
+    ruleRepository.save(remoteRule("ruleset-broken", new byte[] { 'R', 'A', 99 }));
+    try {
+      rulesetService.poll();
+      long reconciliations = (long) rulesetService.getStats().get("reconciliations");
+      // The unreadable row is neither a change nor a missing rule
+      assertEquals(0, rulesetService.poll());
+      assertEquals(0, rulesetService.poll());
+      assertEquals(reconciliations, rulesetService.getStats().get("reconciliations"));
+    } finally {
+      ruleRepository.delete(ruleRepository.findByName("ruleset-broken").orElseThrow());
+    }
+    rulesetService.poll();
+  }
+
+  private static Rule remoteRule(String name, byte[] ast) {
+    Rule rule = new Rule();
+    rule.setName(name);
+    rule.setRuleString("age > 50");
+    rule.setAstBinary(ast);
+    rule.setCreatedAt(LocalDateTime.now());
+    rule.setUpdatedAt(LocalDateTime.now());
+    return rule;
+  }
+}
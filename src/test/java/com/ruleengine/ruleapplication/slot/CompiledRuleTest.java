@@ -0,0 +1,92 @@
+package com.ruleengine.ruleapplication.slot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.ruleengine.ruleapplication.model.ASTNode;
+import com.ruleengine.ruleapplication.model.OperandNode;
+import com.ruleengine.ruleapplication.model.OperatorNode;
+import com.ruleengine.ruleapplication.parser.RuleGenerator;
+import com.ruleengine.ruleapplication.parser.Ruleparser;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.Test;
+
+class CompiledRuleTest {
+
+  private static final String[] ATTRIBUTES = { "age", "salary", "department", "experience", "city", "other" };
+
+  @Test
+  void givesTheSameAnswersAndErrorsAsTheTree() {
+    Random random = new Random(10);
+    for (int i = 0; i < 300; i++) {
+      ASTNode ast = new Ruleparser().parse(RuleGenerator.randomRule(random, 1 + random.nextInt(12)));
+      CompiledRule compiled = CompiledRule.compile(ast);
+      for (int j = 0; j < 50; j++) {
+        Map<String, Object> record = randomRecord(random);
+        assertEquals(outcome(ast::evaluate, record), outcome(compiled::evaluate, record), ast + " " + record);
+      }
+    }
+  }
+
+  @Test
+  void givesTheSameAnswersForListConditions() {
+    Random random = new Random(11);
+    for (int i = 0; i < 300; i++) {
+      ASTNode ast = new Ruleparser().parse(RuleGenerator.randomListRule(random, 1 + random.nextInt(12)));
+      CompiledRule compiled = CompiledRule.compile(ast);
+      for (int j = 0; j < 50; j++) {
+        Map<String, Object> record = randomRecord(random);
+        assertEquals(outcome(ast::evaluate, record), outcome(compiled::evaluate, record), ast + " " + record);
+      }
+    }
+  }
+
+  @Test
+  void compilesTreesOfAnyDepth() {
+    // ((x > 0 AND x > 1) OR x > 2) AND x > 3 ..., which the normalizer cannot flatten
+    ASTNode tree = new OperandNode("x", ">", 0);
+    for (int i = 1; i <= 100_000; i++) {
+      tree = new OperatorNode(i % 2 == 1 ? "AND" : "OR", tree, new OperandNode("x", ">", i % 5));
+    }
+    CompiledRule compiled = CompiledRule.compile(tree);
+    for (int x = 0; x < 6; x++) {
+      Map<String, Object> record = Map.of("x", x);
+      assertEquals(tree.evaluate(record), compiled.evaluate(record), record.toString());
+    }
+    Map<String, Object> record = Map.of("x", "high");
+    assertEquals(outcome(tree::evaluate, record), outcome(compiled::evaluate, record));
+  }
+
+  private static Map<String, Object> randomRecord(Random random) {
+    Map<String, Object> record = new HashMap<>();
+    for (String attribute : ATTRIBUTES) {
+      switch (random.nextInt(6)) {
+        case 0:
+          break;
+        case 1:
+          record.put(attribute, "value" + random.nextInt(20));
+          break;
+        case 2:
+          record.put(attribute, random.nextInt(20) == 0 ? Boolean.TRUE : null);
+          break;
+        case 3:
+          record.put(attribute, random.nextDouble() * 100_000);
+          break;
+        default:
+          record.put(attribute, random.nextInt(100_000));
+          break;
+      }
+    }
+    return record;
+  }
+
+  private static String outcome(Predicate<Map<String, Object>> rule, Map<String, Object> record) {
+    try {
+      return String.valueOf(rule.test(record));
+    } catch (RuntimeException e) {
+      return e.getClass().getSimpleName() + ": " + e.getMessage();
+    }
+  }
+}
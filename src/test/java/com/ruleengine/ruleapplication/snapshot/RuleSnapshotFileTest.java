@@ -0,0 +1,53 @@
+package com.ruleengine.ruleapplication.snapshot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.ruleengine.ruleapplication.optimizer.RuleOptimizer;
+import com.ruleengine.ruleapplication.parser.Ruleparser;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class RuleSnapshotFileTest {
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void readsBackWhatWasWritten() throws IOException {
+    Ruleparser parser = new Ruleparser();
+    List<RuleSnapshotFile.Entry> entries = List.of(
+      new RuleSnapshotFile.Entry("rule1", LocalDateTime.of(2024, 3, 1, 12, 30, 5, 123_456_000), parser.parse("age > 30 AND department = 'Sales'")),
+      new RuleSnapshotFile.Entry("régle", null, parser.parse("(age < 25 OR salary >= 50000) AND experience > 2")),
+      new RuleSnapshotFile.Entry("never", LocalDateTime.of(2024, 3, 2, 0, 0), RuleOptimizer.constant(false))
+    );
+    Path path = directory.resolve("snapshots/rules.bin");
+    RuleSnapshotFile.write(path, entries);
+    assertEquals(entries, RuleSnapshotFile.read(path));
+
+    // Rewriting replaces the file
+    RuleSnapshotFile.write(path, entries.subList(0, 1));
+    assertEquals(entries.subList(0, 1), RuleSnapshotFile.read(path));
+    assertEquals(List.of(path), Files.list(path.getParent()).toList());
+  }
+
+  @Test
+  void rejectsCorruptFiles() throws IOException {
+    Path path = directory.resolve("rules.bin");
+    RuleSnapshotFile.write(path, List.of(
+      new RuleSnapshotFile.Entry("rule1", LocalDateTime.of(2024, 3, 1, 12, 0), new Ruleparser().parse("age > 30"))
+    ));
+    byte[] bytes = Files.readAllBytes(path);
+    bytes[bytes.length / 2] ^= 1;
+    Files.write(path, bytes);
+    assertThrows(IOException.class, () -> RuleSnapshotFile.read(path));
+
+    Files.write(path, new byte[] { 'R', 'S' });
+    assertThrows(IOException.class, () -> RuleSnapshotFile.read(path));
+  }
+}
@@ -0,0 +1,57 @@
+package com.ruleengine.ruleapplication.stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ruleengine.ruleapplication.parser.Ruleparser;
+import com.ruleengine.ruleapplication.slot.CompiledRule;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+class NdjsonEvaluatorTest {
+
+  private final NdjsonEvaluator evaluator = new NdjsonEvaluator(new ObjectMapper());
+  private final CompiledRule rule = CompiledRule.compile(
+    new Ruleparser().parse("age > 30 AND department = 'Sales'")
+  );
+
+  @Test
+  void evaluatesEachRecordAndSkipsUnusedFields() throws Exception {
+    String input =
+      "{\"age\": 35, \"address\": {\"city\": \"Pune\", \"tags\": [1, [2]]}, \"department\": \"Sales\"}\n" +
+      "{\"age\": 22, \"department\": \"Sales\", \"notes\": null}\n" +
+      "{\"department\": \"Sales\"}\n" +
+      "{\"age\": \"old\", \"department\": \"Sales\"}\n" +
+      "[1, 2]\n" +
+      "{\"age\": 40.5, \"department\": \"Sales\"}\n";
+    assertEquals(
+      "{\"result\":true}\n" +
+      "{\"result\":false}\n" +
+      "{\"result\":false}\n" +
+      "{\"error\":\"Incompatible types for comparison: class java.lang.String and class java.lang.Double\"}\n" +
+      "{\"error\":\"Record must be a JSON object\"}\n" +
+      "{\"result\":true}\n",
+      run(input, 6)
+    );
+  }
+
+  @Test
+  void stopsAtMalformedJson() throws Exception {
+    String output = run("{\"age\": 35, \"department\": \"Sales\"}\n{\"age\": }\n{\"age\": 40}\n", 2);
+    assertEquals("{\"result\":true}", output.lines().findFirst().orElseThrow());
+    assertEquals(2, output.lines().count());
+  }
+
+  private String run(String input, long expectedRecords) throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    long records = evaluator.evaluate(
+      rule,
+      new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)),
+      out
+    );
+    assertEquals(expectedRecords, records);
+    return out.toString(StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,63 @@
+package com.ruleengine.ruleapplication.stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class RuleFileReaderTest {
+
+  @Test
+  void readsNdjsonAndKeepsGoingAfterBadLines() throws Exception {
+    RuleFileReader reader = reader(
+      RuleFileReader.Format.NDJSON,
+      "{\"ruleName\": \"a\", \"ruleString\": \"age > 30\"}\n" +
+      "\n" +
+      "{\"ruleName\": \"b\", \n" +
+      "[1]\n" +
+      "{\"ruleName\": \"c\", \"ruleString\": \"dept = 'Sales'\"}\n"
+    );
+    List<RuleFileReader.Entry> first = reader.next(2);
+    assertEquals(new RuleFileReader.Entry(1, "a", "age > 30", null), first.get(0));
+    assertEquals(3, first.get(1).line());
+    assertTrue(first.get(1).error().startsWith("Malformed JSON"));
+
+    List<RuleFileReader.Entry> rest = reader.next(10);
+    assertEquals("Line must be a JSON object", rest.get(0).error());
+    assertEquals(new RuleFileReader.Entry(5, "c", "dept = 'Sales'", null), rest.get(1));
+    assertTrue(reader.next(10).isEmpty());
+  }
+
+  @Test
+  void readsCsvWithHeaderAndQuotes() throws Exception {
+    List<RuleFileReader.Entry> entries = reader(
+      RuleFileReader.Format.CSV,
+      "ruleName,ruleString\n" +
+      "a,age > 30\n" +
+      "\"b,1\",\"dept = 'Sales' AND note = \"\"x\"\"\"\n" +
+      "c\n" +
+      "d,\"age > 1\n"
+    ).next(10);
+    assertEquals(
+      List.of(
+        new RuleFileReader.Entry(2, "a", "age > 30", null),
+        new RuleFileReader.Entry(3, "b,1", "dept = 'Sales' AND note = \"x\"", null),
+        new RuleFileReader.Entry(4, null, null, "Expected 2 fields (ruleName,ruleString), found 1"),
+        new RuleFileReader.Entry(5, null, null, "Unterminated quoted field")
+      ),
+      entries
+    );
+  }
+
+  private static RuleFileReader reader(RuleFileReader.Format format, String content) {
+    return new RuleFileReader(
+      new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)),
+      format,
+      new ObjectMapper()
+    );
+  }
+}
@@ -0,0 +1,171 @@
+package com.ruleengine.ruleapplication.vector;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ruleengine.ruleapplication.exception.IncompatibleTypesException;
+import com.ruleengine.ruleapplication.model.ASTNode;
+import com.ruleengine.ruleapplication.parser.Ruleparser;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class VectorizedEvaluatorTest {
+
+  private static final String[] NUMERIC = { "age", "salary", "experience" };
+  private static final String[] STRINGS = { "department", "city" };
+  private static final String[] COMPARATORS = { ">", "<", ">=", "<=", "=", "!=" };
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @Test
+  void matchesRowByRowEvaluation() throws Exception {
+    Random random = new Random(5);
+    for (int i = 0; i < 200; i++) {
+      // Row counts on and off the 64-row word boundary, columns without values and absent ones
+      int rowCount = random.nextInt(4) == 0 ? 64 * random.nextInt(3) : random.nextInt(200);
+      List<Map<String, Object>> rows = randomRows(random, rowCount);
+      ColumnarBatch batch = objectMapper.readValue(toJson(rows, rowCount), ColumnarBatch.class);
+      for (int j = 0; j < 20; j++) {
+        ASTNode ast = new Ruleparser().parse(randomRule(random, 1 + random.nextInt(8)));
+        assertEquals(rowByRow(ast, rows), VectorizedEvaluator.evaluate(ast, batch), ast + " " + rows);
+      }
+    }
+  }
+
+  @Test
+  void columnsWithoutValuesMatchNothing() throws Exception {
+    ColumnarBatch batch = objectMapper.readValue(
+      "{\"columns\": {\"department\": [null, null, null], \"age\": [null, null, null]}}",
+      ColumnarBatch.class
+    );
+    assertEquals(3, batch.getRowCount());
+    ColumnarBatch built = new ColumnarBatch(3)
+      .addStrings("department", new String[3])
+      .addNumeric("age", new double[] { Double.NaN, Double.NaN, Double.NaN });
+    for (String rule : List.of(
+      "department = 'Sales'", "department IN ('a', 'b')", "department != 'x'", "department > 5",
+      "age > 3", "age = 'x'", "age BETWEEN 1 AND 5", "age NOT IN (1, 2)"
+    )) {
+      ASTNode ast = new Ruleparser().parse(rule);
+      assertEquals(new BitSet(), VectorizedEvaluator.evaluate(ast, batch), rule);
+      assertEquals(new BitSet(), VectorizedEvaluator.evaluate(ast, built), rule);
+    }
+
+    ColumnarBatch empty = objectMapper.readValue("{\"columns\": {\"age\": []}}", ColumnarBatch.class);
+    assertEquals(0, empty.getRowCount());
+    assertEquals(new BitSet(), VectorizedEvaluator.evaluate(new Ruleparser().parse("age > 3"), empty));
+  }
+
+  @Test
+  void skipsConditionsOnceEveryRowIsDecided() {
+    int rowCount = 130;
+    double[] ages = new double[rowCount];
+    String[] departments = new String[rowCount];
+    List<Map<String, Object>> rows = new ArrayList<>();
+    for (int i = 0; i < rowCount; i++) {
+      ages[i] = i;
+      departments[i] = i % 2 == 0 ? "Sales" : "HR";
+      rows.add(Map.of("age", i, "department", departments[i]));
+    }
+    ColumnarBatch batch = new ColumnarBatch(rowCount).addNumeric("age", ages).addStrings("department", departments);
+
+    // The right side would fail on a string column, but no row reaches it
+    ASTNode none = new Ruleparser().parse("age < 0 AND department = 5");
+    assertEquals(rowByRow(none, rows), VectorizedEvaluator.evaluate(none, batch));
+    ASTNode all = new Ruleparser().parse("age >= 0 OR department = 5");
+    BitSet everyRow = new BitSet();
+    everyRow.set(0, rowCount);
+    assertEquals(everyRow, VectorizedEvaluator.evaluate(all, batch));
+    assertEquals(rowByRow(all, rows), everyRow);
+
+    ASTNode some = new Ruleparser().parse("age > 5 AND department = 5");
+    assertThrows(IncompatibleTypesException.class, () -> VectorizedEvaluator.evaluate(some, batch));
+    assertThrows(IncompatibleTypesException.class, () -> rowByRow(some, rows));
+  }
+
+  private static BitSet rowByRow(ASTNode ast, List<Map<String, Object>> rows) {
+    BitSet expected = new BitSet();
+    for (int i = 0; i < rows.size(); i++) {
+      if (ast.evaluate(rows.get(i))) {
+        expected.set(i);
+      }
+    }
+    return expected;
+  }
+
+  // Each column is full, partly null, all null or left out
+  private static List<Map<String, Object>> randomRows(Random random, int rowCount) {
+    Map<String, Integer> nullPercent = new HashMap<>();
+    for (String attribute : NUMERIC) {
+      nullPercent.put(attribute, new int[] { 0, 30, 100, -1 }[random.nextInt(4)]);
+    }
+    for (String attribute : STRINGS) {
+      nullPercent.put(attribute, new int[] { 0, 30, 100, -1 }[random.nextInt(4)]);
+    }
+    List<Map<String, Object>> rows = new ArrayList<>();
+    for (int i = 0; i < rowCount; i++) {
+      Map<String, Object> row = new HashMap<>();
+      nullPercent.forEach((attribute, percent) -> {
+        if (percent < 0) {
+          return;
+        }
+        Object value = null;
+        if (random.nextInt(100) >= percent) {
+          value = attribute.equals("department") || attribute.equals("city")
+            ? "value" + random.nextInt(5)
+            : random.nextInt(100);
+        }
+        row.put(attribute, value);
+      });
+      rows.add(row);
+    }
+    return rows;
+  }
+
+  private String toJson(List<Map<String, Object>> rows, int rowCount) throws Exception {
+    Map<String, List<Object>> columns = new LinkedHashMap<>();
+    for (Map<String, Object> row : rows) {
+      row.forEach((attribute, value) -> columns.computeIfAbsent(attribute, a -> new ArrayList<>()).add(value));
+    }
+    return objectMapper.writeValueAsString(Map.of("rowCount", rowCount, "columns", columns));
+  }
+
+  // Conditions agree with the column types, so neither side fails
+  private static String randomRule(Random random, int conditions) {
+    if (conditions == 1) {
+      if (random.nextBoolean()) {
+        String attribute = NUMERIC[random.nextInt(NUMERIC.length)];
+        switch (random.nextInt(4)) {
+          case 0:
+            return attribute + " IN (" + random.nextInt(100) + ", " + random.nextInt(100) + ")";
+          case 1:
+            return attribute + " NOT IN (" + random.nextInt(100) + ")";
+          case 2:
+            int low = random.nextInt(100);
+            return attribute + " BETWEEN " + low + " AND " + (low + random.nextInt(50));
+          default:
+            return attribute + " " + COMPARATORS[random.nextInt(COMPARATORS.length)] + " " + random.nextInt(100);
+        }
+      }
+      String attribute = STRINGS[random.nextInt(STRINGS.length)];
+      switch (random.nextInt(4)) {
+        case 0:
+          return attribute + " IN ('value" + random.nextInt(5) + "', 'value" + random.nextInt(5) + "')";
+        case 1:
+          return attribute + " NOT IN ('value" + random.nextInt(5) + "')";
+        default:
+          return attribute + (random.nextBoolean() ? " = " : " != ") + "'value" + random.nextInt(6) + "'";
+      }
+    }
+    int left = 1 + random.nextInt(conditions - 1);
+    return "(" + randomRule(random, left) + (random.nextBoolean() ? " AND " : " OR ")
+      + randomRule(random, conditions - left) + ")";
+  }
+}